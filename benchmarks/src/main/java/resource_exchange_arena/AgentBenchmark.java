@@ -0,0 +1,96 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgentBenchmark {
+    private ArrayList<Agent> agents;
+    private AdvertisingBoard advertisingBoard;
+    private SimulationContext context;
+
+    // A copy of each Agent's allocation, so that calculateSatisfaction evaluates it rather than using its cache.
+    private TimeSlotStore[] allocations;
+
+    /**
+     * Starts a day and advertises every Agent's unlocked time-slots, as the first exchange round of the day does.
+     * Each benchmark calls the method being measured once for every Agent in the population, so the time reported is
+     * for the whole population.
+     *
+     * @param arena The population and the curves being benchmarked.
+     */
+    @Setup(Level.Trial)
+    public void startDay(ArenaState arena) {
+        arena.createPopulation();
+        arena.startDay();
+        agents = arena.agents;
+        context = arena.context;
+
+        allocations = new TimeSlotStore[agents.size()];
+        advertisingBoard = new AdvertisingBoard(agents.size(), ArenaState.UNIQUE_TIME_SLOTS, arena.slotsPerAgent);
+        for (int i = 0; i < agents.size(); i++) {
+            Agent a = agents.get(i);
+            allocations[i] = new TimeSlotStore(ArenaState.UNIQUE_TIME_SLOTS, arena.slotsPerAgent);
+            allocations[i].copyFrom(a.publishAllocatedTimeSlots());
+            TimeSlotStore unlockedTimeSlots = a.publishUnlockedTimeSlots();
+            if (!unlockedTimeSlots.isEmpty()) {
+                advertisingBoard.advertise(a.agentID, unlockedTimeSlots);
+            }
+        }
+        advertisingBoard.indexAdverts();
+    }
+
+    /**
+     * Evaluates the satisfaction of every Agent with a copy of its allocation, as when an exchange is considered.
+     *
+     * @param blackhole Consumes each satisfaction so that it is not optimised away.
+     */
+    @Benchmark
+    public void calculateSatisfaction(Blackhole blackhole) {
+        for (int i = 0; i < agents.size(); i++) {
+            blackhole.consume(agents.get(i).calculateSatisfaction(allocations[i]));
+        }
+    }
+
+    /**
+     * Finds the time-slots every Agent could offer, as when the Agents advertise at the start of each round.
+     *
+     * @param blackhole Consumes each store so that it is not optimised away.
+     */
+    @Benchmark
+    public void publishUnlockedTimeSlots(Blackhole blackhole) {
+        for (Agent a : agents) {
+            blackhole.consume(a.publishUnlockedTimeSlots());
+        }
+    }
+
+    /**
+     * Chooses an advert for every Agent from the advertising board, as when the Agents make their exchange requests.
+     *
+     * @param blackhole Consumes each advert chosen so that it is not optimised away.
+     */
+    @Benchmark
+    public void requestExchange(Blackhole blackhole) {
+        for (Agent a : agents) {
+            blackhole.consume(a.requestExchange(advertisingBoard, context));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class ArenaState {
+    // The seed every population and day is created from, so each version of the code benchmarks the same days.
+    static final long SEED = 1234;
+
+    // The number of unique time-slots, the demand and availability curves are given at 10 and 30 minute resolution.
+    static final int UNIQUE_TIME_SLOTS = 24;
+
+    @Param({"96", "1000", "10000", "100000"})
+    public int populationSize;
+
+    @Param({"4", "8"})
+    public int slotsPerAgent;
+
+    // The length of the satisfaction curve, each value being half of the one before as in "1.00,0.50,0.25".
+    @Param({"1", "3", "5"})
+    public int satisfactionCurveWidth;
+
+    @Param({"true", "false"})
+    public boolean socialCapital;
+
+    BucketedCurves curves;
+    double[] satisfactionCurve;
+    ArrayList<Integer> uniqueAgentTypes;
+
+    // The population, recreated by createPopulation in the same state each time.
+    ArrayList<Agent> agents;
+    AgentRegistry agentRegistry;
+    AvailabilityPool availabilityPool;
+    SimulationContext context;
+
+    /**
+     * Builds the curves shared by every population of the trial. Flat demand and availability curves are used so that
+     * the benchmarks do not depend on the curves given in a config file.
+     */
+    @Setup(Level.Trial)
+    public void createCurves() {
+        double[][] demandCurves = new double[1][UNIQUE_TIME_SLOTS * 6];
+        Arrays.fill(demandCurves[0], 1.0);
+        int[] availabilityCurve = new int[UNIQUE_TIME_SLOTS * 2];
+        Arrays.fill(availabilityCurve, 1);
+        curves = new BucketedCurves(demandCurves, availabilityCurve, UNIQUE_TIME_SLOTS);
+
+        satisfactionCurve = new double[satisfactionCurveWidth];
+        for (int i = 0; i < satisfactionCurveWidth; i++) {
+            satisfactionCurve[i] = 1.0 / (1 << i);
+        }
+
+        uniqueAgentTypes = new ArrayList<>();
+        uniqueAgentTypes.add(ResourceExchangeArena.SELFISH);
+        uniqueAgentTypes.add(ResourceExchangeArena.SOCIAL);
+    }
+
+    /**
+     * Creates the population as the first day of a simulation run does, with an equal number of selfish and social
+     * Agents and no favours yet given, along with a new SimulationContext so that the days that follow are the same
+     * each time.
+     */
+    void createPopulation() {
+        context = new SimulationContext(SEED, 1, 1);
+        agents = new ArrayList<>();
+        for (int agentNumber = 1; agentNumber <= populationSize; agentNumber++) {
+            new Agent(
+                    agentNumber,
+                    uniqueAgentTypes.get(agentNumber % uniqueAgentTypes.size()),
+                    slotsPerAgent,
+                    UNIQUE_TIME_SLOTS,
+                    agents,
+                    socialCapital,
+                    satisfactionCurve
+            );
+        }
+        context.shuffle(agents);
+        agentRegistry = new AgentRegistry(agents);
+
+        FavourLedger favourLedger = socialCapital ? new FavourLedger(populationSize) : null;
+        for (Agent a : agents) {
+            a.initializeFavoursStore(favourLedger);
+        }
+        availabilityPool = new AvailabilityPool(UNIQUE_TIME_SLOTS, populationSize * slotsPerAgent);
+    }
+
+    /**
+     * Starts a day in the same way as Day, each Agent requesting time-slots and receiving a random allocation, so that
+     * the exchange rounds can be benchmarked on their own.
+     */
+    void startDay() {
+        availabilityPool.fill(populationSize * slotsPerAgent, curves.availabilitySampler, context);
+        context.shuffle(agents);
+        TimeSlotStore allocatedTimeSlots = new TimeSlotStore(UNIQUE_TIME_SLOTS, slotsPerAgent);
+        for (Agent a : agents) {
+            a.resetDailyTracking();
+            TimeSlotStore requestedTimeSlots = a.requestTimeSlots(curves.demandSamplers[0], context);
+            allocatedTimeSlots.clear();
+            for (int i = 0; i < requestedTimeSlots.size(); i++) {
+                allocatedTimeSlots.add(availabilityPool.take(context));
+            }
+            a.receiveAllocatedTimeSlots(allocatedTimeSlots);
+        }
+    }
+}
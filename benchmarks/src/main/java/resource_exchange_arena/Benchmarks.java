@@ -0,0 +1,26 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.openjdk.jmh.Main;
+
+public class Benchmarks {
+    /**
+     * Runs the JMH benchmarks given on the command line, or all of them, writing the results as JSON to
+     * jmh-result.json unless another result format is given with -rf, so that the results of two versions of the code
+     * can be compared.
+     *
+     * @param args The JMH command line options, see "java -jar benchmarks.jar -h".
+     * @exception Exception On any error raised by JMH.
+     * @see Exception
+     */
+    public static void main(String[] args) throws Exception {
+        ArrayList<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add(0, "-rf");
+            options.add(1, "json");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,77 @@
+package resource_exchange_arena;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayBenchmark {
+    private ArenaState arena;
+
+    // Takes the row of daily data each day writes, the benchmark measures the simulation rather than the output.
+    private final DataWriter dailyDataWriter = new DiscardingWriter();
+
+    /**
+     * Recreates the population before every day, as each day changes the types and favours of the Agents that the next
+     * day would start from.
+     *
+     * @param arena The population and the curves being benchmarked.
+     */
+    @Setup(Level.Invocation)
+    public void createPopulation(ArenaState arena) {
+        this.arena = arena;
+        arena.createPopulation();
+    }
+
+    /**
+     * Carries out the first day of a simulation run with every Agent able to change its strategy, recording only the
+     * daily data.
+     *
+     * @return Day Returns the day carried out.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Benchmark
+    public Day day() throws IOException {
+        return new Day(
+                arena.curves.demandSamplers,
+                arena.curves.availabilitySampler,
+                arena.availabilityPool,
+                1,
+                new ArrayList<>(),
+                arena.populationSize,
+                ArenaState.UNIQUE_TIME_SLOTS,
+                arena.slotsPerAgent,
+                arena.populationSize,
+                arena.uniqueAgentTypes,
+                arena.agents,
+                arena.agentRegistry,
+                dailyDataWriter,
+                null,
+                null,
+                0,
+                null,
+                1,
+                arena.context,
+                1.0,
+                false
+        );
+    }
+}
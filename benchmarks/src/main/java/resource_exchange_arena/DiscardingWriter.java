@@ -0,0 +1,37 @@
+package resource_exchange_arena;
+
+import java.io.File;
+
+class DiscardingWriter implements DataWriter {
+    /**
+     * A DataWriter that discards every value it is given, so that the benchmarks measure the simulation rather than
+     * writing its output.
+     */
+    DiscardingWriter() {
+    }
+
+    @Override
+    public void value(int value) {
+    }
+
+    @Override
+    public void value(double value) {
+    }
+
+    @Override
+    public void endRow() {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public File[] files() {
+        return new File[0];
+    }
+}
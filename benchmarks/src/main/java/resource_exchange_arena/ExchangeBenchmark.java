@@ -0,0 +1,65 @@
+package resource_exchange_arena;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeBenchmark {
+    private ArenaState arena;
+    private AdvertisingBoard advertisingBoard;
+
+    /**
+     * Recreates the population and starts its first day before every round, as each round changes the allocations
+     * that the next round would start from.
+     *
+     * @param arena The population and the curves being benchmarked.
+     */
+    @Setup(Level.Invocation)
+    public void startDay(ArenaState arena) {
+        this.arena = arena;
+        arena.createPopulation();
+        arena.startDay();
+        advertisingBoard = new AdvertisingBoard(
+                arena.agents.size(), ArenaState.UNIQUE_TIME_SLOTS, arena.slotsPerAgent);
+    }
+
+    /**
+     * Carries out the first exchange round of the day, without recording the round.
+     *
+     * @return Exchange Returns the round carried out.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Benchmark
+    public Exchange exchangeRound() throws IOException {
+        return new Exchange(
+                1,
+                1,
+                0,
+                arena.uniqueAgentTypes,
+                arena.agents,
+                arena.agentRegistry,
+                advertisingBoard,
+                arena.context,
+                null,
+                null
+        );
+    }
+}
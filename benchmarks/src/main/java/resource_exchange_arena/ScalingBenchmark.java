@@ -0,0 +1,462 @@
+package resource_exchange_arena;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ScalingBenchmark {
+    // The options of the benchmark and their default values, each given on the command line as "name=value".
+    private static final String[][] OPTIONS = {
+            {"populations", "100;1000;10000;100000;1000000"},
+            {"timeSlots", "24;48;144"},
+            {"demandCurves", "1;3"},
+            {"slotsPerAgent", "4"},
+            {"days", "10"},
+            {"runs", "1"},
+            {"socialCapital", "true"},
+            {"satisfactionCurve", "1.0,0.5,0.25"},
+            {"seed", "1234"},
+            {"report", "scaling"},
+            {"thresholds", ""}
+    };
+
+    static final String HEADER = "Population,Time-Slots,Demand Curves,Status,Days,Rounds,Exchanges,Seconds,"
+            + "Days Per Second,Rounds Per Second,Exchanges Per Second,Peak Heap MB,Allocation Rate MB/s,"
+            + "Allocated MB Per Day,GC Seconds";
+
+    // The metrics where a higher value is better, every other metric regresses as it increases.
+    private static final String[] THROUGHPUT_METRICS = {"Days Per Second", "Rounds Per Second", "Exchanges Per Second"};
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    /**
+     * The measurements of the simulation runs of a single configuration.
+     */
+    private static class Result {
+        final int populationSize;
+        final int uniqueTimeSlots;
+        final int demandCurves;
+        String status = "ok";
+        long days;
+        long rounds;
+        long exchanges;
+        double seconds;
+        double peakHeapMB;
+        double allocatedMB;
+        double gcSeconds;
+
+        Result(int populationSize, int uniqueTimeSlots, int demandCurves) {
+            this.populationSize = populationSize;
+            this.uniqueTimeSlots = uniqueTimeSlots;
+            this.demandCurves = demandCurves;
+        }
+
+        /**
+         * Getter for the metrics reported for the configuration, in the order of the report header.
+         *
+         * @return LinkedHashMap Returns each metric by its name in the report, each being NaN when the configuration
+         *                       did not complete.
+         */
+        LinkedHashMap<String, Double> metrics() {
+            LinkedHashMap<String, Double> metrics = new LinkedHashMap<>();
+            if (!status.equals("ok")) {
+                for (String metric : HEADER.substring(HEADER.indexOf("Days Per Second")).split(",")) {
+                    metrics.put(metric, Double.NaN);
+                }
+                return metrics;
+            }
+            metrics.put("Days Per Second", days / seconds);
+            metrics.put("Rounds Per Second", rounds / seconds);
+            metrics.put("Exchanges Per Second", exchanges / seconds);
+            metrics.put("Peak Heap MB", peakHeapMB);
+            metrics.put("Allocation Rate MB/s", allocatedMB / seconds);
+            metrics.put("Allocated MB Per Day", allocatedMB / days);
+            metrics.put("GC Seconds", gcSeconds);
+            return metrics;
+        }
+    }
+
+    /**
+     * Measures how complete simulation runs scale, carrying out a fixed number of days for every combination of
+     * population size, number of time-slots and number of demand curves, and reporting the throughput and memory use
+     * of each to a csv and a json file. The configurations are generated rather than read from a config file, with
+     * demand curves peaking at different times of the day and a flat availability curve. Values can be given as lists
+     * and ranges in the same way as a parameter sweep, e.g. "populations=100;1000..5000..1000".
+     *
+     * No Agent changes its strategy, so a strategy is taken to have taken over on the first day and every run lasts
+     * exactly days + 1 days, whatever the population. When a thresholds file is given the run fails with exit code 1
+     * if any metric regresses past its tolerance.
+     *
+     * @param args The options of the benchmark, each as "name=value".
+     * @exception IOException On input or output error.
+     * @see IOException
+     */
+    public static void main(String[] args) throws IOException {
+        LinkedHashMap<String, String> options = new LinkedHashMap<>();
+        for (String[] option : OPTIONS) {
+            options.put(option[0], option[1]);
+        }
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0 || !options.containsKey(arg.substring(0, split))) {
+                System.out.println("Error: Unknown Option " + arg);
+                System.out.println("Options: " + options.keySet());
+                System.exit(2);
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+
+        int[] populations = intValues("populations", options.get("populations"));
+        int[] timeSlots = intValues("timeSlots", options.get("timeSlots"));
+        int[] demandCurves = intValues("demandCurves", options.get("demandCurves"));
+        int slotsPerAgent = Integer.parseInt(options.get("slotsPerAgent"));
+        int days = Integer.parseInt(options.get("days"));
+        int runs = Integer.parseInt(options.get("runs"));
+        boolean socialCapital = Boolean.parseBoolean(options.get("socialCapital"));
+        double[] satisfactionCurve = Arrays.stream(options.get("satisfactionCurve").split(","))
+                .mapToDouble(Double::parseDouble).toArray();
+        long seed = Long.parseLong(options.get("seed"));
+
+        // The first configuration is simulated once before it is measured, so that it is measured once compiled.
+        System.out.println("Warming up...");
+        measure(new Result(populations[0], timeSlots[0], demandCurves[0]), slotsPerAgent, days, runs, socialCapital,
+                satisfactionCurve, seed);
+
+        ArrayList<Result> results = new ArrayList<>();
+        for (int populationSize : populations) {
+            for (int uniqueTimeSlots : timeSlots) {
+                for (int curves : demandCurves) {
+                    Result result = new Result(populationSize, uniqueTimeSlots, curves);
+                    System.out.println("Benchmarking " + populationSize + " agents, " + uniqueTimeSlots
+                            + " time-slots, " + curves + " demand curves...");
+                    measure(result, slotsPerAgent, days, runs, socialCapital, satisfactionCurve, seed);
+                    if (result.status.equals("ok")) {
+                        LinkedHashMap<String, Double> metrics = result.metrics();
+                        System.out.printf("    %.2f days/s, %.1f rounds/s, %.0f exchanges/s, %.0f MB peak heap%n",
+                                metrics.get("Days Per Second"), metrics.get("Rounds Per Second"),
+                                metrics.get("Exchanges Per Second"), metrics.get("Peak Heap MB"));
+                    } else {
+                        System.out.println("Error: " + result.status);
+                    }
+                    results.add(result);
+                }
+            }
+        }
+
+        String report = options.get("report");
+        writeCsv(report + ".csv", results);
+        writeJson(report + ".json", options, results);
+        System.out.println("Report written to " + report + ".csv and " + report + ".json");
+
+        String thresholds = options.get("thresholds");
+        if (!thresholds.isEmpty() && !checkThresholds(thresholds, results)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses a list or range of integer values, as given to a parameter sweep.
+     *
+     * @param option The name of the option, used when reporting errors.
+     * @param values The list and ranges of values given for the option.
+     * @return int[] Returns every value, in the order given.
+     */
+    private static int[] intValues(String option, String values) {
+        return ParameterSweep.parseValues(option, values).stream().mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Builds the demand curves of a configuration, at 6 values for each time-slot as the curves of the config file
+     * are. Each curve peaks at a different time of the day, so that agents using different curves want different
+     * time-slots.
+     *
+     * @param demandCurves Integer value representing the number of demand curves.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots.
+     * @return double[][] Returns each demand curve.
+     */
+    static double[][] demandCurves(int demandCurves, int uniqueTimeSlots) {
+        double[][] curves = new double[demandCurves][uniqueTimeSlots * 6];
+        for (int c = 0; c < demandCurves; c++) {
+            double peak = (c + 1.0) / (demandCurves + 1.0);
+            for (int i = 0; i < curves[c].length; i++) {
+                double distance = (double) i / curves[c].length - peak;
+                curves[c][i] = 1.0 + 4.0 * Math.exp(-distance * distance / 0.0128);
+            }
+        }
+        return curves;
+    }
+
+    /**
+     * Carries out the simulation runs of a single configuration, measuring the time taken, the memory used and the
+     * days, exchange rounds and successful exchanges simulated. Only the thread carrying out the runs allocates, so
+     * its allocations are those of the runs. A configuration that runs out of memory is reported as such.
+     *
+     * @param result Used to store the measurements of the configuration.
+     * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
+     * @param days Integer value representing the number of days simulated once a strategy has taken over.
+     * @param runs Integer value representing the number of simulation runs to carry out.
+     * @param socialCapital Boolean value that determines whether or not social agents will utilise social capital.
+     * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the
+     *                          agents preferences.
+     * @param seed Long value that every simulation run is seeded from.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private static void measure(
+            Result result,
+            int slotsPerAgent,
+            int days,
+            int runs,
+            boolean socialCapital,
+            double[] satisfactionCurve,
+            long seed
+    ) throws IOException {
+        int populationSize = result.populationSize;
+        int uniqueTimeSlots = result.uniqueTimeSlots;
+        int[] availabilityCurve = new int[uniqueTimeSlots * 2];
+        Arrays.fill(availabilityCurve, 1);
+        BucketedCurves curves = new BucketedCurves(
+                demandCurves(result.demandCurves, uniqueTimeSlots), availabilityCurve, uniqueTimeSlots);
+
+        int[] agentTypes = {ResourceExchangeArena.SELFISH, ResourceExchangeArena.SOCIAL};
+        ArrayList<Integer> uniqueAgentTypes = new ArrayList<>();
+        uniqueAgentTypes.add(ResourceExchangeArena.SELFISH);
+        uniqueAgentTypes.add(ResourceExchangeArena.SOCIAL);
+
+        // Only the daily data is written, as every run does, and it is discarded. The successful exchanges are counted
+        // by the runs themselves.
+        OutputSettings outputSettings = new OutputSettings(
+                false, 0, false, 1, 1, new int[0], 0, false, true, false, -1, 1 << 18, 0);
+        DataWriter dailyDataWriter = new DiscardingWriter();
+        ArrayList<Integer> maxExchanges = new ArrayList<>();
+
+        // The heap left by the previous configuration is collected so that it does not count towards this one.
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long gcMillis = gcMillis();
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            for (int run = 1; run <= runs; run++) {
+                SimulationRun simulationRun = new SimulationRun(
+                        curves.demandSamplers,
+                        curves.availabilitySampler,
+                        days,
+                        maxExchanges,
+                        populationSize,
+                        uniqueTimeSlots,
+                        slotsPerAgent,
+                        0,
+                        agentTypes,
+                        uniqueAgentTypes,
+                        false,
+                        0,
+                        socialCapital,
+                        new ArrayList<>(),
+                        dailyDataWriter,
+                        null,
+                        null,
+                        null,
+                        run,
+                        new SimulationContext(seed, 1, run),
+                        1.0,
+                        satisfactionCurve,
+                        false,
+                        null,
+                        outputSettings
+                );
+                result.exchanges += simulationRun.successfulExchanges;
+            }
+        } catch (OutOfMemoryError e) {
+            result.status = "Out Of Memory";
+        }
+        result.seconds = (System.nanoTime() - start) / 1e9;
+        result.allocatedMB = (threads.getCurrentThreadAllocatedBytes() - allocatedBytes) / MB;
+        result.gcSeconds = (gcMillis() - gcMillis) / 1000.0;
+
+        // The peak of each heap pool is added together, the pools peak at different times so this is an upper bound.
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        result.peakHeapMB = peakHeap / MB;
+
+        result.days = maxExchanges.size();
+        for (int rounds : maxExchanges) {
+            result.rounds += rounds;
+        }
+    }
+
+    /**
+     * Getter for the time spent in garbage collection so far.
+     *
+     * @return long Returns the milliseconds spent by every garbage collector since the JVM started.
+     */
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    /**
+     * Writes a row for every configuration with its measurements and metrics.
+     *
+     * @param fileName String representing the csv file to write.
+     * @param results The measurements of every configuration.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private static void writeCsv(String fileName, ArrayList<Result> results) throws IOException {
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.append(HEADER).append("\n");
+            for (Result result : results) {
+                writer.append(String.valueOf(result.populationSize)).append(",")
+                        .append(String.valueOf(result.uniqueTimeSlots)).append(",")
+                        .append(String.valueOf(result.demandCurves)).append(",")
+                        .append(result.status).append(",")
+                        .append(String.valueOf(result.days)).append(",")
+                        .append(String.valueOf(result.rounds)).append(",")
+                        .append(String.valueOf(result.exchanges)).append(",")
+                        .append(String.valueOf(result.seconds));
+                for (double metric : result.metrics().values()) {
+                    writer.append(",").append(Double.isFinite(metric) ? String.valueOf(metric) : "");
+                }
+                writer.append("\n");
+            }
+        }
+    }
+
+    /**
+     * Writes the options the benchmark was given and the measurements and metrics of every configuration.
+     *
+     * @param fileName String representing the json file to write.
+     * @param options The options of the benchmark.
+     * @param results The measurements of every configuration.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private static void writeJson(String fileName, Map<String, String> options, ArrayList<Result> results)
+            throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"options\": {");
+        String separator = "\n";
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            json.append(separator).append("    \"").append(option.getKey()).append("\": \"")
+                    .append(option.getValue().replace("\\", "\\\\").replace("\"", "\\\"")).append("\"");
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"jvm\": \"").append(System.getProperty("java.vm.name")).append(" ")
+                .append(System.getProperty("java.vm.version")).append("\",\n  \"maxHeapMB\": ")
+                .append(Runtime.getRuntime().maxMemory() / MB).append(",\n  \"results\": [");
+        separator = "\n";
+        for (Result result : results) {
+            json.append(separator).append("    {\"Population\": ").append(result.populationSize)
+                    .append(", \"Time-Slots\": ").append(result.uniqueTimeSlots)
+                    .append(", \"Demand Curves\": ").append(result.demandCurves)
+                    .append(", \"Status\": \"").append(result.status).append("\"")
+                    .append(", \"Days\": ").append(result.days)
+                    .append(", \"Rounds\": ").append(result.rounds)
+                    .append(", \"Exchanges\": ").append(result.exchanges)
+                    .append(", \"Seconds\": ").append(result.seconds);
+            for (Map.Entry<String, Double> metric : result.metrics().entrySet()) {
+                double value = metric.getValue();
+                json.append(", \"").append(metric.getKey()).append("\": ")
+                        .append(Double.isFinite(value) ? String.valueOf(value) : "null");
+            }
+            json.append("}");
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+        try (FileWriter writer = new FileWriter(fileName)) {
+            writer.append(json);
+        }
+    }
+
+    /**
+     * Compares the metrics of each configuration with the baselines of a thresholds file. Each line of the file gives
+     * a configuration, a metric named as in the report, the baseline value and the tolerance as a percentage, e.g.
+     * "1000,24,1,Days Per Second,250,10" fails when 1000 agents with 24 time-slots and 1 demand curve simulate fewer
+     * than 225 days per second. Lines starting with "#" and the report header are skipped, as are configurations that
+     * were not benchmarked. A configuration that did not complete fails every threshold it is given.
+     *
+     * @param fileName String representing the thresholds file to read.
+     * @param results The measurements of every configuration.
+     * @return boolean Returns true when no metric has regressed past its tolerance.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    private static boolean checkThresholds(String fileName, ArrayList<Result> results) throws IOException {
+        int regressions = 0;
+        int checked = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("Population,")) {
+                    continue;
+                }
+                String[] values = line.split(",");
+                if (values.length != 6) {
+                    System.out.println("Error: Invalid Threshold " + line);
+                    regressions++;
+                    continue;
+                }
+                int populationSize = Integer.parseInt(values[0].trim());
+                int uniqueTimeSlots = Integer.parseInt(values[1].trim());
+                int demandCurves = Integer.parseInt(values[2].trim());
+                String metric = values[3].trim();
+                double baseline = Double.parseDouble(values[4].trim());
+                double tolerance = Double.parseDouble(values[5].trim()) / 100.0;
+
+                for (Result result : results) {
+                    if (result.populationSize != populationSize || result.uniqueTimeSlots != uniqueTimeSlots
+                            || result.demandCurves != demandCurves) {
+                        continue;
+                    }
+                    checked++;
+                    Double value = result.metrics().get(metric);
+                    if (value == null) {
+                        System.out.println("Error: Unknown Metric " + metric);
+                        regressions++;
+                        continue;
+                    }
+                    boolean regressed;
+                    if (!result.status.equals("ok")) {
+                        regressed = true;
+                    } else if (Arrays.asList(THROUGHPUT_METRICS).contains(metric)) {
+                        regressed = value < baseline * (1 - tolerance);
+                    } else {
+                        regressed = value > baseline * (1 + tolerance);
+                    }
+                    if (regressed) {
+                        regressions++;
+                        System.out.println("Error: " + metric + " of " + populationSize + " agents, "
+                                + uniqueTimeSlots + " time-slots, " + demandCurves + " demand curves regressed to "
+                                + (result.status.equals("ok") ? String.valueOf(value) : result.status)
+                                + " from a baseline of " + baseline);
+                    }
+                }
+            }
+        }
+        System.out.println("Thresholds checked: " + regressions + " of " + checked + " regressed.");
+        return regressions == 0;
+    }
+}
@@ -0,0 +1,53 @@
+package resource_exchange_arena;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+    // The satisfaction of every Agent once the initial allocation has been made.
+    private double[] satisfactions;
+
+    /**
+     * Starts a day and takes the satisfaction of every Agent with its random initial allocation.
+     *
+     * @param arena The population and the curves being benchmarked.
+     */
+    @Setup(Level.Trial)
+    public void startDay(ArenaState arena) {
+        arena.createPopulation();
+        arena.startDay();
+        satisfactions = new double[arena.agents.size()];
+        for (int i = 0; i < satisfactions.length; i++) {
+            satisfactions[i] = arena.agents.get(i).calculateSatisfaction(null);
+        }
+    }
+
+    /**
+     * Calculates the statistics of the population's satisfactions. The values are reordered by the calculation, so a
+     * copy is taken each time as SatisfactionSnapshot does.
+     *
+     * @return double[] Returns the quartile ranges, min, max, median and 95th percentile satisfaction values.
+     */
+    @Benchmark
+    public double[] statisticalValues() {
+        double[] values = satisfactions.clone();
+        return CalculateSatisfaction.statisticalValues(values, values.length);
+    }
+}
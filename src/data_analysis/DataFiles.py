@@ -0,0 +1,273 @@
+import csv
+import gzip
+import json
+import os
+
+from typing import Any, Dict, IO, List, Optional, Tuple
+
+""" Opens the data files produced by the simulation, whether they were written as csv, compressed or not, or as columns.
+
+The simulation writes gzip compressed data files, with ".gz" added to their names, when 'output.compression' is set.
+The compressed files may hold several gzip members one after another, which gzip reads as a single file.
+When 'output.format' is columnar each data file is instead a folder holding one .npy file for each column, described by
+a manifest.json file, which numpy maps into memory without parsing.
+The data files of each environment are indexed by run and day in a dataIndex.csv file alongside them, so that a single
+run, or a single day across every run, can be read without reading the whole of the data file.
+"""
+
+# The first two bytes of every gzip file.
+GZIP_MAGIC: bytes = b'\x1f\x8b'
+
+# The index written alongside the data files, and the position of each value in its rows once the file name is removed.
+INDEX_FILE: str = 'dataIndex.csv'
+RUN, DAY, ROW, ROWS, RUN_OFFSET, DAY_OFFSET, BYTES = range(7)
+
+
+def openDataFile(dataFile: str) -> IO[str]:
+    """ Opens a data file for reading as text, decompressing it when it is compressed.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the data file, a compressed copy with ".gz" added to the name is used when the file itself does
+        not exist.
+
+    Returns
+    ---------
+    IO[str]
+        The data file opened for reading, ready to be given to csv.reader.
+    """
+    if not os.path.exists(dataFile) and os.path.exists(dataFile + '.gz'):
+        dataFile = dataFile + '.gz'
+
+    with open(dataFile, 'rb') as rawFile:
+        compressed: bool = rawFile.read(2) == GZIP_MAGIC
+
+    if compressed:
+        return gzip.open(dataFile, 'rt', newline='')
+    return open(dataFile, newline='')
+
+
+def isManifest(dataFile: str) -> bool:
+    """ Checks whether a data file is the manifest of a folder of column files.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the data file.
+
+    Returns
+    ---------
+    bool
+        Whether the data file is a manifest.
+    """
+    return os.path.basename(dataFile) == 'manifest.json'
+
+
+def loadColumns(manifestFile: str) -> Dict[str, Any]:
+    """ Maps each column of a columnar data file into memory.
+
+    Parameters
+    ---------
+    manifestFile : str
+        The path of the manifest.json file describing the column files.
+
+    Returns
+    ---------
+    Dict[str, Any]
+        The read only numpy array of each column, by the column name used in the csv header, in column order.
+    """
+    import numpy
+
+    with open(manifestFile) as manifestData:
+        manifest: Dict[str, Any] = json.load(manifestData)
+
+    folder: str = os.path.dirname(manifestFile)
+    columns: Dict[str, Any] = {}
+    for column in manifest['columns']:
+        columns[column['name']] = numpy.load(os.path.join(folder, column['file']), mmap_mode='r')
+    return columns
+
+
+def dataFileName(dataFile: str) -> Tuple[str, str]:
+    """ Finds the folder holding a data file and the name the data file is indexed by.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the data file, either a csv file, compressed or not, or the manifest of its column files.
+
+    Returns
+    ---------
+    Tuple[str, str]
+        The folder holding the data file and the name of the data file, such as "dailyData".
+    """
+    if isManifest(dataFile):
+        columnFolder: str = os.path.dirname(os.path.abspath(dataFile))
+        return os.path.dirname(columnFolder), os.path.basename(columnFolder)[:-len('_columns')]
+    return os.path.dirname(os.path.abspath(dataFile)), os.path.basename(dataFile).split('.csv')[0]
+
+
+def loadIndex(dataFile: str) -> Optional[List[List[int]]]:
+    """ Reads the index of a data file.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the data file, either a csv file or the manifest of its column files.
+
+    Returns
+    ---------
+    Optional[List[List[int]]]
+        The run, day, first row, number of rows, run offset, day offset and bytes of each day of each run, in the order
+        they appear in the data file, or None when the data file has no index.
+    """
+    folder, name = dataFileName(dataFile)
+    indexFile: str = os.path.join(folder, INDEX_FILE)
+    if not os.path.exists(indexFile):
+        return None
+
+    entries: List[List[int]] = []
+    with open(indexFile, newline='') as indexData:
+        reader = csv.reader(indexData)
+        next(reader)
+        for row in reader:
+            if row[0] == name:
+                entries.append([int(value) for value in row[1:]])
+    return entries
+
+
+def readRows(dataFile: str, run: int = 0, firstDay: int = 1, lastDay: Optional[int] = None) -> List[List[float]]:
+    """ Reads the rows of a range of days of a data file, from a single simulation run or from every run.
+
+    When the data file is indexed only the chosen days are read, seeking straight to them in a csv file, or slicing
+    them from the column files. A compressed csv file begins a new gzip member at every run, so only the run holding
+    the days is decompressed. Data files without an index are read in full.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the data file, either a csv file or the manifest of its column files.
+    run : int
+        The simulation run to read, or 0 for every run.
+    firstDay : int
+        The first day to read.
+    lastDay : Optional[int]
+        The last day to read, or None to read up to the last day of each run.
+
+    Returns
+    ---------
+    List[List[float]]
+        The values of each row, in the order they were written.
+    """
+    def chosen(rowRun: int, rowDay: int) -> bool:
+        return (run == 0 or rowRun == run) and rowDay >= firstDay and (lastDay is None or rowDay <= lastDay)
+
+    rows: List[List[float]] = []
+    entries: Optional[List[List[int]]] = loadIndex(dataFile)
+    if entries is None:
+        if isManifest(dataFile):
+            columns: List[Any] = list(loadColumns(dataFile).values())
+            for values in zip(*columns):
+                if chosen(int(values[0]), int(values[1])):
+                    rows.append([float(value) for value in values])
+        else:
+            with openDataFile(dataFile) as rawData:
+                reader = csv.reader(rawData)
+                next(reader)
+                for row in reader:
+                    if chosen(int(row[0]), int(row[1])):
+                        rows.append([float(value) for value in row])
+        return rows
+
+    # The chosen days of each run follow one another in the data file, so each run is read in a single range.
+    ranges: List[Tuple[List[int], List[int]]] = []
+    first: Optional[List[int]] = None
+    last: Optional[List[int]] = None
+    for entry in entries:
+        entryChosen: bool = chosen(entry[RUN], entry[DAY])
+        if first is not None and (not entryChosen or entry[RUN] != first[RUN]):
+            ranges.append((first, last))
+            first = None
+        if entryChosen:
+            if first is None:
+                first = entry
+            last = entry
+    if first is not None:
+        ranges.append((first, last))
+
+    if isManifest(dataFile):
+        columns = list(loadColumns(dataFile).values())
+        for first, last in ranges:
+            start: int = first[ROW]
+            end: int = last[ROW] + last[ROWS]
+            for values in zip(*(column[start:end] for column in columns)):
+                rows.append([float(value) for value in values])
+        return rows
+
+    if not os.path.exists(dataFile) and os.path.exists(dataFile + '.gz'):
+        dataFile = dataFile + '.gz'
+    with open(dataFile, 'rb') as rawFile:
+        compressed: bool = rawFile.read(2) == GZIP_MAGIC
+        for first, last in ranges:
+            length: int = last[DAY_OFFSET] + last[BYTES] - first[DAY_OFFSET]
+            if compressed:
+                rawFile.seek(first[RUN_OFFSET])
+                unzipped = gzip.GzipFile(fileobj=rawFile)
+                unzipped.seek(first[DAY_OFFSET])
+                text: bytes = unzipped.read(length)
+            else:
+                rawFile.seek(first[RUN_OFFSET] + first[DAY_OFFSET])
+                text = rawFile.read(length)
+            for line in text.decode('ascii').splitlines():
+                rows.append([float(value) for value in line.split(',')])
+    return rows
+
+
+def readRunColumns(dataFile: str, runColumns: List[Tuple[int, int]]) -> List[Tuple[List[int], List[float]]]:
+    """ Reads the values of columns of a daily data file for chosen simulation runs.
+
+    Indexed data files are read one run at a time, reading only the rows of the chosen runs. Otherwise the whole of a
+    csv file is read, in a single pass.
+
+    Parameters
+    ---------
+    dataFile : str
+        The path of the daily data file, either a csv file or the manifest of its column files.
+    runColumns : List[Tuple[int, int]]
+        The simulation run and the index of the column to read for each series required.
+
+    Returns
+    ---------
+    List[Tuple[List[int], List[float]]]
+        The days and the values of each series, in the order they were asked for.
+    """
+    series: List[Tuple[List[int], List[float]]] = [([], []) for _ in runColumns]
+
+    if os.path.exists(os.path.join(dataFileName(dataFile)[0], INDEX_FILE)):
+        runRows: Dict[int, List[List[float]]] = {}
+        for (run, column), (days, values) in zip(runColumns, series):
+            if run not in runRows:
+                runRows[run] = readRows(dataFile, run)
+            days.extend(int(row[1]) for row in runRows[run])
+            values.extend(row[column] for row in runRows[run])
+        return series
+
+    if isManifest(dataFile):
+        columns: List[Any] = list(loadColumns(dataFile).values())
+        for (run, column), (days, values) in zip(runColumns, series):
+            selected: Any = columns[0] == run
+            days.extend(int(day) for day in columns[1][selected])
+            values.extend(float(value) for value in columns[column][selected])
+        return series
+
+    with openDataFile(dataFile) as rawData:
+        reader = csv.reader(rawData)
+        next(reader)
+        for row in reader:
+            run: int = int(row[0])
+            for (seriesRun, column), (days, values) in zip(runColumns, series):
+                if run == seriesRun:
+                    days.append(int(row[1]))
+                    values.append(float(row[column]))
+    return series
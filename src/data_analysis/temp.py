@@ -6,6 +6,7 @@ import plotly as py
 import plotly.graph_objects as go
 from plotly.subplots import make_subplots
 
+from DataFiles import openDataFile
 from typing import Any, Dict, List
 
 """ Takes pre-prepared data from the SimulationVisualiserInitiator class and produces a line graphs demonstrating how agent satisfaction and population
@@ -70,7 +71,7 @@ selfishDays: List[str] = []
 
 # Average consumer satisfactions for each agent type for each day are visualised as a line graph.
 # Hypothetical random and optimum allocations are also visualised.
-with open(dataFile) as rawData:
+with openDataFile(dataFile) as rawData:
     reader = csv.reader(rawData)
 
     next(reader)
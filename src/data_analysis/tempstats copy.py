@@ -4,6 +4,7 @@ import os
 import sys
 import scipy.stats as stats
 
+from DataFiles import openDataFile
 from typing import Any, Dict, List
 
 """ Takes pre-prepared data from the SimulationVisualiserInitiator class and produces a line graphs demonstrating how agent satisfaction and population
@@ -36,7 +37,7 @@ def Average(lst):
 
 # Average consumer satisfactions for each agent type for each day are visualised as a line graph.
 # Hypothetical random and optimum allocations are also visualised.
-with open(dataFile) as rawData:
+with openDataFile(dataFile) as rawData:
     socCap = []
 
     reader = csv.reader(rawData)
@@ -65,7 +66,7 @@ with open(dataFile) as rawData:
     
     print(Average(socCap))
 
-with open(dataFile2) as rawData:
+with openDataFile(dataFile2) as rawData:
     socCap = []
 
     reader = csv.reader(rawData)
@@ -4,6 +4,7 @@ import os
 import sys
 import scipy.stats as stats
 
+from DataFiles import openDataFile
 from typing import Any, Dict, List
 
 """ Takes pre-prepared data from the SimulationVisualiserInitiator class and produces a line graphs demonstrating how agent satisfaction and population
@@ -38,7 +39,7 @@ targetDay = 9999
 
 # Average consumer satisfactions for each agent type for each day are visualised as a line graph.
 # Hypothetical random and optimum allocations are also visualised.
-with open(dataFile) as rawData:
+with openDataFile(dataFile) as rawData:
     reader = csv.reader(rawData)
 
     next(reader)
@@ -49,7 +50,7 @@ with open(dataFile) as rawData:
             socialSat.append(float(row[4]))
             targetDay = 9999
 
-with open(dataFile2) as rawData:
+with openDataFile(dataFile2) as rawData:
     reader = csv.reader(rawData)
 
     next(reader)
@@ -0,0 +1,166 @@
+package resource_exchange_arena;
+
+
+class AdvertisingBoard {
+    // Each advert is stored as the advertising Agent's agentID and a range of its exchangeable time-slots.
+    private final int[] advertiserIDs;
+    private final int[] advertStarts;
+    private final int[] advertTimeSlots;
+    private int adverts;
+
+    // Index of the adverts offering each time-slot, the adverts offering time-slot t are found in slotAdverts between
+    // slotStarts[t] and slotStarts[t + 1].
+    private final int[] slotStarts;
+    private final int[] slotAdverts;
+    private final int[] slotFill;
+
+    /**
+     * The advertising board holds the time-slots that Agents have said they may possibly exchange during a single
+     * exchange round. Adverts are indexed by time-slot so that an Agent can find the adverts offering the time-slots it
+     * wants without searching the whole board.
+     *
+     * @param populationSize Integer value representing the size of the agent population, at most one advert can be
+     *                       placed by each Agent.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
+     */
+    AdvertisingBoard(int populationSize, int uniqueTimeSlots, int slotsPerAgent) {
+        advertiserIDs = new int[populationSize];
+        advertStarts = new int[populationSize + 1];
+        advertTimeSlots = new int[populationSize * slotsPerAgent];
+        slotStarts = new int[uniqueTimeSlots + 2];
+        slotAdverts = new int[populationSize * slotsPerAgent];
+        slotFill = new int[uniqueTimeSlots + 1];
+        adverts = 0;
+    }
+
+    /**
+     * Removes all adverts ready for a new exchange round.
+     */
+    void clear() {
+        adverts = 0;
+    }
+
+    /**
+     * Getter for whether any adverts have been placed.
+     *
+     * @return boolean Returns whether the board is empty.
+     */
+    boolean isEmpty() {
+        return adverts == 0;
+    }
+
+    /**
+     * Places an advert for time-slots that an Agent may be willing to exchange.
+     *
+     * @param agentID The agentID of the advertising Agent.
+     * @param timeSlots The time-slots the Agent may be willing to exchange.
+     */
+    void advertise(int agentID, TimeSlotStore timeSlots) {
+        int start = advertStarts[adverts];
+        for (int i = 0; i < timeSlots.size(); i++) {
+            advertTimeSlots[start + i] = timeSlots.get(i);
+        }
+        advertiserIDs[adverts] = agentID;
+        adverts++;
+        advertStarts[adverts] = start + timeSlots.size();
+    }
+
+    /**
+     * Builds the index of adverts offering each time-slot, called once all adverts for the round have been placed.
+     * An advert offering the same time-slot more than once is only indexed once for that time-slot.
+     */
+    void indexAdverts() {
+        for (int t = 0; t < slotStarts.length; t++) {
+            slotStarts[t] = 0;
+        }
+        for (int advert = 0; advert < adverts; advert++) {
+            for (int i = advertStarts[advert]; i < advertStarts[advert + 1]; i++) {
+                if (!offeredEarlier(advert, i)) {
+                    slotStarts[advertTimeSlots[i] + 1]++;
+                }
+            }
+        }
+        for (int t = 1; t < slotStarts.length; t++) {
+            slotStarts[t] += slotStarts[t - 1];
+        }
+        System.arraycopy(slotStarts, 0, slotFill, 0, slotFill.length);
+        for (int advert = 0; advert < adverts; advert++) {
+            for (int i = advertStarts[advert]; i < advertStarts[advert + 1]; i++) {
+                if (!offeredEarlier(advert, i)) {
+                    slotAdverts[slotFill[advertTimeSlots[i]]] = advert;
+                    slotFill[advertTimeSlots[i]]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects an advert, chosen uniformly at random from all the adverts offering at least one of the wanted
+     * time-slots, and takes the first wanted time-slot from it. This gives the same chance of selecting each advert
+     * as shuffling the board and taking the first suitable advert, without the cost of the shuffle.
+     *
+     * @param targetTimeSlots The unique time-slots the requesting Agent wants.
+     * @param context The SimulationContext used to select the advert.
+     * @return int[]|null The agentID of the advertising Agent and the time-slot selected from its advert, or null if
+     *                    no advert offers a wanted time-slot.
+     */
+    int[] selectAdvert(TimeSlotStore targetTimeSlots, SimulationContext context) {
+        int totalEntries = 0;
+        for (int i = 0; i < targetTimeSlots.size(); i++) {
+            int t = targetTimeSlots.get(i);
+            totalEntries += slotStarts[t + 1] - slotStarts[t];
+        }
+        if (totalEntries == 0) {
+            return null;
+        }
+
+        while (true) {
+            // An index entry is picked at random, so an advert offering several wanted time-slots is picked more
+            // often. Accepting it with a chance inversely proportional to that number makes each advert equally
+            // likely.
+            int entry = context.nextInt(totalEntries);
+            int advert = -1;
+            for (int i = 0; i < targetTimeSlots.size(); i++) {
+                int t = targetTimeSlots.get(i);
+                int offers = slotStarts[t + 1] - slotStarts[t];
+                if (entry < offers) {
+                    advert = slotAdverts[slotStarts[t] + entry];
+                    break;
+                }
+                entry -= offers;
+            }
+
+            int matches = 0;
+            int selectedTimeSlot = -1;
+            for (int i = advertStarts[advert]; i < advertStarts[advert + 1]; i++) {
+                if (targetTimeSlots.contains(advertTimeSlots[i]) && !offeredEarlier(advert, i)) {
+                    if (matches == 0) {
+                        selectedTimeSlot = advertTimeSlots[i];
+                    }
+                    matches++;
+                }
+            }
+
+            if (matches == 1 || context.nextInt(matches) == 0) {
+                return new int[] {advertiserIDs[advert], selectedTimeSlot};
+            }
+        }
+    }
+
+    /**
+     * Checks whether a time-slot in an advert also appears earlier in the same advert.
+     *
+     * @param advert The advert to check.
+     * @param position The position of the time-slot within the board.
+     * @return boolean Returns whether the time-slot was offered earlier in the advert.
+     */
+    private boolean offeredEarlier(int advert, int position) {
+        for (int i = advertStarts[advert]; i < position; i++) {
+            if (advertTimeSlots[i] == advertTimeSlots[position]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
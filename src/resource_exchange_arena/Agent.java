@@ -1,9 +1,6 @@
 package resource_exchange_arena;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
 
 class Agent {
     // Unique identifier for the agent.
@@ -14,14 +11,11 @@ class Agent {
     private final boolean usesSocialCapital;
     private boolean madeInteraction;
     private final int numberOfTimeSlotsWanted;
-    private final int uniqueTimeSlots;
-    private ArrayList<Integer> requestedTimeSlots = new ArrayList<>();
-    private ArrayList<Integer> allocatedTimeSlots = new ArrayList<>();
-    private double[] satisfactionCurve;
-    private List<SlotSatisfactionPair> timeSlotSatisfactions = new ArrayList<>();
-    private ArrayList<ArrayList<Integer>> favoursOwed = new ArrayList<>();
-    private ArrayList<ArrayList<Integer>> favoursGiven = new ArrayList<>();
-    private ArrayList<Integer> exchangeRequestReceived = new ArrayList<>();
+    private final TimeSlotStore requestedTimeSlots;
+    private final TimeSlotStore allocatedTimeSlots;
+    private final SatisfactionCache satisfaction;
+    private FavourLedger favourLedger;
+    private int[] exchangeRequestReceived;
     private boolean exchangeRequestApproved;
     private int totalSocialCapital;
     private int dailySocialCapitalExchanges;
@@ -30,6 +24,10 @@ class Agent {
     private int dailyRejectedRequestedExchanges;
     private int dailyAcceptedRequestedExchanges;
 
+    // Reusable working stores so that the exchange hot paths do not need to create new lists.
+    private final TimeSlotStore unlockedTimeSlots;
+    private final TimeSlotStore targetTimeSlots;
+
     /**
      * Agents represent the individual consumers in the simulation.
      *
@@ -46,8 +44,18 @@ class Agent {
         this.agentID = agentID;
         this.agentType = agentType;
         this.usesSocialCapital = socialCapital;
-        this.uniqueTimeSlots = uniqueTimeSlots;
-        this.satisfactionCurve = satisfactionCurve;
+
+        requestedTimeSlots = new TimeSlotStore(uniqueTimeSlots, slotsPerAgent);
+        allocatedTimeSlots = new TimeSlotStore(uniqueTimeSlots, slotsPerAgent);
+        unlockedTimeSlots = new TimeSlotStore(uniqueTimeSlots, slotsPerAgent);
+        targetTimeSlots = new TimeSlotStore(uniqueTimeSlots, slotsPerAgent);
+        satisfaction = new SatisfactionCache(
+                requestedTimeSlots,
+                allocatedTimeSlots,
+                satisfactionCurve,
+                slotsPerAgent,
+                uniqueTimeSlots
+        );
 
         madeInteraction = false;
         numberOfTimeSlotsWanted = slotsPerAgent;
@@ -127,9 +135,9 @@ class Agent {
     /**
      * Getter for the currently received exchange request.
      *
-     * @return boolean Returns the currently received exchange request.
+     * @return int[]|null Returns the currently received exchange request, or null if no request has been received.
      */
-    ArrayList<Integer> getExchangeRequestReceived() {
+    int[] getExchangeRequestReceived() {
         return exchangeRequestReceived;
     }
 
@@ -137,59 +145,39 @@ class Agent {
      * Setter for the currently received exchange request.
      */
     void setExchangeRequestReceived() {
-        exchangeRequestReceived.clear();
+        exchangeRequestReceived = null;
     }
 
     /**
-     * Getter for the favours the agent owes.
+     * Getter for the number of favours the agent owes another agent.
      *
-     * @return ArrayList<ArrayList<Integer>> Returns all the favours the agent owes.
+     * @param otherAgentID The agentID of the agent who is owed the favours.
+     * @return int Returns the number of favours the agent owes the other agent.
      */
-    ArrayList<ArrayList<Integer>> getFavoursOwed() {
-        return favoursOwed;
+    int getFavoursOwed(int otherAgentID) {
+        return favourLedger.getFavoursOwed(agentID, otherAgentID);
     }
 
     /**
-     * Getter for the favours given by the agent.
+     * Getter for the number of favours the agent has given another agent.
      *
-     * @return ArrayList<ArrayList<Integer>> Returns all the favours given by the agent, i.e. the other agents who owe this agent a favour.
+     * @param otherAgentID The agentID of the agent who received the favours.
+     * @return int Returns the number of favours the agent has given the other agent, i.e. the favours they owe this
+     *             agent.
      */
-    ArrayList<ArrayList<Integer>> getFavoursGiven() {
-        return favoursGiven;
+    int getFavoursGiven(int otherAgentID) {
+        return favourLedger.getFavoursGiven(agentID, otherAgentID);
     }
 
     /**
-     * Identifies all other Agents in the ExchangeArena and initialises counts of favours given to and received from
-     * each other Agent.
+     * Connects the Agent to the ledger that stores the favours given to and received from each other Agent, and
+     * resets the Agents social capital.
      *
-     * @param agents Array List of all the agents that exist in the current simulation.
+     * @param favourLedger The ledger of favours shared by all the agents that exist in the current simulation.
      */
-    void initializeFavoursStore(ArrayList<Agent> agents) {
+    void initializeFavoursStore(FavourLedger favourLedger) {
         if (usesSocialCapital) {
-            if (!favoursGiven.isEmpty()) {
-                favoursGiven.clear();
-            }
-            if (!favoursOwed.isEmpty()) {
-                favoursOwed.clear();
-            }
-            for (Agent a : agents) {
-                if (a.agentID != agentID) {
-                    ArrayList<Integer> favoursOwedRelation = new ArrayList<>();
-                    ArrayList<Integer> favoursGivenRelation = new ArrayList<>();
-
-                    // Initially, no favours are owed or have been given to any other Agent.
-                    favoursOwedRelation.add(a.agentID);
-                    favoursOwedRelation.add(0);
-
-                    favoursGivenRelation.add(a.agentID);
-                    favoursGivenRelation.add(0);
-
-                    // Store a reference to the new relations in the Agents corresponding lists of relations.
-                    favoursOwed.add(favoursOwedRelation);
-                    favoursGiven.add(favoursGivenRelation);
-                }
-            }
-
+            this.favourLedger = favourLedger;
             totalSocialCapital = 0;
         }
     }
@@ -203,6 +191,15 @@ class Agent {
         return totalSocialCapital;
     }
 
+    /**
+     * Setter for the amount of unspent social capital the agent has, used to resume a simulation run.
+     *
+     * @param socialCapital The amount of unspent social capital.
+     */
+    void setUnspentSocialCapital(int socialCapital) {
+        totalSocialCapital = socialCapital;
+    }
+
     /**
      * Increases the total social capital tracker by 1.
      */
@@ -293,79 +290,25 @@ class Agent {
      * Checks the time-slots that exist in the simulation and makes a new request for a number of unique time-slots
      * according to how many slots the Agent wants and the given demand curve.
      *
-     * @param demandCurve Double array representing the demand curve that the agent should base its requests around.
-     * @return ArrayList<Integer> Returns the time-slots that the Agent has requested.
+     * @param demandSampler Sampler for the demand curve that the agent should base its requests around.
+     * @param context The SimulationContext used to select the time-slots.
+     * @return TimeSlotStore Returns the time-slots that the Agent has requested.
      */
-    ArrayList<Integer> requestTimeSlots(double[] demandCurve, double totalDemand) {
-
-        if (!requestedTimeSlots.isEmpty()) {
-            requestedTimeSlots.clear();
-        }
+    TimeSlotStore requestTimeSlots(AliasSampler demandSampler, SimulationContext context) {
+        // Selects unique time-slots based on the demand curve.
+        demandSampler.sampleUnique(numberOfTimeSlotsWanted, requestedTimeSlots, context);
 
-        for (int i = 1; i <= numberOfTimeSlotsWanted; i++) {
-            // Get the simulations seeded Random object.
-            Random random = ResourceExchangeArena.random;
-
-            // Selects a time-slot based on the demand curve.
-            int wheelSelector = random.nextInt((int)(totalDemand * 10)) + 1;
-            int wheelCalculator = 0;
-            int timeSlot = 0;
-            while (wheelCalculator < wheelSelector) {
-                wheelCalculator = wheelCalculator + ((int)(demandCurve[timeSlot] * 10));
-                timeSlot++;
-            }
-
-            // Ensures all requested time-slots are unique.
-            if (requestedTimeSlots.contains(timeSlot)) {
-                i--;
-            } else {
-                requestedTimeSlots.add(timeSlot);
-            }
-        }
-
-        timeSlotSatisfactions = calculateSatisfationPerSlot(requestedTimeSlots);
+        satisfaction.requestsChanged();
 
         return requestedTimeSlots;
     }
 
-
-    List<SlotSatisfactionPair> calculateSatisfationPerSlot(ArrayList<Integer> requestedSlots) {
-        List<SlotSatisfactionPair> tempTimeSlotSatisfactions = new ArrayList<>();
-        // Calculate the potential satisfaction that each time-slot could give based on their proximity to requested time-slots.
-        Double[] slotSatisfaction = new Double[uniqueTimeSlots];
-        for (int i = 0; i < slotSatisfaction.length; i++) {
-            slotSatisfaction[i] = 0.0;
-        }
-        for (int r : requestedTimeSlots) {
-            int s = r - 1;
-            slotSatisfaction[s] = satisfactionCurve[0];
-
-            // Apply the adjustment values to neighboring elements
-            for (int i = 1; i < satisfactionCurve.length; i++) {
-                int leftIndex = s - i;
-                int rightIndex = s + i;
-
-                if (leftIndex < 0) {leftIndex += slotSatisfaction.length;}
-                if (rightIndex >= slotSatisfaction.length) {rightIndex -= slotSatisfaction.length;}
-
-                slotSatisfaction[leftIndex] = Math.max(slotSatisfaction[leftIndex], satisfactionCurve[i]);
-                slotSatisfaction[rightIndex] = Math.max(slotSatisfaction[rightIndex], satisfactionCurve[i]);
-            }
-        }
-
-        for (int i = 0; i < slotSatisfaction.length; i++) {
-            tempTimeSlotSatisfactions.add(new SlotSatisfactionPair(i + 1, slotSatisfaction[i]));
-        }
-
-        return tempTimeSlotSatisfactions;
-    }
-
     /**
      * Getter method for retrieving the time-slots that the Agent has currently requested.
      *
-     * @return ArrayList<Integer> Returns the time-slots that the Agent has requested.
+     * @return TimeSlotStore Returns the time-slots that the Agent has requested.
      */
-    ArrayList<Integer> publishRequestedTimeSlots() {
+    TimeSlotStore publishRequestedTimeSlots() {
         return requestedTimeSlots;
     }
 
@@ -374,16 +317,17 @@ class Agent {
      *
      * @param allocatedTimeSlots An allocation of time-slots given by the ExchangeArena.
      */
-    void receiveAllocatedTimeSlots(ArrayList<Integer> allocatedTimeSlots) {
-        this.allocatedTimeSlots = allocatedTimeSlots;
+    void receiveAllocatedTimeSlots(TimeSlotStore allocatedTimeSlots) {
+        this.allocatedTimeSlots.copyFrom(allocatedTimeSlots);
+        satisfaction.allocationChanged();
     }
 
     /**
      * Getter method for retrieving the time-slots that the Agent is currently allocated.
      *
-     * @return ArrayList<Integer> Returns the time-slots that the Agent is allocated.
+     * @return TimeSlotStore Returns the time-slots that the Agent is allocated.
      */
-    ArrayList<Integer> publishAllocatedTimeSlots() {
+    TimeSlotStore publishAllocatedTimeSlots() {
         return allocatedTimeSlots;
     }
 
@@ -391,83 +335,31 @@ class Agent {
      * Shares the time-slots that are currently allocated to the Agent that it may potentially be willing to
      * exchange under certain circumstances.
      *
-     * @return ArrayList<Integer> Returns the time-slots that the Agent is allocated but may potentially exchange.
+     * @return TimeSlotStore Returns the time-slots that the Agent is allocated but may potentially exchange, the
+     *                       returned store is reused by the Agent and so is only valid until the next call.
      */
-    ArrayList<Integer> publishUnlockedTimeSlots() {
-        ArrayList<Integer> unlockedTimeSlots;
-        unlockedTimeSlots = new ArrayList<>(nonExistingTimeSlots(allocatedTimeSlots, requestedTimeSlots));
-
-        List<SlotSatisfactionPair> unlockedTimeSlotSatisfactions = new ArrayList<>();
-        for (SlotSatisfactionPair s : timeSlotSatisfactions) {
-            if (unlockedTimeSlots.contains(s.timeSlot)) {unlockedTimeSlotSatisfactions.add(s);}
-        }
-
-        Collections.sort(unlockedTimeSlotSatisfactions, (pair1, pair2) -> Double.compare(pair1.satisfaction, pair2.satisfaction));
-
-        ArrayList<Integer> orderedUnlockedTimeSlots = new ArrayList<>();
-        for (SlotSatisfactionPair s : unlockedTimeSlotSatisfactions) {
-            orderedUnlockedTimeSlots.add(s.timeSlot);
-        }
-
+    TimeSlotStore publishUnlockedTimeSlots() {
+        unlockedTimeSlots.difference(allocatedTimeSlots, requestedTimeSlots);
         return unlockedTimeSlots;
     }
 
-    /**
-     * Takes two arrays of time-slots, and returns the time-slots from the first array that are not present in the
-     * second array.
-     *
-     * @param potentialTimeSlots the time-slots that may be returned if not present in the second array.
-     * @param timeSlotsToAvoid the time-slots that shouldn't be returned..
-     * @return ArrayList<Integer> Returns the time-slots from the potentialTimeSlots array that are not present in the
-     *                            timeSlotsToAvoid array.
-     */
-    private ArrayList<Integer> nonExistingTimeSlots(
-            ArrayList<Integer> potentialTimeSlots,
-            ArrayList<Integer> timeSlotsToAvoid) {
-        // By making a new copy of the time-slots to avoid, the array list can be modified without modifying the
-        // referenced list.
-        ArrayList<Integer> localTimeSlotsToAvoid = new ArrayList<>(timeSlotsToAvoid);
-        ArrayList<Integer> timeSlots = new ArrayList<>();
-        for (int timeSlot : potentialTimeSlots) {
-            if (!localTimeSlotsToAvoid.contains(timeSlot)) {
-                timeSlots.add(timeSlot);
-            } else {
-                // Once a time-slot in the list of time-slots to avoid has been considered once it is removed encase
-                // of duplicates.
-                localTimeSlotsToAvoid.remove(Integer.valueOf(timeSlot));
-            }
-        }
-        return timeSlots;
-    }
-
     /**
      * Make an exchange request for a time-slot that another Agent has published as a possible exchange, and that this
      * Agent wants but has not currently been allocated.
      *
      * @param advertisingBoard All the time-slots that Agents have said they may possibly exchange.
-     * @return ArrayList<Integer>|null A time-slot owned by another agent that this Agent is requesting an exchange for.
+     * @param context The SimulationContext used to select the advert.
+     * @return int[]|null The agentID of another agent and the time-slot it owns that this Agent is requesting an
+     *                    exchange for.
      */
-    ArrayList<Integer> requestExchange(ArrayList<ArrayList<Integer>> advertisingBoard) {
-        ArrayList<Integer> targetTimeSlots = nonExistingTimeSlots(requestedTimeSlots, allocatedTimeSlots);
-        ArrayList<Integer> potentialExchange = new ArrayList<>();
+    int[] requestExchange(AdvertisingBoard advertisingBoard, SimulationContext context) {
+        targetTimeSlots.difference(requestedTimeSlots, allocatedTimeSlots);
+        int[] potentialExchange = null;
         // If all requested have been allocated, the Agent has no need to request an exchange.
         if (!targetTimeSlots.isEmpty()) {
-            // Search the advertising board for a potential exchange.
-            Collections.shuffle(advertisingBoard, ResourceExchangeArena.random);
-            advertSelection:
-            for (ArrayList<Integer> advert : advertisingBoard) {
-                for (int j = 1; j < advert.size(); j++) {
-                    if (targetTimeSlots.contains(advert.get(j))) {
-                        // Only take the part of the advert that is relevant, and split adverts with multiple
-                        // exchangeable time-slots into multiple adverts.
-                        ArrayList<Integer> selectedAdvert = new ArrayList<>();
-                        selectedAdvert.add(advert.get(0));
-                        selectedAdvert.add(advert.get(j));
-                        potentialExchange = selectedAdvert;
-                        break advertSelection;
-                    }
-                }
-            }
+            // Select a random advert from those offering a wanted time-slot, only taking the part of the advert that
+            // is relevant.
+            potentialExchange = advertisingBoard.selectAdvert(targetTimeSlots, context);
         }
         return potentialExchange;
     }
@@ -475,20 +367,21 @@ class Agent {
     /**
      * Stores a request for an exchange received from another Agent.
      *
-     * @param request An Agent's agentID, the time-slot that it wants and the time-slot that it is willing to exchange.
+     * @param request An Agent's agentID, the time-slot that it wants, the time-slot that it is willing to exchange and
+     *                space for the requesting Agent's type.
      */
-    void receiveExchangeRequest(ArrayList<Integer> request, int partnersAgentType) {
+    void receiveExchangeRequest(int[] request, int partnersAgentType) {
         exchangeRequestReceived = request;
-        exchangeRequestReceived.add(partnersAgentType);
+        exchangeRequestReceived[3] = partnersAgentType;
     }
 
         
     /**
      * Returns the most recent received from another Agent.
      *
-     * @return ArrayList<Integer> request The most recent received from another Agent.
+     * @return int[] request The most recent received from another Agent.
      */
-    ArrayList<Integer> getExchangeRequest() {
+    int[] getExchangeRequest() {
         return exchangeRequestReceived;
     }
 
@@ -498,18 +391,12 @@ class Agent {
      * @return Boolean Whether or not the request was accepted.
      */
     boolean considerRequest() {
-        double currentSatisfaction = calculateSatisfaction(null);
-        // Create a new local list of time-slots in order to test how the Agents satisfaction would change after the
-        // potential exchange.
-        ArrayList<Integer> potentialAllocatedTimeSlots = new ArrayList<>(allocatedTimeSlots);
+        double currentSatisfaction = satisfaction.getSatisfaction();
         // Check this Agent still has the time-slot requested.
-        if (potentialAllocatedTimeSlots.contains(exchangeRequestReceived.get(1))) {
-            potentialAllocatedTimeSlots.remove(exchangeRequestReceived.get(1));
-
-            // Replace the requested slot with the requesting agents unwanted time-slot.
-            potentialAllocatedTimeSlots.add(exchangeRequestReceived.get(2));
-
-            double potentialSatisfaction = calculateSatisfaction(potentialAllocatedTimeSlots);
+        if (allocatedTimeSlots.contains(exchangeRequestReceived[1])) {
+            // Test how the Agents satisfaction would change if the requested slot was replaced with the requesting
+            // agents unwanted time-slot.
+            double potentialSatisfaction = satisfaction.evaluateSwap(exchangeRequestReceived[1], exchangeRequestReceived[2]);
             
             if (agentType == ResourceExchangeArena.SOCIAL) {
                 // Social Agents accept offers that improve their satisfaction or if they have negative social capital
@@ -519,20 +406,8 @@ class Agent {
                     dailyNoSocialCapitalExchanges++;
                 } else if (Double.compare(potentialSatisfaction, currentSatisfaction) == 0) {
                     if (usesSocialCapital) {
-                        int favoursOwedToRequester = 0;
-                        int favoursGivenToRequester = 0;
-                        for (ArrayList<Integer> favours : favoursOwed) {
-                            if (favours.get(0).equals(exchangeRequestReceived.get(0))) {
-                                favoursOwedToRequester = favours.get(1);
-                                break;
-                            }
-                        }
-                        for (ArrayList<Integer> favours : favoursGiven) {
-                            if (favours.get(0).equals(exchangeRequestReceived.get(0))) {
-                                favoursGivenToRequester = favours.get(1);
-                                break;
-                            }
-                        }
+                        int favoursOwedToRequester = favourLedger.getFavoursOwed(agentID, exchangeRequestReceived[0]);
+                        int favoursGivenToRequester = favourLedger.getFavoursGiven(agentID, exchangeRequestReceived[0]);
                         if (favoursOwedToRequester > favoursGivenToRequester) {
                             exchangeRequestApproved = true;
                             dailySocialCapitalExchanges++;
@@ -578,15 +453,14 @@ class Agent {
      * @param agentType The strategy being used by the agent that has fulfilled the exchange request.
      * @return Boolean Whether or not the other agent gained social capital.
      */
-    boolean completeRequestedExchange(ArrayList<Integer> offer, int agentID, int partnersAgentType) {
+    boolean completeRequestedExchange(int[] offer, int agentID, int partnersAgentType) {
         boolean SCGain = false;
 
-        double previousSatisfaction = calculateSatisfaction(allocatedTimeSlots);
+        double previousSatisfaction = satisfaction.getSatisfaction();
         // Update the Agents allocated time-slots.
-        allocatedTimeSlots.remove(offer.get(2));
-        allocatedTimeSlots.add(offer.get(1));
+        satisfaction.swap(offer[2], offer[1]);
 
-        double newSatisfaction = calculateSatisfaction(allocatedTimeSlots);
+        double newSatisfaction = satisfaction.getSatisfaction();
 
         // Update the Agents relationship with the other Agent involved in the exchange.
         if (usesSocialCapital) {
@@ -595,13 +469,7 @@ class Agent {
                 if (Double.compare(newSatisfaction, previousSatisfaction) > 0
                     && agentType == ResourceExchangeArena.SOCIAL) {
 
-                for (ArrayList<Integer> favours : favoursOwed) {
-                    if (favours.get(0).equals(agentID)) {
-                        int currentFavour = favours.get(1);
-                        favours.set(1, currentFavour + 1);
-                        break;
-                    }
-                }
+                favourLedger.addFavourOwed(this.agentID, agentID);
                 SCGain = true;
             }
         }
@@ -617,14 +485,13 @@ class Agent {
      * @param agentType The strategy being used by the agent that requested the exchange request.
      * @return Boolean Whether or not the other agent gained social capital.
      */
-    boolean completeReceivedExchange(ArrayList<Integer> offer, int partnersAgentType) {
+    boolean completeReceivedExchange(int[] offer, int partnersAgentType) {
         boolean SCLoss = false;
 
-        double previousSatisfaction = calculateSatisfaction(allocatedTimeSlots);
+        double previousSatisfaction = satisfaction.getSatisfaction();
         // Update the Agents allocated time-slots.
-        allocatedTimeSlots.remove(offer.get(1));
-        allocatedTimeSlots.add(offer.get(2));
-        double newSatisfaction = calculateSatisfaction(allocatedTimeSlots);
+        satisfaction.swap(offer[1], offer[2]);
+        double newSatisfaction = satisfaction.getSatisfaction();
 
         // Update the Agents relationship with the other Agent involved in the exchange.
         if (usesSocialCapital) {
@@ -634,13 +501,7 @@ class Agent {
             if (Double.compare(newSatisfaction, previousSatisfaction) <= 0
                     && agentType == ResourceExchangeArena.SOCIAL) {
 
-                for (ArrayList<Integer> favours : favoursGiven) {
-                    if (favours.get(0).equals(offer.get(0))) {
-                        int currentFavour = favours.get(1);
-                        favours.set(1, currentFavour + 1);
-                        break;
-                    }
-                }     
+                favourLedger.addFavourGiven(agentID, offer[0]);
                 SCLoss = true;
             }
         }
@@ -648,57 +509,28 @@ class Agent {
     }
 
     /**
-     * Calculates the Agents satisfaction with a given list of time-slots by comparing the list with the time-slots
+     * Calculates the Agents satisfaction with a given set of time-slots by comparing the set with the time-slots
      * requested by this Agent.
      *
      * @param timeSlots The set of time-slots to consider.
      * @return Double The Agents satisfaction with the time-slots given.
      */
-    double calculateSatisfaction(ArrayList<Integer> timeSlots) {
-        if (timeSlots == null) {
-            timeSlots = this.allocatedTimeSlots;
-        }
-
-        ArrayList<Integer> tempRequestedTimeSlots = new ArrayList<>(requestedTimeSlots);
-        ArrayList<Integer> nonRequestedTimeSlots = new ArrayList<>();
-
-        // Count the number of the given time-slots that match the Agents requested time-slots.
-        double satisfaction = 0;
-        for (int timeSlot : timeSlots) {
-            if (tempRequestedTimeSlots.contains(timeSlot)) {
-                tempRequestedTimeSlots.remove(Integer.valueOf(timeSlot));
-                satisfaction++;
-            } else { 
-                nonRequestedTimeSlots.add(timeSlot);
-            }
-        }
-
-        List<SlotSatisfactionPair> tempTimeSlotSatisfactions = calculateSatisfationPerSlot(tempRequestedTimeSlots);
-
-        // Not perfect but it will do for now.
-        for (int i = 1; i < satisfactionCurve.length; i++) {
-            for (Integer timeSlot: nonRequestedTimeSlots) {
-                for (SlotSatisfactionPair p: tempTimeSlotSatisfactions) {
-                    if (p.timeSlot == timeSlot) {
-                        if (p.satisfaction == satisfactionCurve[i]) {
-                            satisfaction += p.satisfaction;
-                            int tover = timeSlot + i;
-                            int tunder = timeSlot - i;
-                            if (tempRequestedTimeSlots.contains(tover)) {
-                                tempRequestedTimeSlots.remove(Integer.valueOf(tover));
-                                tempTimeSlotSatisfactions = calculateSatisfationPerSlot(tempRequestedTimeSlots);
-                            } else if (tempRequestedTimeSlots.contains(tunder)) {
-                                tempRequestedTimeSlots.remove(Integer.valueOf(tunder));
-                                tempTimeSlotSatisfactions = calculateSatisfationPerSlot(tempRequestedTimeSlots);
-                            }
-                        }
-                        break;
-                    }
-                }
-            }
+    double calculateSatisfaction(TimeSlotStore timeSlots) {
+        // The satisfaction with the current allocation is kept up to date as exchanges are made.
+        if (timeSlots == null || timeSlots == allocatedTimeSlots) {
+            return satisfaction.getSatisfaction();
         }
+        return satisfaction.evaluate(timeSlots);
+    }
 
-        // Return the Agents satisfaction with the given time-slots, between 1 and 0.
-        return satisfaction / numberOfTimeSlotsWanted;
+    /**
+     * Getter for the satisfaction a single unrequested copy of a time-slot would add to the Agents allocation, before
+     * it is divided by the number of time-slots wanted.
+     *
+     * @param timeSlot The time-slot to consider.
+     * @return Double The satisfaction added by the time-slot.
+     */
+    double unrequestedTimeSlotValue(int timeSlot) {
+        return satisfaction.unrequestedValue(timeSlot);
     }
 }
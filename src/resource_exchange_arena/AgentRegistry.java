@@ -0,0 +1,44 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+
+class AgentRegistry {
+    // Agents stored by their agentID, index 0 is unused as agentIDs begin at 1.
+    private final Agent[] agentsByID;
+
+    /**
+     * Indexes the Agents of a simulation run by their agentID so that any Agent can be found directly from its
+     * agentID, regardless of how the list of agents has been shuffled.
+     *
+     * @param agents Array List of all the agents that exist in the current simulation.
+     */
+    AgentRegistry(ArrayList<Agent> agents) {
+        int highestID = 0;
+        for (Agent a : agents) {
+            highestID = Math.max(highestID, a.agentID);
+        }
+        agentsByID = new Agent[highestID + 1];
+        for (Agent a : agents) {
+            agentsByID[a.agentID] = a;
+        }
+    }
+
+    /**
+     * Getter for an Agent by its agentID.
+     *
+     * @param agentID The unique identifier of the Agent.
+     * @return Agent Returns the Agent with the given agentID.
+     */
+    Agent get(int agentID) {
+        return agentsByID[agentID];
+    }
+
+    /**
+     * Getter for the highest agentID that exists in the simulation run, agentIDs run from 1 to this value.
+     *
+     * @return int Returns the highest agentID.
+     */
+    int highestID() {
+        return agentsByID.length - 1;
+    }
+}
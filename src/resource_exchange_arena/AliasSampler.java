@@ -0,0 +1,179 @@
+package resource_exchange_arena;
+
+
+class AliasSampler {
+    // Walker's alias table, each column keeps its own time-slot with the given probability or otherwise gives its alias.
+    private final double[] probabilities;
+    private final int[] aliases;
+    private final double[] weights;
+    private final double totalWeight;
+
+    // The weight of each time-slot and of every time-slot after it, so that counts can be drawn one time-slot at a time.
+    private final double[] remainingWeights;
+
+    /**
+     * Samples time-slots in proportion to a bucketed curve using Walker's alias method, so that each time-slot is drawn
+     * in constant time regardless of the number of unique time-slots. Built once per curve as the table only depends
+     * on the curve.
+     *
+     * @param curve Double array with one non-negative weight per unique time-slot, time-slot t uses curve[t - 1].
+     */
+    AliasSampler(double[] curve) {
+        int n = curve.length;
+        weights = curve.clone();
+        probabilities = new double[n];
+        aliases = new int[n];
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        totalWeight = total;
+
+        remainingWeights = new double[n];
+        double remaining = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            remaining += weights[i];
+            remainingWeights[i] = remaining;
+        }
+
+        // Scale the weights so that the average column is exactly full, then pair each under filled column with an over
+        // filled one.
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = total > 0 ? weights[i] * n / total : 1.0;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Any columns left over are full, up to rounding errors.
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            probabilities[more] = 1.0;
+            aliases[more] = more;
+        }
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            probabilities[less] = 1.0;
+            aliases[less] = less;
+        }
+    }
+
+    /**
+     * Draws a single time-slot in proportion to the curve.
+     *
+     * @param context The SimulationContext used to draw the time-slot.
+     * @return int Returns the time-slot drawn, between 1 and the number of unique time-slots.
+     */
+    int sample(SimulationContext context) {
+        double column = context.nextDouble() * probabilities.length;
+        int i = Math.min((int) column, probabilities.length - 1);
+        return (column - i < probabilities[i] ? i : aliases[i]) + 1;
+    }
+
+    /**
+     * Counts how many times each time-slot is drawn when drawing a number of time-slots independently in proportion
+     * to the curve, without drawing each one. The draws that give each time-slot in turn are drawn at once, as a
+     * binomial share of the draws left with the chance of the time-slot among those that remain, which gives the same
+     * distribution as counting the time-slots of every single draw.
+     *
+     * @param draws The number of time-slots drawn.
+     * @param counts Used to store the number of draws of each time-slot, time-slot t being counted in counts[t - 1].
+     * @param context The SimulationContext used to draw the counts.
+     */
+    void sampleCounts(int draws, int[] counts, SimulationContext context) {
+        int remaining = draws;
+        for (int i = 0; i < weights.length; i++) {
+            // The last time-slot with any weight has a chance of 1 among those that remain, so it takes every draw left.
+            int count = remaining == 0 || weights[i] <= 0 ? 0
+                    : context.nextBinomial(remaining, weights[i] / remainingWeights[i]);
+            counts[i] = count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Fills a store with unique time-slots, each drawn in proportion to the curve from the time-slots not yet drawn.
+     * While most of the curve remains undrawn, repeated time-slots are simply drawn again from the alias table. Once
+     * most of the curve has been drawn this becomes wasteful, so the remaining time-slots are walked directly instead.
+     * Both give the same distribution as drawing from the curve until an unused time-slot is found.
+     *
+     * @param count The number of unique time-slots to draw.
+     * @param timeSlots The store to fill, any existing time-slots are removed first.
+     * @param context The SimulationContext used to draw the time-slots.
+     */
+    void sampleUnique(int count, TimeSlotStore timeSlots, SimulationContext context) {
+        timeSlots.clear();
+        double drawnWeight = 0;
+        while (timeSlots.size() < count) {
+            int timeSlot;
+            if (drawnWeight * 2 < totalWeight) {
+                timeSlot = sample(context);
+                if (timeSlots.contains(timeSlot)) {
+                    continue;
+                }
+            } else {
+                timeSlot = sampleRemaining(timeSlots, context);
+                if (timeSlot == 0) {
+                    System.out.println("Error: Not Enough Time-Slots With Demand To Request");
+                    return;
+                }
+            }
+            timeSlots.add(timeSlot);
+            drawnWeight += weights[timeSlot - 1];
+        }
+    }
+
+    /**
+     * Draws a single time-slot in proportion to the curve from the time-slots that have not yet been drawn.
+     *
+     * @param drawnTimeSlots The time-slots that have already been drawn.
+     * @param context The SimulationContext used to draw the time-slot.
+     * @return int Returns the time-slot drawn, or 0 if none of the remaining time-slots have any weight.
+     */
+    private int sampleRemaining(TimeSlotStore drawnTimeSlots, SimulationContext context) {
+        double remainingWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!drawnTimeSlots.contains(i + 1)) {
+                remainingWeight += weights[i];
+            }
+        }
+        if (remainingWeight <= 0) {
+            return 0;
+        }
+
+        double selector = context.nextDouble() * remainingWeight;
+        int lastAvailable = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!drawnTimeSlots.contains(i + 1) && weights[i] > 0) {
+                lastAvailable = i + 1;
+                selector -= weights[i];
+                if (selector < 0) {
+                    return lastAvailable;
+                }
+            }
+        }
+        // Rounding errors can leave a tiny amount of the selector unused.
+        return lastAvailable;
+    }
+}
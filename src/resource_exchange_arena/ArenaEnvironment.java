@@ -6,19 +6,39 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class ArenaEnvironment {
     // Data that is collected over simulation runs is held within the arenaEnvironment.
     ArrayList<ArrayList<Double>> keyDaysData = new ArrayList<>();
     ArrayList<Integer>  maxExchanges = new ArrayList<>();
 
+    // Everything needed to add the output of the simulation runs once they are complete.
+    private final String folderName;
+    private final String dataOutputFolder;
+    private final File simulationData;
+    private final String pythonExe;
+    private final String pythonPath;
+    private final OutputSettings outputSettings;
+    private final VisualisationPool visualisationPool;
+
+    // The simulation runs carried out, in run order, and the output of each, given once the run starts so that runs
+    // waiting for a thread hold nothing.
+    private final int firstRun;
+    private final int lastRun;
+    private final ArrayList<Future<SimulationRunOutput>> runs = new ArrayList<>();
+    private final ArrayList<CompletableFuture<SimulationRunOutput>> outputs = new ArrayList<>();
+
     /**
-     * The arena is the environment in which all simulations take place.
+     * The arena is the environment in which all simulations take place. Every simulation run is submitted as soon as
+     * the environment is created, and their output is added to the data files of the environment by complete.
      *
      * @param folderName String representing the output destination folder, used to organise output data.
-     * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents are
-     *                     split equally between the curves.
-     * @param availabilityCurve Integer array of energy availability used by the simulation.
+     * @param bucketedCurves The demand and availability curves bucketed into time-slots, shared by every environment
+     *                       version.
      * @param socialCapital Boolean value that determines whether or not social agents will utilise social capital.
      * @param simulationRuns Integer value representing the number of simulations to be ran and averaged.
      * @param days Integer value representing the number of days to be simulated.
@@ -37,13 +57,24 @@ public class ArenaEnvironment {
      * @param pythonPath String representing the system path to the python data visualiser.
      * @param β Double value that increases the the chance that agents will change their strategy.
      * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
+     * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+     *                     near to requests using the satisfaction curve.
+     * @param masterSeed Long value from which each simulation run derives its own random numbers.
+     * @param environment Integer value identifying the environment version within the set of simulations.
+     * @param replayRun Integer value identifying a single simulation run to replay, or 0 to carry out every run.
+     * @param checkpointDays Integer value representing the number of days between each checkpoint of a simulation
+     *                       run, or 0 when checkpoints are not used.
+     * @param outputSettings Determines how much of the per agent and each round data is written, and the format of
+     *                       the data files.
+     * @param runExecutor Carries out the simulation runs, shared by every environment version so that the number of
+     *                    runs carried out at the same time is limited across all of them.
+     * @param visualisationPool Carries out the visualisations of every environment version in the background.
      * @exception IOException On input error.
      * @see IOException
      */
     ArenaEnvironment(
         String folderName,
-        double[][] demandCurves,
-        int[] availabilityCurve,
+        BucketedCurves bucketedCurves,
         boolean socialCapital,
         int simulationRuns,
         int days,
@@ -57,11 +88,25 @@ public class ArenaEnvironment {
         String pythonExe,
         String pythonPath,
         double β,
-        double[] satisfactionCurve
+        double[] satisfactionCurve,
+        boolean exactOptimum,
+        long masterSeed,
+        int environment,
+        int replayRun,
+        int checkpointDays,
+        OutputSettings outputSettings,
+        ExecutorService runExecutor,
+        VisualisationPool visualisationPool
     ) throws IOException {
 
         System.out.println("Starting simulation...");
 
+        this.folderName = folderName;
+        this.pythonExe = pythonExe;
+        this.pythonPath = pythonPath;
+        this.outputSettings = outputSettings;
+        this.visualisationPool = visualisationPool;
+
         // Array of the unique agent types used in the simulation.
         ArrayList<Integer> uniqueAgentTypes = new ArrayList<>();
         for (int type : agentTypes) {
@@ -74,111 +119,22 @@ public class ArenaEnvironment {
         Collections.sort(uniqueAgentTypes);
 
         // Create a directory to store the data output by the simulation.
-        String dataOutputFolder = folderName + "/data";
+        dataOutputFolder = folderName + "/data";
         Path dataOutputPath = Path.of(dataOutputFolder);
         Files.createDirectories(dataOutputPath);
 
-        // Stores the amount of unspent social capital each agent has accumulated.
-        File allDailyData = new File(dataOutputFolder, "dailyData.csv");
-
-        FileWriter allDailyDataCSVWriter = new FileWriter(allDailyData);
-        
-        allDailyDataCSVWriter.append("Simulation Run");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Day");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Pop");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Pop");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Sat");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Sat");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social SD");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish SD");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Upper Quartile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Upper Quartile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Lower Quartile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Lower Quartile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social 95th Percentile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish 95th Percentile");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Max");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Max");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Min");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Min");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Social Median");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Selfish Median");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Random Allocation Sat");
-        allDailyDataCSVWriter.append(",");
-        allDailyDataCSVWriter.append("Optimum ALlocation Sat");
-        allDailyDataCSVWriter.append("\n");
-
-        // Stores the amount of unspent social capital each agent has accumulated.
-        File perAgentData = new File(dataOutputFolder, "agentData.csv");
-
-        FileWriter perAgentDataCSVWriter = new FileWriter(perAgentData);
-        
-        perAgentDataCSVWriter.append("Simulation Run");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Day");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Agent Type");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Satisfaction");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Rejected Received Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Accepted Received Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Rejected Requested Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Accepted Requested Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Social Capital Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("No Social Capital Exchanges");
-        perAgentDataCSVWriter.append(",");
-        perAgentDataCSVWriter.append("Unspent Social Capital");
-        perAgentDataCSVWriter.append("\n");
-
-        // Stores the satisfaction of each individual Agent at the end of every round throughout the simulation.
-        File exchangeData = new File(dataOutputFolder,"exchangeData.csv");
-
-        FileWriter eachRoundDataCSVWriter = new FileWriter(exchangeData);
-
-        eachRoundDataCSVWriter.append("Simulation Run");
-        eachRoundDataCSVWriter.append(",");
-        eachRoundDataCSVWriter.append("Day");
-        eachRoundDataCSVWriter.append(",");
-        eachRoundDataCSVWriter.append("Round");
-        eachRoundDataCSVWriter.append(",");
-        eachRoundDataCSVWriter.append("Agent Type");
-        eachRoundDataCSVWriter.append(",");
-        eachRoundDataCSVWriter.append("Satisfaction");
-        eachRoundDataCSVWriter.append("\n");
-
         // Stores the key data about the simulation about to begin in the data output location.
-        File simulationData = new File(folderName + "/simulationData.txt");
+        simulationData = new File(folderName + "/simulationData.txt");
 
         FileWriter simulationDataWriter = new FileWriter(simulationData);
 
         simulationDataWriter.append("Simulation Information: \n\n");
-        simulationDataWriter.append("Seed: ").append(String.valueOf(ResourceExchangeArena.seed)).append("\n");
+        simulationDataWriter.append("Seed: ").append(String.valueOf(masterSeed)).append("\n");
+        simulationDataWriter.append("Environment: ").append(String.valueOf(environment)).append("\n");
+        if (replayRun > 0) {
+            simulationDataWriter.append("Replayed run: ").append(String.valueOf(replayRun)).append("\n");
+        }
+        simulationDataWriter.append(outputSettings.describe());
         simulationDataWriter.append("Single agent type: ").append(String.valueOf(singleAgentType)).append("\n");
         if (singleAgentType) {
             simulationDataWriter.append("Agent type: ")
@@ -202,275 +158,390 @@ public class ArenaEnvironment {
             simulationDataWriter.append(Inflect.getHumanReadableAgentType(type));
         }
         simulationDataWriter.append("\n\n");
+        simulationDataWriter.close();
+
+        // The curves are bucketed once for every environment version, as they all use the same bucketed values.
+        AliasSampler[] demandSamplers = bucketedCurves.demandSamplers;
+        AliasSampler availabilitySampler = bucketedCurves.availabilitySampler;
+
+        // Either every simulation run is carried out, or only the run being replayed.
+        firstRun = replayRun > 0 ? replayRun : 1;
+        lastRun = replayRun > 0 ? replayRun : simulationRuns;
 
-        // The demand curves are bucketed before the simulations for efficiency, as they will all use the same bucketed values.
-        double[][] bucketedDemandCurves = new double[demandCurves.length][uniqueTimeSlots];
-        double[] totalDemandValues = new double[demandCurves.length];
-
-        for (int i = 0; i < demandCurves.length; i++) {
-            double[] bucketedDemandCurve = new double[uniqueTimeSlots];
-            int bucket = 0;
-            int bucketFill = 0;
-            for (int j = 0; j < demandCurves[i].length; j++) {
-                bucketedDemandCurve[bucket] = bucketedDemandCurve[bucket] + demandCurves[i][j];
-                bucketFill++;
-                if (bucketFill == 6) {
-                    // Rounding to fix precision errors.
-                    bucketedDemandCurve[bucket] = Math.round(bucketedDemandCurve[bucket] * 10.0) / 10.0;
-                    bucketFill = 0;
-                    bucket++;
+        // Checkpoints are only resumed when they were saved with the same parameters as this environment.
+        long fingerprint = Arrays.deepHashCode(new Object[] {
+                bucketedCurves.fingerprint, socialCapital, simulationRuns, days, populationSize, uniqueTimeSlots,
+                slotsPerAgent, numberOfAgentsToEvolve, agentTypes, singleAgentType, selectedSingleAgentType, β,
+                satisfactionCurve, exactOptimum, masterSeed, environment, outputSettings.describe()
+        });
+
+        // Run as many simulations as has been requested.
+        for (int simulationRun = firstRun; simulationRun <= lastRun; simulationRun++) {
+            final int run = simulationRun;
+
+            CompletableFuture<SimulationRunOutput> started = new CompletableFuture<>();
+            outputs.add(started);
+            runs.add(runExecutor.submit(() -> {
+                // Each run writes to its own output until it can be added to the environments output.
+                SimulationRunOutput output;
+                try {
+                    output = new SimulationRunOutput(dataOutputFolder, run, checkpointDays > 0, outputSettings);
+                } catch (RuntimeException e) {
+                    started.completeExceptionally(e);
+                    throw e;
                 }
-            }
-            bucketedDemandCurves[i] = bucketedDemandCurve;
-    
-            // The total demand is also calculated here for efficiency.
-            double totalDemand = 0;
-            for (int j = 0; j < bucketedDemandCurve.length; j++) {
-                totalDemand = totalDemand + bucketedDemandCurve[j];
-            }
-            totalDemand = Math.round(totalDemand * 10.0) / 10.0;
-            totalDemandValues[i] = totalDemand;
+                started.complete(output);
 
+                // A run that was interrupted carries on from its last checkpoint, if it has one.
+                RunCheckpoint checkpoint = null;
+                if (checkpointDays > 0) {
+                    checkpoint = new RunCheckpoint(dataOutputFolder, run, checkpointDays, fingerprint);
+                    output.restore(checkpoint);
+                }
+
+                try {
+                    // A run that was checkpointed once complete only needs its output.
+                    if (checkpoint != null && checkpoint.isComplete()) {
+                        return output;
+                    }
+
+                    /*
+                     * Each Simulation run with the same parameters runs as an isolated instance although data is recorded in
+                     * a single location.
+                     *
+                     * @param demandSamplers Samplers for the demand curves used by the agents, when multiple curves are used
+                     *                       the agents are split equally between the curves.
+                     * @param availabilitySampler Sampler for the amount of energy available at each time-slot.
+                     * @param days Integer value representing the number of days to be simulated.
+                     * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
+                     * @param populationSize Integer value representing the size of the initial agent population.
+                     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the
+                     *                        simulation.
+                     * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
+                     * @param numberOfAgentsToEvolve Integer value representing the number of Agents who's strategy will change
+                     *                               at the end of each day.
+                     * @param agentTypes Integer array containing the agent types that the simulation will begin with. The same
+                     *                   type can exist multiple times in the array where more agents of one type are required.
+                     * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the
+                     *                         simulation begins.
+                     * @param singleAgentType Boolean value specifying whether only a single agent type should exist, used for
+                     *                        establishing baseline results.
+                     * @param selectedSingleAgentType Integer value representing the single agent type to be modelled when
+                     *                                singleAgentType is true.
+                     * @param socialCapital Boolean value that determines whether or not social agents will utilise
+                     *                      social capital.
+                     * @param keyDaysData Stores the state of the simulation when a population takes over and when the simulation ends.
+                     * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
+                     * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day.
+                     * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+                     * @param runSummary Records the values of each day that are averaged across simulation runs, or null
+                     *                   when the summary is not written.
+                     * @param run Integer value identifying the current simulation run.
+                     * @param context The SimulationContext used for all random decisions within the current
+                     *                simulation run.
+                     * @param β Double value that increases the the chance that agents will change their strategy.
+                     * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
+                     * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+                     *                     near to requests using the satisfaction curve.
+                     * @param checkpoint Saves the state of the run every so often and resumes the run from a saved state,
+                     *                   or null when checkpoints are not used.
+                     * @param outputSettings Determines which days and exchange rounds write per agent and each round
+                     *                       data.
+                     * @exception IOException On input error.
+                     * @see IOException
+                     */
+                    new SimulationRun(
+                            demandSamplers,
+                            availabilitySampler,
+                            days,
+                            output.maxExchanges,
+                            populationSize,
+                            uniqueTimeSlots,
+                            slotsPerAgent,
+                            numberOfAgentsToEvolve,
+                            agentTypes,
+                            uniqueAgentTypes,
+                            singleAgentType,
+                            selectedSingleAgentType,
+                            socialCapital,
+                            output.keyDaysData,
+                            output.allDailyDataCSVWriter,
+                            output.perAgentDataCSVWriter,
+                            output.eachRoundDataCSVWriter,
+                            output.runSummary,
+                            run,
+                            new SimulationContext(masterSeed, environment, run),
+                            β,
+                            satisfactionCurve,
+                            exactOptimum,
+                            checkpoint,
+                            outputSettings
+                    );
+                } finally {
+                    output.close();
+                }
+                return output;
+            }));
         }
+    }
 
-        // The availability curve is bucketed before the simulations for efficiency, as they will all use the same bucketed values.
-        int[] bucketedAvailabilityCurve = new int[uniqueTimeSlots];
-        int totalAvailability = 0;
-        
-        int bucket = 0;
-        int bucketFill = 0;
-        int bucketValue = 0;
-        for (int i = 0; i < availabilityCurve.length; i++) {
-            totalAvailability += availabilityCurve[i];
-            bucketValue += availabilityCurve[i];
-            bucketFill++;
-
-            if (bucketFill == 2) {
-                bucketedAvailabilityCurve[bucket] = bucketValue;
-                bucket++;
-                bucketValue = 0;
-                bucketFill = 0;
+    /**
+     * Adds the output of each simulation run to the data files of the environment in run order, as the runs
+     * complete, then writes the summary of the runs and submits the visualisation of the data. Carried out on its own
+     * thread, so that the runs of every environment version can be carried out while the output of another is added.
+     *
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void complete() throws IOException {
+        // Data left from an earlier simulation in the same folder would no longer match the data that is not written.
+        if (!outputSettings.agentData) {
+            for (File stale : outputSettings.files(
+                    dataOutputFolder, DataColumns.AGENT_DATA, DataColumns.AGENT_DATA_COLUMNS)) {
+                Files.deleteIfExists(stale.toPath());
+            }
+        }
+        if (!outputSettings.exchangeData) {
+            for (File stale : outputSettings.files(
+                    dataOutputFolder, DataColumns.EXCHANGE_DATA, DataColumns.EXCHANGE_DATA_COLUMNS)) {
+                Files.deleteIfExists(stale.toPath());
             }
         }
 
-        // Run as many simulations as has been requested.
-        for (int simulationRun = 1; simulationRun <= simulationRuns; simulationRun++) {
-            /*
-             * Each Simulation run with the same parameters runs as an isolated instance although data is recorded in
-             * a single location.
-             *
-             * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents
-             *                    are split equally between the curves.
-             * @param totalDemandValues Double values represeneting the sum of all values in their associated demand curves.
-             * @param availabilityCurve Integer array representing the amount of energy available at each time-slot.
-             * @param totalAvailability Integer value representing the total energy available throughout the day.
-             * @param days Integer value representing the number of days to be simulated.
-             * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
-             * @param populationSize Integer value representing the size of the initial agent population.
-             * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the
-             *                        simulation.
-             * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
-             * @param numberOfAgentsToEvolve Integer value representing the number of Agents who's strategy will change
-             *                               at the end of each day.
-             * @param agentTypes Integer array containing the agent types that the simulation will begin with. The same
-             *                   type can exist multiple times in the array where more agents of one type are required.
-             * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the
-             *                         simulation begins.
-             * @param singleAgentType Boolean value specifying whether only a single agent type should exist, used for
-             *                        establishing baseline results.
-             * @param selectedSingleAgentType Integer value representing the single agent type to be modelled when
-             *                                singleAgentType is true.
-             * @param socialCapital Boolean value that determines whether or not social agents will utilise
-             *                      social capital.
-             * @param keyDaysData Stores the state of the simulation when a population takes over and when the simulation ends.
-             * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
-             * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day.
-             * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
-             * @param β Double value that increases the the chance that agents will change their strategy.
-             * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
-             * @exception IOException On input error.
-             * @see IOException
-             */
-            new SimulationRun(
-                    bucketedDemandCurves,
-                    totalDemandValues,
-                    bucketedAvailabilityCurve,
-                    totalAvailability,
-                    days,
-                    maxExchanges,
-                    populationSize,
-                    uniqueTimeSlots,
-                    slotsPerAgent,
-                    numberOfAgentsToEvolve,
-                    agentTypes,
-                    uniqueAgentTypes,
-                    singleAgentType,
-                    selectedSingleAgentType,
-                    socialCapital,
-                    keyDaysData,
-                    allDailyDataCSVWriter,
-                    perAgentDataCSVWriter,
-                    eachRoundDataCSVWriter,
-                    simulationRun,
-                    β,
-                    satisfactionCurve
-            );
-            System.out.println("RUNS COMPLETED: " + simulationRun);
+        // Averages each day and exchange round across the simulation runs as each run is added, only when the summary
+        // is written.
+        DailySummary dailySummary = null;
+        if (outputSettings.summary) {
+            dailySummary = new DailySummary();
+        } else {
+            ArrayList<File> stale = outputSettings.files(
+                    dataOutputFolder, DataColumns.DAILY_SUMMARY, DataColumns.DAILY_SUMMARY_COLUMNS);
+            stale.addAll(outputSettings.files(
+                    dataOutputFolder, DataColumns.ROUND_SUMMARY, DataColumns.ROUND_SUMMARY_COLUMNS));
+            for (File file : stale) {
+                Files.deleteIfExists(file.toPath());
+            }
         }
 
-        ArrayList<ArrayList<Double>> socialTakeoverDays = new ArrayList<>();
-        ArrayList<ArrayList<Double>> selfishTakeoverDays = new ArrayList<>();
+        int middleSelfish = 0;
+        int middleSocial = 0;
+
+        // The output of every run added, removed once the environment is complete.
+        ArrayList<SimulationRunOutput> merged = new ArrayList<>();
+
+        // The files are closed once the simulation is complete, or as soon as it fails so that a failed environment
+        // leaves no writer behind.
+        try (
+                // Stores the state of the system at the end of each day, the data files are written in each format
+                // requested.
+                DataWriter allDailyDataCSVWriter = outputSettings.open(
+                        dataOutputFolder, DataColumns.DAILY_DATA, DataColumns.DAILY_DATA_COLUMNS);
+
+                // Stores the amount of unspent social capital each agent has accumulated, only when the per agent
+                // data is written.
+                DataWriter perAgentDataCSVWriter = !outputSettings.agentData ? null : outputSettings.open(
+                        dataOutputFolder, DataColumns.AGENT_DATA, DataColumns.AGENT_DATA_COLUMNS);
+
+                // Stores the satisfaction of each individual Agent at the end of every round throughout the
+                // simulation, only when the each round data is written.
+                DataWriter eachRoundDataCSVWriter = !outputSettings.exchangeData ? null : outputSettings.open(
+                        dataOutputFolder, DataColumns.EXCHANGE_DATA, DataColumns.EXCHANGE_DATA_COLUMNS);
+
+                // Indexes the data files by run and day as the output of each run is added, so that single runs and
+                // days can be read back without reading the whole of each file.
+                ResultsIndex resultsIndex = outputSettings.openIndex(dataOutputFolder);
+
+                // The results of the simulation are added to the key data recorded when it began.
+                FileWriter simulationDataWriter = new FileWriter(simulationData, true)
+        ) {
+            try {
+                // The output of each run is added in run order, so it matches running the simulations one after another. The
+                // run next in order writes straight to the data files while the runs after it hold their rows until then.
+                for (int simulationRun = firstRun; simulationRun <= lastRun; simulationRun++) {
+                    SimulationRunOutput output;
+                    try {
+                        output = outputs.get(simulationRun - firstRun).get();
+                        output.stream(allDailyDataCSVWriter, perAgentDataCSVWriter, eachRoundDataCSVWriter);
+                        runs.get(simulationRun - firstRun).get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new IOException("Simulation run " + simulationRun + " failed", e);
+                    }
+                    output.mergeInto(keyDaysData, maxExchanges, dailySummary, resultsIndex);
+                    merged.add(output);
+                    System.out.println("RUNS COMPLETED: " + simulationRun);
+                }
+            } finally {
+                // Any runs still waiting are abandoned if the environment fails, without affecting other environments.
+                for (Future<SimulationRunOutput> run : runs) {
+                    run.cancel(true);
+                }
+            }
 
-        ArrayList<ArrayList<Double>> socialFinalDays = new ArrayList<>();
-        ArrayList<ArrayList<Double>> selfishFinalDays = new ArrayList<>();
+            ArrayList<ArrayList<Double>> socialTakeoverDays = new ArrayList<>();
+            ArrayList<ArrayList<Double>> selfishTakeoverDays = new ArrayList<>();
 
-        int socialRunsTotal = 0;
-        int selfishRunsTotal = 0;
+            ArrayList<ArrayList<Double>> socialFinalDays = new ArrayList<>();
+            ArrayList<ArrayList<Double>> selfishFinalDays = new ArrayList<>();
 
-        for (ArrayList<Double> data: keyDaysData) {
-            ArrayList<Double> newData = new ArrayList<>();
-            newData.add(data.get(0));
-            newData.add(data.get(1));
+            int socialRunsTotal = 0;
+            int selfishRunsTotal = 0;
 
-            if (data.get(data.size() - 1) == 0.0) {
-                if(data.get(3) == 0) {
-                    newData.add(data.get(4));
-                    newData.add(data.get(6));
+            for (ArrayList<Double> data: keyDaysData) {
+                ArrayList<Double> newData = new ArrayList<>();
+                newData.add(data.get(0));
+                newData.add(data.get(1));
 
-                    socialTakeoverDays.add(newData);
-                    socialRunsTotal++;
-                } else {
-                    newData.add(data.get(5));
-                    newData.add(data.get(7));
+                if (data.get(data.size() - 1) == 0.0) {
+                    if(data.get(3) == 0) {
+                        newData.add(data.get(4));
+                        newData.add(data.get(6));
 
-                    selfishTakeoverDays.add(newData);
-                    selfishRunsTotal++;
-                }
-            } else {
-                if(data.get(3) == 0) {
-                    newData.add(data.get(4));
-                    newData.add(data.get(6));
+                        socialTakeoverDays.add(newData);
+                        socialRunsTotal++;
+                    } else {
+                        newData.add(data.get(5));
+                        newData.add(data.get(7));
 
-                    socialFinalDays.add(newData);
+                        selfishTakeoverDays.add(newData);
+                        selfishRunsTotal++;
+                    }
                 } else {
-                    newData.add(data.get(5));
-                    newData.add(data.get(7));
+                    if(data.get(3) == 0) {
+                        newData.add(data.get(4));
+                        newData.add(data.get(6));
+
+                        socialFinalDays.add(newData);
+                    } else {
+                        newData.add(data.get(5));
+                        newData.add(data.get(7));
 
-                    selfishFinalDays.add(newData);
+                        selfishFinalDays.add(newData);
+                    }
                 }
             }
-        }
 
-        final int column = 1;
-        Comparator<ArrayList<Double>> myComparator = new Comparator<ArrayList<Double>>() {
-            @Override
-            public int compare(ArrayList<Double> o1, ArrayList<Double> o2) {
-                return o1.get(column).compareTo(o2.get(column));
-            }
-        };
+            final int column = 1;
+            Comparator<ArrayList<Double>> myComparator = new Comparator<ArrayList<Double>>() {
+                @Override
+                public int compare(ArrayList<Double> o1, ArrayList<Double> o2) {
+                    return o1.get(column).compareTo(o2.get(column));
+                }
+            };
 
-        Collections.sort(socialTakeoverDays, myComparator);
-        Collections.sort(selfishTakeoverDays, myComparator);
+            Collections.sort(socialTakeoverDays, myComparator);
+            Collections.sort(selfishTakeoverDays, myComparator);
 
-        Collections.sort(socialFinalDays, myComparator);
-        Collections.sort(selfishFinalDays, myComparator);
+            Collections.sort(socialFinalDays, myComparator);
+            Collections.sort(selfishFinalDays, myComparator);
 
-        int middleSelfish = 0;
-        int middleSocial = 0;
 
-        if (socialRunsTotal > 0) {
-            ArrayList<Double> middleSocialTakeover = socialTakeoverDays.get((int) Math.floor(socialRunsTotal / 2.0f));
-            ArrayList<Double> slowestSocialTakeover = socialTakeoverDays.get(socialRunsTotal - 1);
-            ArrayList<Double> fastestSocialTakeover = socialTakeoverDays.get(0);
+            if (socialRunsTotal > 0) {
+                ArrayList<Double> middleSocialTakeover = socialTakeoverDays.get((int) Math.floor(socialRunsTotal / 2.0f));
+                ArrayList<Double> slowestSocialTakeover = socialTakeoverDays.get(socialRunsTotal - 1);
+                ArrayList<Double> fastestSocialTakeover = socialTakeoverDays.get(0);
 
-            middleSocial = (int) Math.floor(middleSocialTakeover.get(0));
-            int slowSocial = (int) Math.floor(slowestSocialTakeover.get(0));
-            int fastSocial = (int) Math.floor(fastestSocialTakeover.get(0));
+                middleSocial = (int) Math.floor(middleSocialTakeover.get(0));
+                int slowSocial = (int) Math.floor(slowestSocialTakeover.get(0));
+                int fastSocial = (int) Math.floor(fastestSocialTakeover.get(0));
 
-            simulationDataWriter.append("Social Takeovers: " + socialRunsTotal).append("\n");
-            simulationDataWriter.append("Fastest Social: Run " + fastSocial).append("\n");
-            simulationDataWriter.append("Slowest Social: Run " + slowSocial).append("\n");
-            simulationDataWriter.append("Typical Social: Run " + middleSocial).append("\n");
+                simulationDataWriter.append("Social Takeovers: " + socialRunsTotal).append("\n");
+                simulationDataWriter.append("Fastest Social: Run " + fastSocial).append("\n");
+                simulationDataWriter.append("Slowest Social: Run " + slowSocial).append("\n");
+                simulationDataWriter.append("Typical Social: Run " + middleSocial).append("\n");
 
-            double avgDaysSocial = 0;
-            double avgSatSocial = 0;
-            double avgSDSocial = 0;
+                double avgDaysSocial = 0;
+                double avgSatSocial = 0;
+                double avgSDSocial = 0;
 
-            for(ArrayList<Double> run: socialTakeoverDays) {
-                avgDaysSocial += run.get(1);
-                avgSatSocial += run.get(2);
-                avgSDSocial += run.get(3);
-            }
+                for(ArrayList<Double> run: socialTakeoverDays) {
+                    avgDaysSocial += run.get(1);
+                    avgSatSocial += run.get(2);
+                    avgSDSocial += run.get(3);
+                }
+
+                simulationDataWriter.append("Average Takeover Days (social): " + avgDaysSocial / socialTakeoverDays.size()).append("\n");
+                simulationDataWriter.append("Average Takeover Satisfaction (social): " + avgSatSocial / socialTakeoverDays.size()).append("\n");
+                simulationDataWriter.append("Average Takeover SD (social): " + avgSDSocial / socialTakeoverDays.size()).append("\n");
 
-            simulationDataWriter.append("Average Takeover Days (social): " + avgDaysSocial / socialTakeoverDays.size()).append("\n");
-            simulationDataWriter.append("Average Takeover Satisfaction (social): " + avgSatSocial / socialTakeoverDays.size()).append("\n");
-            simulationDataWriter.append("Average Takeover SD (social): " + avgSDSocial / socialTakeoverDays.size()).append("\n");
-
-            
-            avgDaysSocial = 0;
-            avgSatSocial = 0;
-            avgSDSocial = 0;
-            
-            for(ArrayList<Double> run: socialFinalDays) {
-                avgDaysSocial += run.get(1);
-                avgSatSocial += run.get(2);
-                avgSDSocial += run.get(3);
+
+                avgDaysSocial = 0;
+                avgSatSocial = 0;
+                avgSDSocial = 0;
+
+                for(ArrayList<Double> run: socialFinalDays) {
+                    avgDaysSocial += run.get(1);
+                    avgSatSocial += run.get(2);
+                    avgSDSocial += run.get(3);
+                }
+
+                simulationDataWriter.append("Average Final Satisfaction (social): " + avgSatSocial / socialFinalDays.size()).append("\n");
+                simulationDataWriter.append("Average Final SD (social): " + avgSDSocial / socialFinalDays.size()).append("\n\n");
             }
 
-            simulationDataWriter.append("Average Final Satisfaction (social): " + avgSatSocial / socialFinalDays.size()).append("\n");
-            simulationDataWriter.append("Average Final SD (social): " + avgSDSocial / socialFinalDays.size()).append("\n\n");
-        }
+            if (selfishRunsTotal > 0) {
+                ArrayList<Double> middleSelfishTakeover = selfishTakeoverDays.get((int) Math.floor(selfishRunsTotal / 2.0f));
+                ArrayList<Double> slowestSelfishTakeover = selfishTakeoverDays.get(selfishRunsTotal - 1);
+                ArrayList<Double> fastestSelfishTakeover = selfishTakeoverDays.get(0);
 
-        if (selfishRunsTotal > 0) {
-            ArrayList<Double> middleSelfishTakeover = selfishTakeoverDays.get((int) Math.floor(selfishRunsTotal / 2.0f));
-            ArrayList<Double> slowestSelfishTakeover = selfishTakeoverDays.get(selfishRunsTotal - 1);
-            ArrayList<Double> fastestSelfishTakeover = selfishTakeoverDays.get(0);
+                middleSelfish = (int) Math.floor(middleSelfishTakeover.get(0));
+                int slowSelfish = (int) Math.floor(slowestSelfishTakeover.get(0));
+                int fastSelfish = (int) Math.floor(fastestSelfishTakeover.get(0));
 
-            middleSelfish = (int) Math.floor(middleSelfishTakeover.get(0));
-            int slowSelfish = (int) Math.floor(slowestSelfishTakeover.get(0));
-            int fastSelfish = (int) Math.floor(fastestSelfishTakeover.get(0));
+                simulationDataWriter.append("Selfish Takeovers: " + selfishRunsTotal).append("\n");
+                simulationDataWriter.append("Fastest selfish: Run " + fastSelfish).append("\n");
+                simulationDataWriter.append("Slowest selfish: Run " + slowSelfish).append("\n");
+                simulationDataWriter.append("Typical selfish: Run " + middleSelfish).append("\n");
 
-            simulationDataWriter.append("Selfish Takeovers: " + selfishRunsTotal).append("\n");
-            simulationDataWriter.append("Fastest selfish: Run " + fastSelfish).append("\n");
-            simulationDataWriter.append("Slowest selfish: Run " + slowSelfish).append("\n");
-            simulationDataWriter.append("Typical selfish: Run " + middleSelfish).append("\n");
+                double avgDaysSelfish = 0;
+                double avgSatSelfish = 0;
+                double avgSDSelfish = 0;
 
-            double avgDaysSelfish = 0;
-            double avgSatSelfish = 0;
-            double avgSDSelfish = 0;
+                for(ArrayList<Double> run: selfishTakeoverDays) {
+                    avgDaysSelfish += run.get(1);
+                    avgSatSelfish += run.get(2);
+                    avgSDSelfish += run.get(3);
+                }
 
-            for(ArrayList<Double> run: selfishTakeoverDays) {
-                avgDaysSelfish += run.get(1);
-                avgSatSelfish += run.get(2);
-                avgSDSelfish += run.get(3);
-            }
+                simulationDataWriter.append("Average Takeover Days (selfish): " + avgDaysSelfish / selfishTakeoverDays.size()).append("\n");
+                simulationDataWriter.append("Average Takeover Satisfaction (selfish): " + avgSatSelfish / selfishTakeoverDays.size()).append("\n");
+                simulationDataWriter.append("Average Takeover SD (selfish): " + avgSDSelfish / socialTakeoverDays.size()).append("\n");
 
-            simulationDataWriter.append("Average Takeover Days (selfish): " + avgDaysSelfish / selfishTakeoverDays.size()).append("\n");
-            simulationDataWriter.append("Average Takeover Satisfaction (selfish): " + avgSatSelfish / selfishTakeoverDays.size()).append("\n");
-            simulationDataWriter.append("Average Takeover SD (selfish): " + avgSDSelfish / socialTakeoverDays.size()).append("\n");
+                avgDaysSelfish = 0;
+                avgSatSelfish = 0;
+                avgSDSelfish = 0;
 
-            avgDaysSelfish = 0;
-            avgSatSelfish = 0;
-            avgSDSelfish = 0;
+                for(ArrayList<Double> run: selfishFinalDays) {
+                    avgDaysSelfish += run.get(1);
+                    avgSatSelfish += run.get(2);
+                    avgSDSelfish += run.get(3);
+                }
+
+                simulationDataWriter.append("Average Final Satisfaction (selfish): " + avgSatSelfish / selfishFinalDays.size()).append("\n");
+                simulationDataWriter.append("Average Final SD (selfish): " + avgSDSelfish / selfishFinalDays.size());
+            }
 
-            for(ArrayList<Double> run: selfishFinalDays) {
-                avgDaysSelfish += run.get(1);
-                avgSatSelfish += run.get(2);
-                avgSDSelfish += run.get(3);
+            // The summary is written once every run has been added to it.
+            if (dailySummary != null) {
+                DataWriter dailySummaryWriter = outputSettings.open(
+                        dataOutputFolder, DataColumns.DAILY_SUMMARY, DataColumns.DAILY_SUMMARY_COLUMNS);
+                DataWriter roundSummaryWriter = outputSettings.open(
+                        dataOutputFolder, DataColumns.ROUND_SUMMARY, DataColumns.ROUND_SUMMARY_COLUMNS);
+                try {
+                    dailySummary.write(dailySummaryWriter, roundSummaryWriter);
+                } finally {
+                    dailySummaryWriter.close();
+                    roundSummaryWriter.close();
+                }
             }
+        }
 
-            simulationDataWriter.append("Average Final Satisfaction (selfish): " + avgSatSelfish / selfishFinalDays.size()).append("\n");
-            simulationDataWriter.append("Average Final SD (selfish): " + avgSDSelfish / selfishFinalDays.size());
+        // Checkpoints and the output of each run are kept until now, so that an interrupted environment can be resumed.
+        for (SimulationRunOutput output : merged) {
+            output.remove();
         }
-        
-        // Close the file writers once the simulation is complete.
-        allDailyDataCSVWriter.close();
-        perAgentDataCSVWriter.close();
-        eachRoundDataCSVWriter.close();
-        simulationDataWriter.close();
 
         /**
-         * Begins python code that visualises the gathered data from the current environment being simulated.
+         * Submits python code that visualises the gathered data from the current environment being simulated.
          *
          * @param pythonExe String representing the system path to python environment executable.
          * @param pythonPath String representing the system path to the python data visualiser.
@@ -479,16 +550,16 @@ public class ArenaEnvironment {
          * @param dataFile Stores all the data that can be analysed for each day.
          * @param typicalSocial The most average performing social run.
          * @param typicalSelfish The most average performing selfish run.
-         * @exception IOException On input error.
-         * @see IOException
+         * @param visualisationPool Carries out the visualisations of every environment version in the background.
          */
         new SimulationVisualiserInitiator(
                 pythonExe,
                 pythonPath,
                 folderName,
-                allDailyData,
+                outputSettings.readableFile(dataOutputFolder, DataColumns.DAILY_DATA),
                 middleSocial,
-                middleSelfish
+                middleSelfish,
+                visualisationPool
         );
     }
 }
@@ -0,0 +1,106 @@
+package resource_exchange_arena;
+
+
+class AvailabilityPool {
+    // Number of time-slots of each kind currently in the pool, indexed by time-slot.
+    private final int[] supplyCounts;
+
+    // The time-slots currently in the pool in no particular order, the first size entries are in use.
+    private final int[] timeSlots;
+    private int size;
+
+    /**
+     * Holds the time-slots that are available to be allocated to Agents at the start of each day. Time-slots are
+     * handed out in a random order by swapping the last time-slot in the pool into the place of the one taken.
+     *
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     * @param capacity Integer value representing the most time-slots the pool will ever hold.
+     */
+    AvailabilityPool(int uniqueTimeSlots, int capacity) {
+        supplyCounts = new int[uniqueTimeSlots + 1];
+        timeSlots = new int[capacity];
+        size = 0;
+    }
+
+    /**
+     * Builds the sampler used to fill the pool from the bucketed availability curve. The time-slots drawn follow the
+     * same distribution as spinning a wheel with a selector between 0 and one less than the total availability, so that
+     * a selector of 0 gives time-slot 0 and the last time-slot has one less chance of being selected than its
+     * availability.
+     *
+     * @param availabilityCurve Integer array representing the amount of energy available at each time-slot.
+     * @param totalAvailability Integer value representing the total energy available throughout the day.
+     * @return AliasSampler Returns a sampler where drawing time-slot t + 1 represents time-slot t becoming available.
+     */
+    static AliasSampler availabilitySampler(int[] availabilityCurve, int totalAvailability) {
+        // weights[t] holds the number of wheel selectors that give time-slot t.
+        double[] weights = new double[availabilityCurve.length + 1];
+        if (totalAvailability > 0) {
+            weights[0] = 1;
+        }
+        int covered = 0;
+        for (int t = 1; t <= availabilityCurve.length; t++) {
+            int next = Math.min(covered + availabilityCurve[t - 1], totalAvailability - 1);
+            weights[t] = Math.max(next - covered, 0);
+            covered = Math.max(covered, next);
+        }
+        return new AliasSampler(weights);
+    }
+
+    /**
+     * Empties the pool and fills it with a new set of available time-slots, as if each were drawn independently from
+     * the availability curve. The number of each time-slot is drawn directly, in one pass over the time-slots.
+     *
+     * @param requiredTimeSlots Integer value representing the number of time-slots to make available.
+     * @param availabilitySampler Sampler built by availabilitySampler for the availability curve.
+     * @param context The SimulationContext used to draw the time-slots.
+     */
+    void fill(int requiredTimeSlots, AliasSampler availabilitySampler, SimulationContext context) {
+        availabilitySampler.sampleCounts(requiredTimeSlots, supplyCounts, context);
+
+        // As time-slots are taken from random positions the order they are placed in the pool does not matter.
+        size = 0;
+        for (int t = 0; t < supplyCounts.length; t++) {
+            for (int i = 0; i < supplyCounts[t]; i++) {
+                timeSlots[size] = t;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Getter for whether any time-slots remain in the pool.
+     *
+     * @return boolean Returns whether the pool is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Getter for the number of a given time-slot remaining in the pool.
+     *
+     * @param timeSlot The time-slot to count.
+     * @return int Returns the number of copies of the time-slot in the pool.
+     */
+    int supply(int timeSlot) {
+        return supplyCounts[timeSlot];
+    }
+
+    /**
+     * Removes a time-slot chosen uniformly at random from those remaining in the pool.
+     *
+     * @param context The SimulationContext used to select the time-slot.
+     * @return int Returns the time-slot taken from the pool.
+     */
+    int take(SimulationContext context) {
+        int selector = context.nextInt(size);
+        int timeSlot = timeSlots[selector];
+
+        size--;
+        timeSlots[selector] = timeSlots[size];
+        supplyCounts[timeSlot]--;
+
+        return timeSlot;
+    }
+}
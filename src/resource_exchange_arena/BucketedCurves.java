@@ -0,0 +1,70 @@
+package resource_exchange_arena;
+
+import java.util.Arrays;
+
+class BucketedCurves {
+    // Samplers for the bucketed demand curves, agents are split equally between the curves.
+    final AliasSampler[] demandSamplers;
+
+    // Sampler for the bucketed availability curve.
+    final AliasSampler availabilitySampler;
+
+    // Identifies the curves the samplers were built from.
+    final int fingerprint;
+
+    /**
+     * Buckets the demand and availability curves given by the user into time-slots and builds the samplers used to
+     * draw from them. The samplers are never changed once built, so a single set is shared by every environment
+     * version and every simulation run, including those carried out at the same time.
+     *
+     * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents are
+     *                     split equally between the curves.
+     * @param availabilityCurve Integer array of energy availability used by the simulation.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     */
+    BucketedCurves(double[][] demandCurves, int[] availabilityCurve, int uniqueTimeSlots) {
+        fingerprint = 31 * Arrays.deepHashCode(demandCurves) + Arrays.hashCode(availabilityCurve);
+
+        // The demand curves are bucketed before the simulations for efficiency, as they will all use the same bucketed values.
+        demandSamplers = new AliasSampler[demandCurves.length];
+
+        for (int i = 0; i < demandCurves.length; i++) {
+            double[] bucketedDemandCurve = new double[uniqueTimeSlots];
+            int bucket = 0;
+            int bucketFill = 0;
+            for (int j = 0; j < demandCurves[i].length; j++) {
+                bucketedDemandCurve[bucket] = bucketedDemandCurve[bucket] + demandCurves[i][j];
+                bucketFill++;
+                if (bucketFill == 6) {
+                    // Rounding to fix precision errors.
+                    bucketedDemandCurve[bucket] = Math.round(bucketedDemandCurve[bucket] * 10.0) / 10.0;
+                    bucketFill = 0;
+                    bucket++;
+                }
+            }
+            // The sampler used for requests is also built here for efficiency, as it only depends on the curve.
+            demandSamplers[i] = new AliasSampler(bucketedDemandCurve);
+        }
+
+        // The availability curve is bucketed before the simulations for efficiency, as they will all use the same bucketed values.
+        int[] bucketedAvailabilityCurve = new int[uniqueTimeSlots];
+        int totalAvailability = 0;
+        
+        int bucket = 0;
+        int bucketFill = 0;
+        int bucketValue = 0;
+        for (int i = 0; i < availabilityCurve.length; i++) {
+            totalAvailability += availabilityCurve[i];
+            bucketValue += availabilityCurve[i];
+            bucketFill++;
+
+            if (bucketFill == 2) {
+                bucketedAvailabilityCurve[bucket] = bucketValue;
+                bucket++;
+                bucketValue = 0;
+                bucketFill = 0;
+            }
+        }
+        availabilitySampler = AvailabilityPool.availabilitySampler(bucketedAvailabilityCurve, totalAvailability);
+    }
+}
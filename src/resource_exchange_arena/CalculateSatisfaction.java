@@ -2,140 +2,106 @@ package resource_exchange_arena;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 
 import static java.lang.Math.sqrt;
 
 class CalculateSatisfaction {
     /**
-     * Takes all Agents individual satisfactions and calculates the average satisfaction of all Agents in the
-     * simulation.
+     * Calculates the average of a group of Agents satisfactions, adding them in the order they are given.
      *
-     * @param agents Array List of all the agents that exist in the current simulation.
-     * @return Double Returns the average satisfaction between 0 and 1 of all agents in the simulation.
+     * @param satisfactions Array of satisfactions, of which the first size values are used.
+     * @param size Integer value representing the number of Agents in the group.
+     * @return Double Returns the average satisfaction between 0 and 1 of the group, or 0 when the group is empty.
      */
-    static double averageAgentSatisfaction(ArrayList<Agent> agents) {
-        ArrayList<Double> agentSatisfactions = new ArrayList<>();
-        for (Agent a : agents) {
-            agentSatisfactions.add(a.calculateSatisfaction(null));
-        }
-        return agentSatisfactions.stream().mapToDouble(val -> val).average().orElse(0.0);
+    static double averageSatisfaction(double[] satisfactions, int size) {
+        return Arrays.stream(satisfactions, 0, size).average().orElse(0.0);
     }
 
     /**
-     * Takes all Agents of a given types individual satisfactions and calculates the average satisfaction of the Agents
-     * of that type.
+     * Calculates the standard deviation of a group of Agents satisfactions.
      *
-     * @param agents Array List of all the agents that exist in the current simulation.
-     * @param agentType The type for which to calculate the average satisfaction of all Agents of that type.
-     * @return Double Returns the average satisfaction between 0 and 1 of all agents of the given type.
+     * @param satisfactions Array of satisfactions, of which the first size values are used.
+     * @param size Integer value representing the number of Agents in the group.
+     * @param averageSatisfaction Double value representing the average satisfaction of the group.
+     * @return Double Returns the population standard deviation of the satisfactions, or 0 when the group is empty.
      */
-    static double averageAgentSatisfaction(ArrayList<Agent> agents, int agentType) {
-        ArrayList<Double> agentSatisfactions = new ArrayList<>();
-        for (Agent a : agents) {
-            if (a.getAgentType() == agentType) {
-                agentSatisfactions.add(a.calculateSatisfaction(null));
-            }
+    static double satisfactionStandardDeviation(double[] satisfactions, int size, double averageSatisfaction) {
+        if (size == 0) {
+            return 0.0;
         }
-        return agentSatisfactions.stream().mapToDouble(val -> val).average().orElse(0.0);
-    }
-
-    /**
-     * Takes all Agents of a given types individual satisfactions and calculates the variance between the average
-     * satisfaction of the Agents of that type.
-     *
-     * @param agents Array List of all the agents that exist in the current simulation.
-     * @param agentType The type for which to calculate the variance between the average satisfactions of all Agents of
-     *                  that type.
-     * @return Double Returns the variance between the average satisfactions of all agents of the given type.
-     */
-    static double averageSatisfactionStandardDeviation(ArrayList<Agent> agents, int agentType) {
         double sumDiffsSquared = 0.0;
-        double averageSatisfaction = averageAgentSatisfaction(agents, agentType);
-        int groupSize = 0;
-        for (Agent a : agents) {
-            if (a.getAgentType() == agentType) {
-                double diff = a.calculateSatisfaction(null) - averageSatisfaction;
-                diff *= diff;
-                sumDiffsSquared += diff;
-                groupSize++;
-            }
-        }
-        if (groupSize == 0) {
-            return 0.0;
+        for (int i = 0; i < size; i++) {
+            double diff = satisfactions[i] - averageSatisfaction;
+            diff *= diff;
+            sumDiffsSquared += diff;
         }
 
-        double populationVariance = sumDiffsSquared / (double)(groupSize);
+        double populationVariance = sumDiffsSquared / (double)(size);
         return sqrt(populationVariance);
     }
 
     /**
-     * Takes all Agents of a given types individual satisfactions and calculates the quartile ranges, min, max, median
-     * and 95th percentile satisfaction values for that type.
+     * Calculates the quartile ranges, min, max, median and 95th percentile of a group of Agents satisfactions. Only
+     * the positions each value is taken from are put in sorted order, using quickselect rather than sorting the
+     * whole group.
      *
-     * @param agents Array List of all the agents that exist in the current simulation.
-     * @param agentType The agent type for which to calculate the various values.
-     * @return Double[] Returns the quartile ranges, min, max, median and 95th percentile satisfaction values for 
-     *         agents of the given type.
+     * @param satisfactions Array of satisfactions, of which the first size values are used and reordered.
+     * @param size Integer value representing the number of Agents in the group.
+     * @return Double[] Returns the quartile ranges, min, max, median and 95th percentile satisfaction values for
+     *         the group.
      */
-    static double[] statisticalValues(ArrayList<Agent> agents, int agentType) {
-        ArrayList<Double> agentSatisfactions = new ArrayList<>();
-        for (Agent a : agents) {
-            if (a.getAgentType() == agentType) {
-                agentSatisfactions.add(a.calculateSatisfaction(null));
-            }
-        }
-        Collections.sort(agentSatisfactions);
+    static double[] statisticalValues(double[] satisfactions, int size) {
         double[] statValues = new double [6];
-
-        int size = agentSatisfactions.size();
-        
-        double uq;
-        double lq;
-        double ninetyfifth;
-        double max = size != 0 ? agentSatisfactions.get(size - 1) : 0;
-        double min = size != 0 ? agentSatisfactions.get(0) : 0;
-        double median;
-        
-        double[] satArray = new double [size];
-        int i = 0;
-        for (double a : agentSatisfactions) {
-            satArray[i] = a;
-            i++;
+        if (size == 0) {
+            return statValues;
         }
 
-        double[] lqSet;
-        double[] uqSet;
-
-        if (size != 0) {
-            if (size % 2 == 1) {
-                median = satArray[size / 2];
-                lqSet = Arrays.copyOfRange(satArray, 0, (size / 2));
-                uqSet = Arrays.copyOfRange(satArray, (size / 2) + 1, size);
-            } else {
-                median = (satArray[size / 2] + satArray[(size / 2) - 1]) / 2;
-                lqSet = Arrays.copyOfRange(satArray, 0, size / 2);
-                uqSet = Arrays.copyOfRange(satArray, (size / 2), satArray.length);
+        // The lower and upper halves exclude the median when there is an odd number of values.
+        int half = size / 2;
+        int upperStart = size % 2 == 1 ? half + 1 : half;
+        int ninetyfifthIndex = (int) (95 * size / 100.0 - 0.5);
+
+        int[] positions = {
+                0, size - 1,
+                half, half - 1,
+                half / 2, half / 2 - 1,
+                upperStart + half / 2, upperStart + half / 2 - 1,
+                ninetyfifthIndex, ninetyfifthIndex + 1
+        };
+        Arrays.sort(positions);
+        int from = 0;
+        for (int position : positions) {
+            if (position >= from && position < size) {
+                select(satisfactions, from, size, position);
+                from = position + 1;
             }
+        }
 
-            if (lqSet.length % 2 == 1) {
-                lq = 0 != lqSet.length ? lqSet[lqSet.length / 2] : 0;
-                uq = 0!= uqSet.length ? uqSet[uqSet.length / 2] : 0;
-            } else {
-                lq = 0 != lqSet.length ? (lqSet[lqSet.length / 2] + lqSet[(lqSet.length / 2) - 1]) / 2 : 0;
-                uq = 0 != uqSet.length ? (uqSet[uqSet.length / 2] + uqSet[(uqSet.length / 2) - 1]) / 2 : 0;
-            }
+        double max = satisfactions[size - 1];
+        double min = satisfactions[0];
+        double median;
+        if (size % 2 == 1) {
+            median = satisfactions[half];
         } else {
-            median = 0;
-            uq = 0;
+            median = (satisfactions[half] + satisfactions[half - 1]) / 2;
+        }
+
+        double lq;
+        double uq;
+        if (half == 0) {
             lq = 0;
+            uq = 0;
+        } else if (half % 2 == 1) {
+            lq = satisfactions[half / 2];
+            uq = satisfactions[upperStart + half / 2];
+        } else {
+            lq = (satisfactions[half / 2] + satisfactions[half / 2 - 1]) / 2;
+            uq = (satisfactions[upperStart + half / 2] + satisfactions[upperStart + half / 2 - 1]) / 2;
         }
-        
-        ninetyfifth = size != 0 ? percentile(satArray,95) : 0;
 
         statValues[0] = uq;
         statValues[1] = lq;
-        statValues[2] = ninetyfifth;
+        statValues[2] = percentile(satisfactions, size, 95);
         statValues[3] = max;
         statValues[4] = min;
         statValues[5] = median;
@@ -143,54 +109,125 @@ class CalculateSatisfaction {
         return statValues;
     }
 
+    /**
+     * Moves the value that belongs at a position in sorted order into that position, with only smaller or equal
+     * values before it and larger or equal values after it. Values equal to the pivot are gathered together, so that
+     * groups with many equal satisfactions are partitioned quickly.
+     *
+     * @param values Array of values to partially order.
+     * @param from Integer value representing the first position to consider.
+     * @param to Integer value representing the position after the last position to consider.
+     * @param k Integer value representing the position to fill, between from and to.
+     */
+    private static void select(double[] values, int from, int to, int k) {
+        while (to - from > 1) {
+            // The median of the first, middle and last values is used as the pivot.
+            double first = values[from];
+            double middle = values[(from + to) >>> 1];
+            double last = values[to - 1];
+            double pivot = Math.max(Math.min(first, middle), Math.min(Math.max(first, middle), last));
+
+            int lessThan = from;
+            int greaterThan = to - 1;
+            int i = from;
+            while (i <= greaterThan) {
+                if (values[i] < pivot) {
+                    swap(values, lessThan++, i++);
+                } else if (values[i] > pivot) {
+                    swap(values, i, greaterThan--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lessThan) {
+                to = lessThan;
+            } else if (k > greaterThan) {
+                from = greaterThan + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swaps two values of an array.
+     *
+     * @param values Array containing the values.
+     * @param i Integer value representing the position of the first value.
+     * @param j Integer value representing the position of the second value.
+     */
+    private static void swap(double[] values, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
     /**
      * Use linear interpolation to calculate a percentile from an array of data.
      *
-     * @param xs Array of values from which the percentile is calculated.
+     * @param xs Array of values from which the percentile is calculated, the two values either side of the percentile
+     *           must be in their sorted positions.
+     * @param n Integer value representing the number of values, the first n values of xs are used.
      * @param p The percentile to calculate.
      * @return Double value of the percentile requested.
      */
-    static double percentile(double[] xs, int p) {
+    static double percentile(double[] xs, int n, int p) {
         // The sorted elements in X are taken as the 100(0.5/n)th, 100(1.5/n)th, ..., 100([n – 0.5]/n)th percentiles.
-        int i = (int) (p * xs.length / 100.0 - 0.5);
+        int i = (int) (p * n / 100.0 - 0.5);
 
         // Linear interpolation uses linear polynomials to find yi = f(xi), the values of the underlying function
         // Y = f(X) at the points in the vector or array x. Given the data points (x1, y1) and (x2, y2), where
         // y1 = f(x1) and y2 = f(x2), linear interpolation finds y = f(x) for a given x between x1 and x2 as follows:
-        return i != (xs.length - 1) ? xs[i] + (xs[i + 1] - xs[i]) * (p / 100.0 - (i + 0.5) / xs.length) / ((i + 1.5) / xs.length - (i + 0.5) / xs.length) : xs[i];
+        return i != (n - 1) ? xs[i] + (xs[i + 1] - xs[i]) * (p / 100.0 - (i + 0.5) / n) / ((i + 1.5) / n - (i + 0.5) / n) : xs[i];
     }
 
     /**
      * Returns the optimum average satisfaction possible for all agents given the current requests and allocations in
-     * the simulation.
+     * the simulation, counting only time-slots that exactly match a request.
      *
      * @param agents Array List of all the agents that exist in the current simulation.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
      * @return Double Returns the highest possible average satisfaction between 0 and 1 of all agents in the simulation.
      */
-    static double optimumAgentSatisfaction(ArrayList<Agent> agents) {
-        ArrayList<Integer> allRequestedSlots = new ArrayList<>();
-        ArrayList<Integer> allAllocatedSlots = new ArrayList<>();
+    static double optimumAgentSatisfaction(ArrayList<Agent> agents, int uniqueTimeSlots) {
+        // The number of times each time-slot has been requested and allocated across all Agents.
+        int[] requestedCounts = new int[uniqueTimeSlots + 1];
+        int[] allocatedCounts = new int[uniqueTimeSlots + 1];
+
+        // Stores the total number of slots requested by all Agents.
+        double totalSlots = 0;
 
         for (Agent a : agents) {
-            allRequestedSlots.addAll(a.publishRequestedTimeSlots());
-            allAllocatedSlots.addAll(a.publishAllocatedTimeSlots());
+            TimeSlotStore requestedTimeSlots = a.publishRequestedTimeSlots();
+            for (int i = 0; i < requestedTimeSlots.size(); i++) {
+                requestedCounts[requestedTimeSlots.get(i)]++;
+                totalSlots++;
+            }
+            TimeSlotStore allocatedTimeSlots = a.publishAllocatedTimeSlots();
+            for (int i = 0; i < allocatedTimeSlots.size(); i++) {
+                allocatedCounts[allocatedTimeSlots.get(i)]++;
+            }
         }
 
-        // Stores the number of slots that could potentially be fulfilled with perfect trading.
+        // Stores the number of slots that could potentially be fulfilled with perfect trading, each allocated slot can
+        // only fulfil a single request.
         double satisfiedSlots = 0;
-
-        // Stores the total number of slots requested by all Agents.
-        double totalSlots = allRequestedSlots.size();
-
-        for (Integer slot : allRequestedSlots) {
-            if (allAllocatedSlots.contains(slot)) {
-                // For each request, if it has been allocated to any agent, increase the number of satisfied slots.
-                satisfiedSlots++;
-
-                // Remove the slot from the list of all allocated slots so no slots can be allocated twice.
-                allAllocatedSlots.remove(slot);
-            }
+        for (int timeSlot = 0; timeSlot <= uniqueTimeSlots; timeSlot++) {
+            satisfiedSlots += Math.min(requestedCounts[timeSlot], allocatedCounts[timeSlot]);
         }
         return satisfiedSlots / totalSlots;
     }
+
+    /**
+     * Returns the optimum average satisfaction possible for all agents given the current requests and allocations in
+     * the simulation, where time-slots near to a request also give satisfaction according to the satisfaction curve.
+     *
+     * @param agents Array List of all the agents that exist in the current simulation.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     * @return Double Returns the highest possible average satisfaction between 0 and 1 of all agents in the simulation.
+     */
+    static double exactOptimumAgentSatisfaction(ArrayList<Agent> agents, int uniqueTimeSlots) {
+        return OptimumAllocation.averageSatisfaction(agents, uniqueTimeSlots);
+    }
 }
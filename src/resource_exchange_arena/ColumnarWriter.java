@@ -0,0 +1,240 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+class ColumnarWriter implements DataWriter {
+    // Every .npy header is padded to the same size, so it can be rewritten with the final number of rows.
+    static final int NPY_HEADER_SIZE = 128;
+
+    // The numpy types of the columns, little endian 32 bit integers and 64 bit doubles.
+    static final String INTEGER = "<i4";
+    static final String DOUBLE = "<f8";
+
+    private final String name;
+    private final String[][] columns;
+    private final File directory;
+    private final File[] columnFiles;
+
+    private final FileOutputStream[] outputs;
+    private final ByteBuffer[] buffers;
+
+    // The column the next value of the current row belongs to.
+    private int column;
+
+    /**
+     * Writes each column of a data file to its own file as a fixed width array, so that it can be loaded by numpy
+     * without being parsed. The column files are .npy files, described by a manifest.json file listing the name, type
+     * and file of each column along with the number of rows.
+     *
+     * @param directory The folder the column files are written to.
+     * @param name String representing the name of the data file, recorded in the manifest.
+     * @param columns The name and numpy type of each column, in the order the values of each row are given.
+     * @param bufferSize Integer value representing the size in bytes of the buffer of each column.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    ColumnarWriter(File directory, String name, String[][] columns, int bufferSize) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.columns = columns;
+        columnFiles = columnFiles(directory, columns);
+
+        Files.createDirectories(directory.toPath());
+        outputs = new FileOutputStream[columns.length];
+        buffers = new ByteBuffer[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            outputs[i] = new FileOutputStream(columnFiles[i]);
+            buffers[i] = ByteBuffer.allocate(Math.max(bufferSize / columns.length, 64)).order(ByteOrder.LITTLE_ENDIAN);
+            outputs[i].write(npyHeader(columns[i][1], 0));
+        }
+    }
+
+    /**
+     * Getter for the column files of a data file.
+     *
+     * @param directory The folder the column files are written to.
+     * @param columns The name and numpy type of each column.
+     * @return File[] Returns the file of each column, in column order.
+     */
+    static File[] columnFiles(File directory, String[][] columns) {
+        File[] files = new File[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String fileName = columns[i][0].toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_") + ".npy";
+            files[i] = new File(directory, fileName);
+        }
+        return files;
+    }
+
+    /**
+     * Getter for the manifest describing the data files of the environment.
+     *
+     * @param directory The folder the column files are written to.
+     * @return File Returns the manifest file.
+     */
+    static File manifestFile(File directory) {
+        return new File(directory, "manifest.json");
+    }
+
+    /**
+     * Builds the header of a one dimensional .npy file.
+     *
+     * @param type The numpy type of the column.
+     * @param rows Long value representing the number of values in the column.
+     * @return byte[] Returns the header, always NPY_HEADER_SIZE bytes long.
+     */
+    private static byte[] npyHeader(String type, long rows) {
+        StringBuilder header = new StringBuilder();
+        header.append("{'descr': '").append(type).append("', 'fortran_order': False, 'shape': (").append(rows)
+                .append(",), }");
+        // The magic string, version and header length take up the first 10 bytes, the header ends with a new line.
+        while (header.length() < NPY_HEADER_SIZE - 11) {
+            header.append(' ');
+        }
+        header.append('\n');
+
+        ByteBuffer bytes = ByteBuffer.allocate(NPY_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) 0);
+        bytes.putShort((short) (NPY_HEADER_SIZE - 10));
+        bytes.put(header.toString().getBytes(StandardCharsets.US_ASCII));
+        return bytes.array();
+    }
+
+    /**
+     * Getter for the size of a single value of a column.
+     *
+     * @param type The numpy type of the column.
+     * @return int Returns the number of bytes taken by each value.
+     */
+    static int valueSize(String type) {
+        return type.equals(INTEGER) ? 4 : 8;
+    }
+
+    /**
+     * Getter for the buffer of the column the next value belongs to, writing the buffer out when it is full.
+     *
+     * @return ByteBuffer Returns the buffer to add the value to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private ByteBuffer nextBuffer() throws IOException {
+        if (column >= columns.length) {
+            throw new IOException("Row of " + name + " has more than " + columns.length + " values");
+        }
+        ByteBuffer buffer = buffers[column];
+        if (buffer.remaining() < 8) {
+            drain(column);
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes the buffer of a column to its file.
+     *
+     * @param i Integer value identifying the column.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void drain(int i) throws IOException {
+        outputs[i].write(buffers[i].array(), 0, buffers[i].position());
+        buffers[i].clear();
+    }
+
+    @Override
+    public void value(int value) throws IOException {
+        ByteBuffer buffer = nextBuffer();
+        if (columns[column][1].equals(INTEGER)) {
+            buffer.putInt(value);
+        } else {
+            buffer.putDouble(value);
+        }
+        column++;
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        ByteBuffer buffer = nextBuffer();
+        if (columns[column][1].equals(INTEGER)) {
+            throw new IOException("Column " + columns[column][0] + " of " + name + " holds integers");
+        }
+        buffer.putDouble(value);
+        column++;
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        if (column != columns.length) {
+            throw new IOException("Row of " + name + " has " + column + " values instead of " + columns.length);
+        }
+        column = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            drain(i);
+        }
+    }
+
+    /**
+     * Writes everything added so far and closes the column files. The column files are given their final number of
+     * rows, and the manifest is written.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (FileOutputStream output : outputs) {
+                output.close();
+            }
+        }
+
+        long rows = 0;
+        for (int i = 0; i < columns.length; i++) {
+            rows = (columnFiles[i].length() - NPY_HEADER_SIZE) / valueSize(columns[i][1]);
+            try (RandomAccessFile columnFile = new RandomAccessFile(columnFiles[i], "rw")) {
+                columnFile.write(npyHeader(columns[i][1], rows));
+            }
+        }
+
+        try (FileWriter manifestWriter = new FileWriter(manifestFile(directory))) {
+            manifestWriter.append("{\n");
+            manifestWriter.append("  \"name\": \"").append(name).append("\",\n");
+            manifestWriter.append("  \"rows\": ").append(String.valueOf(rows)).append(",\n");
+            manifestWriter.append("  \"columns\": [\n");
+            for (int i = 0; i < columns.length; i++) {
+                manifestWriter.append("    {\"name\": \"").append(columns[i][0])
+                        .append("\", \"dtype\": \"").append(columns[i][1])
+                        .append("\", \"file\": \"").append(columnFiles[i].getName()).append("\"}");
+                manifestWriter.append(i < columns.length - 1 ? ",\n" : "\n");
+            }
+            manifestWriter.append("  ]\n");
+            manifestWriter.append("}\n");
+        }
+    }
+
+    /**
+     * Getter for the files written.
+     *
+     * @return File[] Returns the file of each column, followed by the manifest.
+     */
+    @Override
+    public File[] files() {
+        File[] files = new File[columnFiles.length + 1];
+        System.arraycopy(columnFiles, 0, files, 0, columnFiles.length);
+        files[columnFiles.length] = manifestFile(directory);
+        return files;
+    }
+}
@@ -0,0 +1,86 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class CombinedWriter implements DataWriter {
+    private final DataWriter[] writers;
+
+    /**
+     * Writes the same rows through several writers, used when the data is output in more than one format.
+     *
+     * @param writers The writers that are given every value, each writing a different format.
+     */
+    CombinedWriter(DataWriter... writers) {
+        this.writers = writers;
+    }
+
+    /**
+     * Getter for the writers given every value.
+     *
+     * @return DataWriter[] Returns the writer of each format, in the order they were given.
+     */
+    DataWriter[] getWriters() {
+        return writers;
+    }
+
+    @Override
+    public void value(int value) throws IOException {
+        for (DataWriter writer : writers) {
+            writer.value(value);
+        }
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        for (DataWriter writer : writers) {
+            writer.value(value);
+        }
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        for (DataWriter writer : writers) {
+            writer.endRow();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        for (DataWriter writer : writers) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Closes every writer, carrying on past a failure so that every file is closed.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (DataWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public File[] files() {
+        ArrayList<File> files = new ArrayList<>();
+        for (DataWriter writer : writers) {
+            files.addAll(Arrays.asList(writer.files()));
+        }
+        return files.toArray(new File[0]);
+    }
+}
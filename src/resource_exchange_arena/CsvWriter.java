@@ -0,0 +1,575 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPOutputStream;
+
+class CsvWriter implements DataWriter {
+    // The number of batches that can wait to be written.
+    private static final int QUEUED_BATCHES = 4;
+
+    // Each entry of a batch is one of these kinds. Values of a row are separated by commas, while text and numbers
+    // added with append are written as they are. A mark records where the current row began in the output.
+    private static final byte INTEGER = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte END_ROW = 2;
+    private static final byte TEXT = 3;
+    private static final byte NUMBER = 4;
+    private static final byte MARK = 5;
+
+    private final File file;
+    private final FileOutputStream out;
+    private final Thread writerThread;
+
+    // Compression settings, a compressionLevel of -1 writing the rows uncompressed.
+    private final int compressionLevel;
+    private final int bufferSize;
+
+    // The gzip member currently being written by the writer thread, started when the first rows of the member arrive.
+    private GZIPOutputStream member;
+
+    // Full batches waiting to be written, and written batches that can be filled again.
+    private final ArrayBlockingQueue<Batch> filledBatches = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+    private final ArrayBlockingQueue<Batch> emptyBatches = new ArrayBlockingQueue<>(QUEUED_BATCHES + 1);
+
+    // The batch currently being filled by the simulation thread, and the number of marks added to the batches so far.
+    private Batch batch;
+    private int marks;
+
+    // The bytes formatted by the writer thread that are yet to be written, the number of bytes written before them,
+    // whether the current row has any values yet and where it began, all before compression.
+    private final byte[] buffer;
+    private int position;
+    private long written;
+    private boolean rowStarted;
+    private long rowStart;
+
+    // The offset recorded by each mark, filled in by the writer thread.
+    private long[] offsets = new long[16];
+
+    // Reused to format doubles, as appending a double to a StringBuilder does not create a String.
+    private final StringBuilder doubleDigits = new StringBuilder(32);
+
+    // The first error met by the writer thread, reported to the simulation thread on its next call.
+    private volatile IOException failure;
+
+    private static class Batch {
+        // The kind of each entry along with its value, a double being held as its bits and text as its position in
+        // the texts of the batch.
+        final byte[] kinds;
+        final long[] numbers;
+        final ArrayList<String> texts = new ArrayList<>();
+        int length;
+        // Counted down once every batch before this one has been written, or null for a normal batch.
+        CountDownLatch written;
+        // Marks the last batch, after which the writer thread stops.
+        boolean last;
+
+        Batch(int entries) {
+            kinds = new byte[entries];
+            numbers = new long[entries];
+        }
+    }
+
+    /**
+     * Writes csv output without slowing down the simulation. Values are added to large batches as they are given,
+     * without formatting them, and full batches are handed through a bounded queue to a dedicated thread that formats
+     * them straight into bytes, without creating a String for each value, and writes them to the file. Should the
+     * simulation get ahead of the file the queue fills up and the simulation waits for it. Values are formatted
+     * exactly as String.valueOf would format them.
+     *
+     * When compressed the file is gzip compressed by the writer thread. Every flush ends a gzip member, so reading can
+     * start at the length the file had after a flush. A file made of several members reads as a single file with any
+     * gzip reader.
+     *
+     * @param file The file to write to.
+     * @param append Boolean value that determines whether rows are added to the end of an existing file, rather than
+     *               replacing it.
+     * @param compressionLevel Integer value between 0 and 9 representing the gzip compression level, or -1 to write
+     *                         the file uncompressed.
+     * @param bufferSize Integer value representing the size in bytes of the buffer rows are formatted into and of the
+     *                   compression buffer, each batch holding one entry for every 8 bytes.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    CsvWriter(File file, boolean append, int compressionLevel, int bufferSize) throws IOException {
+        this.file = file;
+        this.compressionLevel = compressionLevel;
+        this.bufferSize = bufferSize;
+        out = new FileOutputStream(file, append);
+        buffer = new byte[bufferSize];
+        int entries = Math.max(1, bufferSize / 8);
+        batch = new Batch(entries);
+        for (int i = 0; i < QUEUED_BATCHES; i++) {
+            emptyBatches.add(new Batch(entries));
+        }
+
+        writerThread = new Thread(this::writeBatches, "CsvWriter " + file.getName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Writes each batch as it arrives until the last batch, run by the writer thread.
+     */
+    private void writeBatches() {
+        try {
+            while (true) {
+                Batch filled = filledBatches.take();
+                if (failure == null) {
+                    try {
+                        write(filled);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                CountDownLatch batchWritten = filled.written;
+                boolean last = filled.last;
+                filled.length = 0;
+                filled.texts.clear();
+                filled.written = null;
+                filled.last = false;
+                emptyBatches.put(filled);
+                if (batchWritten != null) {
+                    batchWritten.countDown();
+                }
+                if (last) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            failure = new IOException("Writing " + file.getName() + " was interrupted", e);
+        }
+    }
+
+    /**
+     * Formats a single batch and writes it to the file, run by the writer thread. The formatted bytes are only written
+     * once the buffer is full, or once everything added so far has to be in the file.
+     *
+     * @param filled The batch to write.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void write(Batch filled) throws IOException {
+        for (int i = 0; i < filled.length; i++) {
+            long number = filled.numbers[i];
+            switch (filled.kinds[i]) {
+                case INTEGER:
+                case DOUBLE:
+                    if (rowStarted) {
+                        writeByte(',');
+                    } else {
+                        rowStarted = true;
+                        rowStart = written + position;
+                    }
+                    if (filled.kinds[i] == INTEGER) {
+                        writeNumber(number);
+                    } else {
+                        writeDouble(Double.longBitsToDouble(number));
+                    }
+                    break;
+                case END_ROW:
+                    writeByte('\n');
+                    rowStarted = false;
+                    break;
+                case TEXT:
+                    writeText(filled.texts.get((int) number));
+                    break;
+                case NUMBER:
+                    writeNumber(number);
+                    break;
+                default:
+                    if (number == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[(int) number] = rowStarted ? rowStart : written + position;
+                    break;
+            }
+        }
+        if (filled.written != null || filled.last) {
+            writeBuffer();
+            endMember();
+        }
+    }
+
+    /**
+     * Getter for the stream that rows are written to, starting a new gzip member when compressing.
+     *
+     * @return OutputStream Returns the stream to write rows to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private OutputStream stream() throws IOException {
+        if (compressionLevel < 0) {
+            return out;
+        }
+        if (member == null) {
+            // Ending a member must not close the file, so the member writes to the file through a stream that ignores
+            // being closed.
+            OutputStream unclosable = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+            };
+            member = new GZIPOutputStream(unclosable, bufferSize) {
+                {
+                    def.setLevel(compressionLevel);
+                }
+            };
+        }
+        return member;
+    }
+
+    /**
+     * Ends the current gzip member, if there is one, so that everything written so far is complete in the file.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void endMember() throws IOException {
+        if (member != null) {
+            // Closing the member also frees its compressor.
+            member.close();
+            member = null;
+        }
+    }
+
+    /**
+     * Writes the bytes formatted so far to the file, run by the writer thread.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void writeBuffer() throws IOException {
+        if (position > 0) {
+            stream().write(buffer, 0, position);
+            written += position;
+            position = 0;
+        }
+    }
+
+    /**
+     * Formats a String, run by the writer thread.
+     *
+     * @param value The String to format.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void writeText(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else {
+                // Anything outside ASCII is rare in the output, so it is simply encoded on its own.
+                for (byte b : String.valueOf(c).getBytes(java.nio.charset.StandardCharsets.UTF_8)) {
+                    writeByte(b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats a long, run by the writer thread.
+     *
+     * @param value The long to format.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void writeNumber(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeText(String.valueOf(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        // Digits are found from the least significant first, so they are written backwards into place.
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        ensureSpace(digits);
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Formats a double, run by the writer thread.
+     *
+     * @param value The double to format.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void writeDouble(double value) throws IOException {
+        doubleDigits.setLength(0);
+        doubleDigits.append(value);
+        ensureSpace(doubleDigits.length());
+        for (int i = 0; i < doubleDigits.length(); i++) {
+            buffer[position++] = (byte) doubleDigits.charAt(i);
+        }
+    }
+
+    /**
+     * Formats a single byte, run by the writer thread.
+     *
+     * @param b The byte to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void writeByte(int b) throws IOException {
+        ensureSpace(1);
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * Writes the bytes formatted so far to the file when the buffer does not have enough space left, run by the writer
+     * thread.
+     *
+     * @param bytes The number of bytes about to be added.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void ensureSpace(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Adds a String to the output.
+     *
+     * @param value The String to add.
+     * @return CsvWriter Returns this writer so that calls can be chained.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    CsvWriter append(String value) throws IOException {
+        // The text is added first, as adding the entry can hand the batch over.
+        batch.texts.add(value);
+        add(TEXT, batch.texts.size() - 1);
+        return this;
+    }
+
+    /**
+     * Adds an integer to the output.
+     *
+     * @param value The integer to add.
+     * @return CsvWriter Returns this writer so that calls can be chained.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    CsvWriter append(int value) throws IOException {
+        return append((long) value);
+    }
+
+    /**
+     * Adds a long to the output.
+     *
+     * @param value The long to add.
+     * @return CsvWriter Returns this writer so that calls can be chained.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    CsvWriter append(long value) throws IOException {
+        add(NUMBER, value);
+        return this;
+    }
+
+    /**
+     * Adds an integer as the next value of the current row, separated from the value before it by a comma.
+     *
+     * @param value The integer to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void value(int value) throws IOException {
+        add(INTEGER, value);
+    }
+
+    /**
+     * Adds a double as the next value of the current row, separated from the value before it by a comma.
+     *
+     * @param value The double to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void value(double value) throws IOException {
+        add(DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Ends the current row with a new line.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void endRow() throws IOException {
+        add(END_ROW, 0);
+    }
+
+    /**
+     * Records where the current row began in the output, or how much has been added when no row has been started.
+     * The offset can be read with getOffset once the writer has been flushed.
+     *
+     * @return int Returns the mark to read the offset of.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    int mark() throws IOException {
+        add(MARK, marks);
+        return marks++;
+    }
+
+    /**
+     * Getter for the offset recorded by a mark.
+     *
+     * @param mark The mark, which must have been added before the writer was last flushed.
+     * @return long Returns the number of bytes added before the mark, before compression.
+     */
+    long getOffset(int mark) {
+        return offsets[mark];
+    }
+
+    /**
+     * Adds a single entry to the current batch, handing the batch to the writer thread once it is full.
+     *
+     * @param kind The kind of entry.
+     * @param number The value of the entry.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void add(byte kind, long number) throws IOException {
+        batch.kinds[batch.length] = kind;
+        batch.numbers[batch.length] = number;
+        if (++batch.length == batch.kinds.length) {
+            handOver(null, false);
+        }
+    }
+
+    /**
+     * Hands the current batch to the writer thread and starts a new batch.
+     *
+     * @param written Counted down once the batch has been written, or null.
+     * @param last Boolean value that determines whether this is the final batch.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void handOver(CountDownLatch written, boolean last) throws IOException {
+        checkFailure();
+        try {
+            batch.written = written;
+            batch.last = last;
+            filledBatches.put(batch);
+            batch = last ? null : emptyBatches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Writing " + file.getName() + " was interrupted", e);
+        }
+    }
+
+    /**
+     * Getter for the CsvWriter among the writers of a data file.
+     *
+     * @param writer The writer of the data file, in whichever formats it is written.
+     * @return CsvWriter Returns the writer of the csv file, or null when the data file is not written as csv.
+     */
+    static CsvWriter of(DataWriter writer) {
+        if (writer instanceof CsvWriter) {
+            return (CsvWriter) writer;
+        }
+        if (writer instanceof CombinedWriter) {
+            for (DataWriter combined : ((CombinedWriter) writer).getWriters()) {
+                if (combined instanceof CsvWriter) {
+                    return (CsvWriter) combined;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Getter for the file written.
+     *
+     * @return File[] Returns the csv file.
+     */
+    @Override
+    public File[] files() {
+        return new File[] {file};
+    }
+
+    /**
+     * Waits until everything added so far has been written to the file, ending the current gzip member when
+     * compressing.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        CountDownLatch written = new CountDownLatch(1);
+        handOver(written, false);
+        try {
+            written.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Writing " + file.getName() + " was interrupted", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Writes everything added so far, stops the writer thread and closes the file.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (!writerThread.isAlive()) {
+            return;
+        }
+        try {
+            handOver(null, true);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Writing " + file.getName() + " was interrupted", e);
+        } finally {
+            out.close();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Reports any error met by the writer thread.
+     *
+     * @exception IOException The error met by the writer thread.
+     * @see IOException
+     */
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("Could not write " + file.getName(), e);
+        }
+    }
+}
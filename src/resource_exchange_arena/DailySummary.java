@@ -0,0 +1,151 @@
+package resource_exchange_arena;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+class DailySummary {
+    private static final int TYPES = RunSummary.AGENT_TYPES.length;
+
+    // The share of the population and the average satisfaction of each agent type on each day, across runs.
+    private final ArrayList<RunningStatistics[]> shares = new ArrayList<>();
+    private final ArrayList<RunningStatistics[]> satisfactions = new ArrayList<>();
+
+    // The satisfaction of every Agent of each agent type on each day, across runs.
+    private final ArrayList<QuantileSketch[]> distributions = new ArrayList<>();
+
+    // The average satisfaction of each agent type at the end of each exchange round of each day, across runs.
+    private final ArrayList<ArrayList<RunningStatistics[]>> rounds = new ArrayList<>();
+
+    /**
+     * Averages the values recorded by each simulation run across all the runs of the environment as the runs are
+     * added, keeping the running mean and variance of each day, and of each exchange round of each day, for each agent
+     * type. Only the summary is kept, so it can be written without reading back the data files. Runs last a different
+     * number of days, so each day and round is averaged over the runs that reached it, and the satisfaction of a type
+     * only over the runs in which Agents of the type existed. The satisfaction of every Agent is also sketched for
+     * each day and agent type, giving the quantiles of the satisfactions across all the runs without keeping them.
+     */
+    DailySummary() {}
+
+    /**
+     * Creates a RunningStatistics for each agent type.
+     *
+     * @return RunningStatistics[] Returns an empty RunningStatistics for each position in RunSummary.AGENT_TYPES.
+     */
+    private static RunningStatistics[] newStatistics() {
+        RunningStatistics[] statistics = new RunningStatistics[TYPES];
+        for (int i = 0; i < TYPES; i++) {
+            statistics[i] = new RunningStatistics();
+        }
+        return statistics;
+    }
+
+    /**
+     * Creates a QuantileSketch for each agent type.
+     *
+     * @return QuantileSketch[] Returns an empty QuantileSketch for each position in RunSummary.AGENT_TYPES.
+     */
+    private static QuantileSketch[] newSketches() {
+        QuantileSketch[] sketches = new QuantileSketch[TYPES];
+        for (int i = 0; i < TYPES; i++) {
+            sketches[i] = new QuantileSketch();
+        }
+        return sketches;
+    }
+
+    /**
+     * Adds every value recorded by a simulation run to the summary.
+     *
+     * @param runSummary The values recorded by the simulation run.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void add(RunSummary runSummary) throws IOException {
+        for (int day = 1; day <= runSummary.getDays(); day++) {
+            if (shares.size() < day) {
+                shares.add(newStatistics());
+                satisfactions.add(newStatistics());
+                distributions.add(newSketches());
+                rounds.add(new ArrayList<>());
+            }
+            for (int type = 0; type < TYPES; type++) {
+                shares.get(day - 1)[type].add(runSummary.getShare(day, type));
+                double satisfaction = runSummary.getSatisfaction(day, type);
+                if (!Double.isNaN(satisfaction)) {
+                    satisfactions.get(day - 1)[type].add(satisfaction);
+                }
+                byte[] distribution = runSummary.getDistribution(day, type);
+                distributions.get(day - 1)[type].read(new DataInputStream(new ByteArrayInputStream(distribution)));
+            }
+
+            ArrayList<RunningStatistics[]> dayRounds = rounds.get(day - 1);
+            ArrayList<double[]> runRounds = runSummary.getRounds(day);
+            for (int round = 0; round < runRounds.size(); round++) {
+                if (dayRounds.size() <= round) {
+                    dayRounds.add(newStatistics());
+                }
+                for (int type = 0; type < TYPES; type++) {
+                    double satisfaction = runRounds.get(round)[type];
+                    if (!Double.isNaN(satisfaction)) {
+                        dayRounds.get(round)[type].add(satisfaction);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the summary of each day, and of each exchange round of each day.
+     *
+     * @param dailySummaryWriter Used to store a row for each day, with the number of runs that reached the day, the
+     *                           share of the population and average satisfaction of each agent type, and the
+     *                           quantiles of the satisfaction of the Agents of each type.
+     * @param roundSummaryWriter Used to store a row for each agent type at the end of each exchange round of each day.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void write(DataWriter dailySummaryWriter, DataWriter roundSummaryWriter) throws IOException {
+        for (int day = 1; day <= shares.size(); day++) {
+            RunningStatistics[] dayShares = shares.get(day - 1);
+            RunningStatistics[] daySatisfactions = satisfactions.get(day - 1);
+            QuantileSketch[] dayDistributions = distributions.get(day - 1);
+
+            dailySummaryWriter.value(day);
+            dailySummaryWriter.value(dayShares[0].getCount());
+            for (int type = 0; type < TYPES; type++) {
+                dailySummaryWriter.value(dayShares[type].getMean());
+                dailySummaryWriter.value(dayShares[type].getStandardDeviation());
+                dailySummaryWriter.value(daySatisfactions[type].getCount());
+                dailySummaryWriter.value(daySatisfactions[type].getMean());
+                dailySummaryWriter.value(daySatisfactions[type].getStandardDeviation());
+                dailySummaryWriter.value(daySatisfactions[type].getConfidenceInterval());
+                dailySummaryWriter.value(dayDistributions[type].getMin());
+                dailySummaryWriter.value(dayDistributions[type].getQuantile(0.25));
+                dailySummaryWriter.value(dayDistributions[type].getQuantile(0.5));
+                dailySummaryWriter.value(dayDistributions[type].getQuantile(0.75));
+                dailySummaryWriter.value(dayDistributions[type].getQuantile(0.95));
+                dailySummaryWriter.value(dayDistributions[type].getMax());
+            }
+            dailySummaryWriter.endRow();
+
+            ArrayList<RunningStatistics[]> dayRounds = rounds.get(day - 1);
+            for (int round = 0; round < dayRounds.size(); round++) {
+                for (int type = 0; type < TYPES; type++) {
+                    RunningStatistics statistics = dayRounds.get(round)[type];
+                    if (statistics.getCount() == 0) {
+                        continue;
+                    }
+                    roundSummaryWriter.value(day);
+                    roundSummaryWriter.value(round);
+                    roundSummaryWriter.value(RunSummary.AGENT_TYPES[type]);
+                    roundSummaryWriter.value(statistics.getCount());
+                    roundSummaryWriter.value(statistics.getMean());
+                    roundSummaryWriter.value(statistics.getStandardDeviation());
+                    roundSummaryWriter.value(statistics.getConfidenceInterval());
+                    roundSummaryWriter.endRow();
+                }
+            }
+        }
+    }
+}
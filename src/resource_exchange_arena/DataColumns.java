@@ -0,0 +1,119 @@
+package resource_exchange_arena;
+
+class DataColumns {
+    // The data files written by each environment.
+    static final String DAILY_DATA = "dailyData";
+    static final String AGENT_DATA = "agentData";
+    static final String EXCHANGE_DATA = "exchangeData";
+    static final String DAILY_SUMMARY = "dailySummary";
+    static final String ROUND_SUMMARY = "roundSummary";
+
+    // The name and numpy type of each column of the data files, in the order the values of each row are written. The
+    // data files written by the simulation runs begin each row with the run and the day, which they are indexed by.
+    static final String[][] DAILY_DATA_COLUMNS = {
+            {"Simulation Run", ColumnarWriter.INTEGER},
+            {"Day", ColumnarWriter.INTEGER},
+            {"Social Pop", ColumnarWriter.INTEGER},
+            {"Selfish Pop", ColumnarWriter.INTEGER},
+            {"Social Sat", ColumnarWriter.DOUBLE},
+            {"Selfish Sat", ColumnarWriter.DOUBLE},
+            {"Social SD", ColumnarWriter.DOUBLE},
+            {"Selfish SD", ColumnarWriter.DOUBLE},
+            {"Social Upper Quartile", ColumnarWriter.DOUBLE},
+            {"Selfish Upper Quartile", ColumnarWriter.DOUBLE},
+            {"Social Lower Quartile", ColumnarWriter.DOUBLE},
+            {"Selfish Lower Quartile", ColumnarWriter.DOUBLE},
+            {"Social 95th Percentile", ColumnarWriter.DOUBLE},
+            {"Selfish 95th Percentile", ColumnarWriter.DOUBLE},
+            {"Social Max", ColumnarWriter.DOUBLE},
+            {"Selfish Max", ColumnarWriter.DOUBLE},
+            {"Social Min", ColumnarWriter.DOUBLE},
+            {"Selfish Min", ColumnarWriter.DOUBLE},
+            {"Social Median", ColumnarWriter.DOUBLE},
+            {"Selfish Median", ColumnarWriter.DOUBLE},
+            {"Random Allocation Sat", ColumnarWriter.DOUBLE},
+            {"Optimum ALlocation Sat", ColumnarWriter.DOUBLE}
+    };
+
+    static final String[][] AGENT_DATA_COLUMNS = {
+            {"Simulation Run", ColumnarWriter.INTEGER},
+            {"Day", ColumnarWriter.INTEGER},
+            {"Agent Type", ColumnarWriter.INTEGER},
+            {"Satisfaction", ColumnarWriter.DOUBLE},
+            {"Rejected Received Exchanges", ColumnarWriter.INTEGER},
+            {"Accepted Received Exchanges", ColumnarWriter.INTEGER},
+            {"Rejected Requested Exchanges", ColumnarWriter.INTEGER},
+            {"Accepted Requested Exchanges", ColumnarWriter.INTEGER},
+            {"Social Capital Exchanges", ColumnarWriter.INTEGER},
+            {"No Social Capital Exchanges", ColumnarWriter.INTEGER},
+            {"Unspent Social Capital", ColumnarWriter.INTEGER}
+    };
+
+    static final String[][] EXCHANGE_DATA_COLUMNS = {
+            {"Simulation Run", ColumnarWriter.INTEGER},
+            {"Day", ColumnarWriter.INTEGER},
+            {"Round", ColumnarWriter.INTEGER},
+            {"Agent Type", ColumnarWriter.INTEGER},
+            {"Satisfaction", ColumnarWriter.DOUBLE}
+    };
+
+    // The columns of each agent type follow the order of RunSummary.AGENT_TYPES.
+    static final String[][] DAILY_SUMMARY_COLUMNS = {
+            {"Day", ColumnarWriter.INTEGER},
+            {"Runs", ColumnarWriter.INTEGER},
+            {"Social Pop Share", ColumnarWriter.DOUBLE},
+            {"Social Pop Share SD", ColumnarWriter.DOUBLE},
+            {"Social Sat Runs", ColumnarWriter.INTEGER},
+            {"Social Sat", ColumnarWriter.DOUBLE},
+            {"Social Sat SD", ColumnarWriter.DOUBLE},
+            {"Social Sat CI95", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat Min", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat Lower Quartile", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat Median", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat Upper Quartile", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat 95th Percentile", ColumnarWriter.DOUBLE},
+            {"Social Agent Sat Max", ColumnarWriter.DOUBLE},
+            {"Selfish Pop Share", ColumnarWriter.DOUBLE},
+            {"Selfish Pop Share SD", ColumnarWriter.DOUBLE},
+            {"Selfish Sat Runs", ColumnarWriter.INTEGER},
+            {"Selfish Sat", ColumnarWriter.DOUBLE},
+            {"Selfish Sat SD", ColumnarWriter.DOUBLE},
+            {"Selfish Sat CI95", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat Min", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat Lower Quartile", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat Median", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat Upper Quartile", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat 95th Percentile", ColumnarWriter.DOUBLE},
+            {"Selfish Agent Sat Max", ColumnarWriter.DOUBLE}
+    };
+
+    static final String[][] ROUND_SUMMARY_COLUMNS = {
+            {"Day", ColumnarWriter.INTEGER},
+            {"Round", ColumnarWriter.INTEGER},
+            {"Agent Type", ColumnarWriter.INTEGER},
+            {"Runs", ColumnarWriter.INTEGER},
+            {"Satisfaction", ColumnarWriter.DOUBLE},
+            {"Satisfaction SD", ColumnarWriter.DOUBLE},
+            {"Satisfaction CI95", ColumnarWriter.DOUBLE}
+    };
+
+    /**
+     * Getter for the columns of one of the data files written by the simulation runs.
+     *
+     * @param name String representing the name of the data file.
+     * @return String[][] Returns the name and numpy type of each column, or null when the data file is not written by
+     *                    the simulation runs.
+     */
+    static String[][] columns(String name) {
+        switch (name) {
+            case DAILY_DATA:
+                return DAILY_DATA_COLUMNS;
+            case AGENT_DATA:
+                return AGENT_DATA_COLUMNS;
+            case EXCHANGE_DATA:
+                return EXCHANGE_DATA_COLUMNS;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package resource_exchange_arena;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes the rows of one of the data files, one value at a time, in whichever format the data is output in.
+ */
+interface DataWriter extends Closeable {
+    /**
+     * Adds an integer as the next value of the current row.
+     *
+     * @param value The integer to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void value(int value) throws IOException;
+
+    /**
+     * Adds a double as the next value of the current row.
+     *
+     * @param value The double to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void value(double value) throws IOException;
+
+    /**
+     * Ends the current row.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void endRow() throws IOException;
+
+    /**
+     * Waits until everything added so far has been written to the files.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void flush() throws IOException;
+
+    /**
+     * Writes everything added so far and closes the files.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Getter for the files written.
+     *
+     * @return File[] Returns every file the writer writes to.
+     */
+    File[] files();
+}
@@ -1,14 +1,11 @@
 package resource_exchange_arena;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
 
 public class Day {
     // List of all the possible allocations that exist in the current simulation.
-    private final ArrayList<Integer> availableTimeSlots = new ArrayList<>();
+    private final AvailabilityPool availableTimeSlots;
 
     int socPop;
     int selPop;
@@ -23,15 +20,17 @@ public class Day {
     double randomAllocations;
     double optimumAllocations;
 
+    // The number of successful exchanges made over every exchange round of the day.
+    int successfulExchanges;
+
     /**
      * Each Simulation run consists of a number of days, each day consists of requesting and being allocated time-slots,
      * exchanging those slots with other agents, and agents using social learning to learn from their experiences.
      *
-     * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents
-     *                    are split equally between the curves.
-     * @param totalDemandValues Double values represeneting the sum of all values in their associated demand curves.
-     * @param availabilityCurve Integer array representing the amount of energy available at each timeSlot.
-     * @param totalAvailability Integer value representing the total energy available throughout the day.
+     * @param demandSamplers Samplers for the demand curves used by the agents, when multiple curves are used the
+     *                       agents are split equally between the curves.
+     * @param availabilitySampler Sampler for the amount of energy available at each timeSlot.
+     * @param availabilityPool Reused to hold the time-slots available to be allocated each day.
      * @param day Integer value representing the current day being simulated.
      * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
      * @param populationSize Integer value representing the size of the initial agent population.
@@ -42,19 +41,27 @@ public class Day {
      * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the simulation
      *                         begins.
      * @param agents Array List of all the agents that exist in the current simulation.
+     * @param agentRegistry Index of all the agents in the current simulation by their agentID.
      * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
-     * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day.
+     * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day, or null
+     *                              when the day is not recorded.
      * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+     * @param exchangeDataRounds Integer value representing the interval between exchange rounds that are recorded, or 0
+     *                           when no rounds are recorded.
+     * @param runSummary Records the values of the day that are averaged across simulation runs, or null when the
+     *                   summary is not written.
      * @param run Integer value identifying the current simulation run.
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
      * @param β Double value that increases the the chance that agents will change their strategy.
+     * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+     *                     near to requests using the satisfaction curve.
      * @exception IOException On input error.
      * @see IOException
      */
     Day(
-        double[][] demandCurves,
-        double[] totalDemandValues,
-        int [] availabilityCurve,
-        int totalAvailability,
+        AliasSampler[] demandSamplers,
+        AliasSampler availabilitySampler,
+        AvailabilityPool availabilityPool,
         int day,
         ArrayList<Integer> maxExchanges,
         int populationSize,
@@ -63,69 +70,86 @@ public class Day {
         int numberOfAgentsToEvolve,
         ArrayList<Integer> uniqueAgentTypes,
         ArrayList<Agent> agents,
-        FileWriter dailyDataWriter,
-        FileWriter perAgentDataCSVWriter,
-        FileWriter eachRoundDataCSVWriter,
+        AgentRegistry agentRegistry,
+        DataWriter dailyDataWriter,
+        DataWriter perAgentDataCSVWriter,
+        DataWriter eachRoundDataCSVWriter,
+        int exchangeDataRounds,
+        RunSummary runSummary,
         int run,
-        double β
+        SimulationContext context,
+        double β,
+        boolean exactOptimum
     ) throws IOException {
 
-        if(!availableTimeSlots.isEmpty()) {
-            availableTimeSlots.clear();
-        }
+        availableTimeSlots = availabilityPool;
+
+        // Each phase of the day is timed when the simulation is being recorded by the JDK Flight Recorder.
+        DayPhaseEvent phaseEvent = new DayPhaseEvent();
 
         // Fill the available time-slots with all the slots that exist each day.
         int requiredTimeSLots = populationSize * slotsPerAgent;
-
-        for (int i = 1; i <= requiredTimeSLots; i++) {
-            // Get the simulations seeded Random object.
-            Random random = ResourceExchangeArena.random;
-
-            // Selects a time-slot based on the demand curve.
-            int wheelSelector = random.nextInt(totalAvailability);
-            int wheelCalculator = 0;
-            int timeSlot = 0;
-            while (wheelCalculator < wheelSelector) {
-                wheelCalculator = wheelCalculator + (availabilityCurve[timeSlot]);
-                timeSlot++;
-            }
-            availableTimeSlots.add(timeSlot);
-        }
-
+        availableTimeSlots.fill(requiredTimeSLots, availabilitySampler, context);
+        phaseEvent.finish("Availability", run, day, agents.size(), 0, 0);
 
         // Agents start the day by requesting and receiving an allocation of time-slots.
-        Collections.shuffle(agents, ResourceExchangeArena.random);
-        ArrayList<Integer> curves = new ArrayList<>();
+        phaseEvent = new DayPhaseEvent();
+        context.shuffle(agents);
+        int[] curves = new int[agents.size()];
 
         int curve = 0;
-        for (int i = 0; i < agents.size(); i++) {
-            curves.add(curve);
+        for (int i = 0; i < curves.length; i++) {
+            curves[i] = curve;
             curve++;
-            if (curve >= demandCurves.length) {
+            if (curve >= demandSamplers.length) {
                 curve = 0;
             }
         }
-        Collections.shuffle(curves);
+        context.shuffle(curves);
 
+        // A single working store is reused for every Agent's initial allocation, the Agents keep their own copy.
+        TimeSlotStore allocatedTimeSlots = new TimeSlotStore(uniqueTimeSlots, slotsPerAgent);
+        int next = 0;
         for (Agent a : agents) {
             a.resetDailyTracking();
-            int selector = curves.remove(0);
-            ArrayList<Integer> requestedTimeSlots = a.requestTimeSlots(demandCurves[selector], totalDemandValues[selector]);
-            ArrayList<Integer> allocatedTimeSlots = getRandomInitialAllocation(requestedTimeSlots);
+            int selector = curves[next++];
+            TimeSlotStore requestedTimeSlots = a.requestTimeSlots(demandSamplers[selector], context);
+            getRandomInitialAllocation(requestedTimeSlots, allocatedTimeSlots, context);
             a.receiveAllocatedTimeSlots(allocatedTimeSlots);
         }
 
+        // The types of the Agents do not change until the end of the day, so they are counted once for the summary.
+        if (runSummary != null) {
+            runSummary.startDay(agents);
+        }
+        phaseEvent.finish("Request And Allocation", run, day, agents.size(), 0, 0);
+
         // The random and optimum average satisfaction scores are calculated before exchanges take place.
-        randomAllocations = CalculateSatisfaction.averageAgentSatisfaction(agents);
-        optimumAllocations = CalculateSatisfaction.optimumAgentSatisfaction(agents);
+        phaseEvent = new DayPhaseEvent();
+        randomAllocations = new SatisfactionSnapshot(agents).averageSatisfaction();
+        if (exactOptimum) {
+            optimumAllocations = CalculateSatisfaction.exactOptimumAgentSatisfaction(agents, uniqueTimeSlots);
+        } else {
+            optimumAllocations = CalculateSatisfaction.optimumAgentSatisfaction(agents, uniqueTimeSlots);
+        }
+        phaseEvent.finish("Baselines", run, day, agents.size(), 0, 0);
 
         // A pre-determined number of pairwise exchanges take place, during each exchange all agents have a chance to
         // trade with another agent.
+        phaseEvent = new DayPhaseEvent();
         int currentExchanges = 0;
         int timeout = 0;
         int maxTimeout = 10;
 
+        // The advertising board is reused by every exchange round.
+        AdvertisingBoard advertisingBoard = new AdvertisingBoard(agents.size(), uniqueTimeSlots, slotsPerAgent);
+
         while(timeout < maxTimeout) {
+            // Only the rounds being recorded are given the writer, so no other round calculates its data.
+            DataWriter roundDataWriter = null;
+            if (exchangeDataRounds > 0 && currentExchanges % exchangeDataRounds == 0) {
+                roundDataWriter = eachRoundDataCSVWriter;
+            }
 
             /*
              * With each exchange all agents form pairwise exchanges and are able to consider a trade with their
@@ -137,7 +161,13 @@ public class Day {
              * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the
              *                         simulation begins.
              * @param agents Array List of all the agents that exist in the current simulation.
-             * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+             * @param agentRegistry Index of all the agents in the current simulation by their agentID.
+             * @param advertisingBoard Reused to hold the time-slots that Agents may be willing to exchange each round.
+             * @param context The SimulationContext used for all random decisions within the current simulation run.
+             * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round,
+             *                               or null when the round is not recorded.
+             * @param runSummary Records the average satisfaction of each agent type at the end of the round, or null
+             *                   when the summary is not written.
              * @exception IOException On input error.
              * @see IOException
              */ 
@@ -147,9 +177,14 @@ public class Day {
                     currentExchanges,
                     uniqueAgentTypes,
                     agents,
-                    eachRoundDataCSVWriter
+                    agentRegistry,
+                    advertisingBoard,
+                    context,
+                    roundDataWriter,
+                    runSummary
             );
 
+            successfulExchanges += current.successfulExchanges;
             if (current.noExchanges == true) {
                 timeout++;
             } else {
@@ -160,127 +195,77 @@ public class Day {
         }
 
         maxExchanges.add(currentExchanges);
-
-        socPop = 0;
-        selPop = 0;
-
-        for (Agent a : agents) {
-            if (a.getAgentType() == ResourceExchangeArena.SOCIAL) {
-                socPop++;
-            } else if (a.getAgentType() == ResourceExchangeArena.SELFISH) {
-                selPop++;
+        phaseEvent.finish("Exchange Rounds", run, day, agents.size(), currentExchanges, successfulExchanges);
+
+        // The satisfaction of each Agent is taken once, every statistic of the day and the social learning use it.
+        phaseEvent = new DayPhaseEvent();
+        SatisfactionSnapshot satisfactionSnapshot = new SatisfactionSnapshot(agents);
+
+        socPop = satisfactionSnapshot.size(ResourceExchangeArena.SOCIAL);
+        selPop = satisfactionSnapshot.size(ResourceExchangeArena.SELFISH);
+
+        socSat = satisfactionSnapshot.averageSatisfaction(ResourceExchangeArena.SOCIAL);
+        selSat = satisfactionSnapshot.averageSatisfaction(ResourceExchangeArena.SELFISH);
+        socSD = satisfactionSnapshot.satisfactionStandardDeviation(ResourceExchangeArena.SOCIAL);
+        selSD = satisfactionSnapshot.satisfactionStandardDeviation(ResourceExchangeArena.SELFISH);
+
+        socialStatValues = satisfactionSnapshot.statisticalValues(ResourceExchangeArena.SOCIAL);
+        selfishStatValues = satisfactionSnapshot.statisticalValues(ResourceExchangeArena.SELFISH);
+        phaseEvent.finish("Statistics", run, day, agents.size(), currentExchanges, successfulExchanges);
+
+        phaseEvent = new DayPhaseEvent();
+        dailyDataWriter.value(run);
+        dailyDataWriter.value(day);
+        dailyDataWriter.value(socPop);
+        dailyDataWriter.value(selPop);
+        dailyDataWriter.value(socSat);
+        dailyDataWriter.value(selSat);
+        dailyDataWriter.value(socSD);
+        dailyDataWriter.value(selSD);
+        dailyDataWriter.value(socialStatValues[0]);
+        dailyDataWriter.value(selfishStatValues[0]);
+        dailyDataWriter.value(socialStatValues[1]);
+        dailyDataWriter.value(selfishStatValues[1]);
+        dailyDataWriter.value(socialStatValues[2]);
+        dailyDataWriter.value(selfishStatValues[2]);
+        dailyDataWriter.value(socialStatValues[3]);
+        dailyDataWriter.value(selfishStatValues[3]);
+        dailyDataWriter.value(socialStatValues[4]);
+        dailyDataWriter.value(selfishStatValues[4]);
+        dailyDataWriter.value(socialStatValues[5]);
+        dailyDataWriter.value(selfishStatValues[5]);
+        dailyDataWriter.value(randomAllocations);
+        dailyDataWriter.value(optimumAllocations);
+        dailyDataWriter.endRow();
+
+        if (runSummary != null) {
+            runSummary.recordDay(ResourceExchangeArena.SOCIAL, socSat);
+            runSummary.recordDay(ResourceExchangeArena.SELFISH, selSat);
+            for (Agent a : agents) {
+                runSummary.recordAgent(a.getAgentType(), satisfactionSnapshot.getSatisfaction(a.agentID));
             }
+            runSummary.endDay();
         }
 
-        socSat = CalculateSatisfaction.averageAgentSatisfaction(agents, ResourceExchangeArena.SOCIAL);
-        selSat = CalculateSatisfaction.averageAgentSatisfaction(agents, ResourceExchangeArena.SELFISH);
-        socSD = CalculateSatisfaction.averageSatisfactionStandardDeviation(agents, ResourceExchangeArena.SOCIAL);
-        selSD = CalculateSatisfaction.averageSatisfactionStandardDeviation(agents, ResourceExchangeArena.SELFISH);
-
-        socialStatValues = CalculateSatisfaction.statisticalValues(agents, ResourceExchangeArena.SOCIAL);
-        selfishStatValues = CalculateSatisfaction.statisticalValues(agents, ResourceExchangeArena.SELFISH);
-
-        dailyDataWriter.append(String.valueOf(run));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(day));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(socPop));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selPop));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(socSat));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selSat));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socSD));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selSD));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[0]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[0]));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[1]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[1]));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[2]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[2]));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[3]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[3]));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[4]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[4]));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(socialStatValues[5]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(selfishStatValues[5]));
-        dailyDataWriter.append(",");
-        
-        dailyDataWriter.append(String.valueOf(randomAllocations));
-        dailyDataWriter.append(",");
-
-        dailyDataWriter.append(String.valueOf(optimumAllocations));
-        dailyDataWriter.append("\n");
-
-
-        for (Agent a: agents) {
-            perAgentDataCSVWriter.append(String.valueOf(run));
-            perAgentDataCSVWriter.append(",");
-    
-            perAgentDataCSVWriter.append(String.valueOf(day));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getAgentType()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.calculateSatisfaction(null)));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getRejectedReceivedExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getSocialCapitalExchanges() + a.getNoSocialCapitalExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getRejectedRequestedExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getAcceptedRequestedExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getSocialCapitalExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getNoSocialCapitalExchanges()));
-            perAgentDataCSVWriter.append(",");
-
-            perAgentDataCSVWriter.append(String.valueOf(a.getUnspentSocialCapital()));
-            perAgentDataCSVWriter.append("\n");
+
+        // The satisfaction of each Agent is only calculated on days that record it.
+        if (perAgentDataCSVWriter != null) {
+            for (Agent a: agents) {
+                perAgentDataCSVWriter.value(run);
+                perAgentDataCSVWriter.value(day);
+                perAgentDataCSVWriter.value(a.getAgentType());
+                perAgentDataCSVWriter.value(satisfactionSnapshot.getSatisfaction(a.agentID));
+                perAgentDataCSVWriter.value(a.getRejectedReceivedExchanges());
+                perAgentDataCSVWriter.value(a.getSocialCapitalExchanges() + a.getNoSocialCapitalExchanges());
+                perAgentDataCSVWriter.value(a.getRejectedRequestedExchanges());
+                perAgentDataCSVWriter.value(a.getAcceptedRequestedExchanges());
+                perAgentDataCSVWriter.value(a.getSocialCapitalExchanges());
+                perAgentDataCSVWriter.value(a.getNoSocialCapitalExchanges());
+                perAgentDataCSVWriter.value(a.getUnspentSocialCapital());
+                perAgentDataCSVWriter.endRow();
+            }
         }
+        phaseEvent.finish("Output", run, day, agents.size(), currentExchanges, successfulExchanges);
 
         /*
          * To facilitate social learning, for the number of the agents who are able to consider changing their strategy,
@@ -290,12 +275,18 @@ public class Day {
          * proportional to the difference between their individual satisfactions.
          *
          * @param agents Array List of all the agents that exist in the current simulation.
+         * @param agentRegistry Index of all the agents in the current simulation by their agentID.
          * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
          * @param numberOfAgentsToEvolve Integer value representing the number of Agents who's strategy may change at
          *                               the end of each day.
          * @param β Double value that increases the the chance that agents will change their strategy.
+         * @param context The SimulationContext used for all random decisions within the current simulation run.
+         * @param satisfactionSnapshot The satisfaction of each Agent at the end of the day.
          */
-        new SocialLearning(agents, slotsPerAgent, numberOfAgentsToEvolve, β);
+        phaseEvent = new DayPhaseEvent();
+        new SocialLearning(
+                agents, agentRegistry, slotsPerAgent, numberOfAgentsToEvolve, β, context, satisfactionSnapshot);
+        phaseEvent.finish("Social Learning", run, day, agents.size(), currentExchanges, successfulExchanges);
     }
 
     /**
@@ -303,23 +294,19 @@ public class Day {
      * time-slots that are currently available.
      *
      * @param requestedTimeSlots The time-slots that the Agent has requested.
-     * @return ArrayList<Integer> Returns a list of time-slots to allocated to the Agent.
+     * @param timeSlots The store that is filled with the time-slots to be allocated to the Agent.
+     * @param context The SimulationContext used to select the time-slots.
      */
-    private ArrayList<Integer> getRandomInitialAllocation(ArrayList<Integer> requestedTimeSlots) {
-        ArrayList<Integer> timeSlots = new ArrayList<>();
+    private void getRandomInitialAllocation(TimeSlotStore requestedTimeSlots, TimeSlotStore timeSlots, SimulationContext context) {
+        timeSlots.clear();
 
         for (int requestedTimeSlot = 1; requestedTimeSlot <= requestedTimeSlots.size(); requestedTimeSlot++) {
             // Only allocate time-slots if there are slots available to allocate.
             if (!availableTimeSlots.isEmpty()) {
-                int selector = ResourceExchangeArena.random.nextInt(availableTimeSlots.size());
-                int timeSlot = availableTimeSlots.get(selector);
-
-                timeSlots.add(timeSlot);
-                availableTimeSlots.remove(selector);
+                timeSlots.add(availableTimeSlots.take(context));
             } else {
                 System.out.println("Error: No Time-Slots Available");
             }
         }
-        return timeSlots;
     }
 }
@@ -0,0 +1,67 @@
+package resource_exchange_arena;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("resource_exchange_arena.DayPhase")
+@Label("Day Phase")
+@Category("Resource Exchange Arena")
+@Description("A phase of a simulated day.")
+@StackTrace(false)
+class DayPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Simulation Run")
+    int run;
+
+    @Label("Day")
+    int day;
+
+    @Label("Population")
+    int population;
+
+    @Label("Exchange Rounds")
+    @Description("The exchange rounds reached by the day, 0 before the exchange rounds have taken place.")
+    int rounds;
+
+    @Label("Successful Exchanges")
+    @Description("The successful exchanges of the day, 0 before the exchange rounds have taken place.")
+    int successfulExchanges;
+
+    /**
+     * A JDK Flight Recorder event timing a single phase of a day, so that a recording of a simulation shows which
+     * phase takes the time at each population size. The event is begun as the phase starts. When nothing is being
+     * recorded beginning and finishing the event do nothing, and the values of the event are never set.
+     */
+    DayPhaseEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the phase and records it when the event is being recorded.
+     *
+     * @param phase String naming the phase.
+     * @param run Integer value identifying the current simulation run.
+     * @param day Integer value representing the current day being simulated.
+     * @param population Integer value representing the number of Agents taking part.
+     * @param rounds Integer value representing the exchange rounds reached so far that day.
+     * @param successfulExchanges Integer value representing the successful exchanges so far that day.
+     */
+    void finish(String phase, int run, int day, int population, int rounds, int successfulExchanges) {
+        end();
+        if (shouldCommit()) {
+            this.phase = phase;
+            this.run = run;
+            this.day = day;
+            this.population = population;
+            this.rounds = rounds;
+            this.successfulExchanges = successfulExchanges;
+            commit();
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package resource_exchange_arena;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 
 class Exchange {
     /**
@@ -16,12 +14,21 @@ class Exchange {
      * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the
      *                         simulation begins.
      * @param agents Array List of all the agents that exist in the current simulation.
-     * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+     * @param agentRegistry Index of all the agents in the current simulation by their agentID.
+     * @param advertisingBoard Reused to hold the time-slots that Agents may be willing to exchange each round.
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
+     * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round, or
+     *                               null when the round is not recorded.
+     * @param runSummary Records the average satisfaction of each agent type at the end of the round, or null when
+     *                   the summary is not written.
      * @exception IOException On input error.
      * @see IOException
      */
 
     Boolean noExchanges = false;
+
+    // The number of exchanges completed during the round.
+    int successfulExchanges = 0;
     
     Exchange(
         int run,
@@ -29,10 +36,16 @@ class Exchange {
             int exchange,
             ArrayList<Integer> uniqueAgentTypes,
             ArrayList<Agent> agents,
-            FileWriter eachRoundDataCSVWriter
+            AgentRegistry agentRegistry,
+            AdvertisingBoard advertisingBoard,
+            SimulationContext context,
+            DataWriter eachRoundDataCSVWriter,
+            RunSummary runSummary
     ) throws IOException {
 
-        ArrayList<ArrayList<Integer>> advertisingBoard = new ArrayList<>();
+        // Each phase of the round is timed when the simulation is being recorded by the JDK Flight Recorder.
+        ExchangePhaseEvent phaseEvent = new ExchangePhaseEvent();
+        advertisingBoard.clear();
 
         // Reset the check for whether each Agent has made an interaction this round.
         for (Agent a : agents) {
@@ -40,122 +53,111 @@ class Exchange {
         }
 
         // Exchanges start by Agents advertising time-slots they may be willing to exchange.
-        Collections.shuffle(agents, ResourceExchangeArena.random);
+        context.shuffle(agents);
         for (Agent a : agents) {
-            ArrayList<Integer> unlockedTimeSlots = a.publishUnlockedTimeSlots();
+            TimeSlotStore unlockedTimeSlots = a.publishUnlockedTimeSlots();
             if (!unlockedTimeSlots.isEmpty()) {
-                ArrayList<Integer> advert = new ArrayList<>();
-                advert.add(a.agentID);
-                advert.addAll(unlockedTimeSlots);
-                advertisingBoard.add(advert);
+                advertisingBoard.advertise(a.agentID, unlockedTimeSlots);
             }
         }
+        advertisingBoard.indexAdverts();
+        phaseEvent.finish("Advertise", run, day, exchange, agents.size(), 0);
 
         // Each Agent has the opportunity to make exchange requests for advertised time-slots.
-        Collections.shuffle(agents, ResourceExchangeArena.random);
+        phaseEvent = new ExchangePhaseEvent();
+        context.shuffle(agents);
         for (Agent a : agents) {
             if (!a.madeInteraction()) {
-                ArrayList<Integer> chosenAdvert = a.requestExchange(advertisingBoard);
+                int[] chosenAdvert = a.requestExchange(advertisingBoard, context);
                 a.setMadeInteraction(true);
-                if (!chosenAdvert.isEmpty()) {
+                if (chosenAdvert != null) {
                     // Select an unwanted time-slot to offer in the exchange.
-                    ArrayList<Integer> unwantedTimeSlots = a.publishUnlockedTimeSlots();
+                    TimeSlotStore unwantedTimeSlots = a.publishUnlockedTimeSlots();
                     int unwantedTimeSlot = unwantedTimeSlots.get(0); // Get the least wanted time-slot.
 
-                    ArrayList<Integer> request = new ArrayList<>();
-                    request.add(a.agentID);
-                    request.add(chosenAdvert.get(1));
-                    request.add(unwantedTimeSlot);
+                    // The final element is filled with the requesting Agent's type when the request is received.
+                    int[] request = {a.agentID, chosenAdvert[1], unwantedTimeSlot, 0};
 
                     // The agent who offered the requested time-slot receives the exchange request.
-                    for (Agent b : agents) {
-                        if (b.agentID == chosenAdvert.get(0)) {
-                            if (b.madeInteraction() == false) {
-                                b.receiveExchangeRequest(request, a.getAgentType());
-                                b.setMadeInteraction(true);
-                                break;
-                            }
-                        }
+                    Agent b = agentRegistry.get(chosenAdvert[0]);
+                    if (b.madeInteraction() == false) {
+                        b.receiveExchangeRequest(request, a.getAgentType());
+                        b.setMadeInteraction(true);
                     }
                 }
             }
         }
+        phaseEvent.finish("Request", run, day, exchange, agents.size(), 0);
 
         // Agents who have received a request consider it.
-        Collections.shuffle(agents, ResourceExchangeArena.random);
+        phaseEvent = new ExchangePhaseEvent();
+        context.shuffle(agents);
         for (Agent a : agents) {
-            if (!a.getExchangeRequestReceived().isEmpty()) {
+            if (a.getExchangeRequestReceived() != null) {
                 boolean accepted = a.considerRequest();
                 if (!accepted) {
-                    for (Agent b : agents) {
-                        if (b.agentID == a.getExchangeRequest().get(0)) {
-                            b.requestRejected();
-                            break;
-                        }
-                    }
+                    agentRegistry.get(a.getExchangeRequest()[0]).requestRejected();
                 }
             }
         }
-
-
-        int successfullExchanges = 0;
+        phaseEvent.finish("Consider", run, day, exchange, agents.size(), 0);
 
         // Agents confirm and complete approved requests if they are able to do so, and update their relations with
         // other Agents accordingly.
-        Collections.shuffle(agents, ResourceExchangeArena.random);
+        phaseEvent = new ExchangePhaseEvent();
+        context.shuffle(agents);
         for (Agent a : agents) {
             if (a.getExchangeRequestApproved()) {
-                ArrayList<Integer> offer = a.getExchangeRequestReceived();
-                if (a.finalCheck(offer.get(1))) {
-                    for (Agent b : agents) {
-                        if (b.agentID == offer.get(0)) {
-                            if (b.finalCheck(offer.get(2))) {
-                                boolean scgain = b.completeRequestedExchange(offer, a.agentID, a.getAgentType());
-                                boolean scloss = a.completeReceivedExchange(offer, b.getAgentType());
-                                if (scgain) {
-                                    a.gainedSocialCapital();
-                                }
-                                if (scloss) {
-                                    b.lostSocialCapital();
-                                }
-                                successfullExchanges++;
-                            }
-                            break;
+                int[] offer = a.getExchangeRequestReceived();
+                if (a.finalCheck(offer[1])) {
+                    Agent b = agentRegistry.get(offer[0]);
+                    if (b.finalCheck(offer[2])) {
+                        boolean scgain = b.completeRequestedExchange(offer, a.agentID, a.getAgentType());
+                        boolean scloss = a.completeReceivedExchange(offer, b.getAgentType());
+                        if (scgain) {
+                            a.gainedSocialCapital();
+                        }
+                        if (scloss) {
+                            b.lostSocialCapital();
                         }
+                        successfulExchanges++;
                     }
                 }
                 a.setExchangeRequestApproved(false);
             }
             // Clear the agents accepted offers list before the next exchange round.
-            if (!a.getExchangeRequestReceived().isEmpty()) {
+            if (a.getExchangeRequestReceived() != null) {
                 a.setExchangeRequestReceived();
             }
         }
+        phaseEvent.finish("Complete", run, day, exchange, agents.size(), successfulExchanges);
 
-        if (successfullExchanges == 0) {
+        if (successfulExchanges == 0) {
             noExchanges = true;
         }
 
         // The average end of round satisfaction is stored for each Agent type.
         // This data can later be averaged over simulation runs and added to the individual data file.
-        for (int uniqueAgentType : uniqueAgentTypes) {
-            double averageSatisfactionForType = CalculateSatisfaction.averageAgentSatisfaction(agents, uniqueAgentType);
-
-            eachRoundDataCSVWriter.append(String.valueOf(run));
-            eachRoundDataCSVWriter.append(",");
-            
-            eachRoundDataCSVWriter.append(String.valueOf(day));
-            eachRoundDataCSVWriter.append(",");
-            
-            eachRoundDataCSVWriter.append(String.valueOf(exchange));
-            eachRoundDataCSVWriter.append(",");
-            
-            eachRoundDataCSVWriter.append(String.valueOf(uniqueAgentType));
-            eachRoundDataCSVWriter.append(",");
-
-            eachRoundDataCSVWriter.append(String.valueOf(averageSatisfactionForType));
-            eachRoundDataCSVWriter.append("\n");
+        // The averages are only calculated for rounds that are recorded or summarised.
+        if (eachRoundDataCSVWriter != null || runSummary != null) {
+            phaseEvent = new ExchangePhaseEvent();
+            SatisfactionSnapshot satisfactionSnapshot = new SatisfactionSnapshot(agents);
+            for (int uniqueAgentType : uniqueAgentTypes) {
+                double averageSatisfactionForType = satisfactionSnapshot.averageSatisfaction(uniqueAgentType);
+
+                if (eachRoundDataCSVWriter != null) {
+                    eachRoundDataCSVWriter.value(run);
+                    eachRoundDataCSVWriter.value(day);
+                    eachRoundDataCSVWriter.value(exchange);
+                    eachRoundDataCSVWriter.value(uniqueAgentType);
+                    eachRoundDataCSVWriter.value(averageSatisfactionForType);
+                    eachRoundDataCSVWriter.endRow();
+                }
+                if (runSummary != null) {
+                    runSummary.recordRound(exchange, uniqueAgentType, averageSatisfactionForType);
+                }
+            }
+            phaseEvent.finish("Output", run, day, exchange, agents.size(), successfulExchanges);
         }
-
     }
 }
@@ -0,0 +1,66 @@
+package resource_exchange_arena;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("resource_exchange_arena.ExchangePhase")
+@Label("Exchange Phase")
+@Category("Resource Exchange Arena")
+@Description("A phase of an exchange round.")
+@StackTrace(false)
+class ExchangePhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Simulation Run")
+    int run;
+
+    @Label("Day")
+    int day;
+
+    @Label("Exchange Round")
+    int round;
+
+    @Label("Population")
+    int population;
+
+    @Label("Successful Exchanges")
+    @Description("The successful exchanges of the round, 0 before the exchanges have been completed.")
+    int successfulExchanges;
+
+    /**
+     * A JDK Flight Recorder event timing a single phase of an exchange round. The event is begun as the phase starts.
+     * When nothing is being recorded beginning and finishing the event do nothing, and the values of the event are
+     * never set.
+     */
+    ExchangePhaseEvent() {
+        begin();
+    }
+
+    /**
+     * Ends the phase and records it when the event is being recorded.
+     *
+     * @param phase String naming the phase.
+     * @param run Integer value identifying the current simulation run.
+     * @param day Integer value representing the current day being simulated.
+     * @param round Integer value representing the current exchange round.
+     * @param population Integer value representing the number of Agents taking part.
+     * @param successfulExchanges Integer value representing the successful exchanges so far that round.
+     */
+    void finish(String phase, int run, int day, int round, int population, int successfulExchanges) {
+        end();
+        if (shouldCommit()) {
+            this.phase = phase;
+            this.run = run;
+            this.day = day;
+            this.round = round;
+            this.population = population;
+            this.successfulExchanges = successfulExchanges;
+            commit();
+        }
+    }
+}
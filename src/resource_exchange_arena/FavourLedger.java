@@ -0,0 +1,305 @@
+package resource_exchange_arena;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+class FavourLedger {
+    // Populations up to this size store every relation in dense arrays, larger populations only store the relations
+    // that have had a favour recorded as most pairs of Agents never interact.
+    static final int DENSE_POPULATION_LIMIT = 2048;
+
+    private final int populationSize;
+    private final boolean dense;
+
+    // Dense storage, the relation between two Agents is found at [(agentID - 1) * populationSize + (otherID - 1)].
+    private final int[] denseFavoursOwed;
+    private final int[] denseFavoursGiven;
+
+    // Sparse storage, keyed in the same way as the dense arrays.
+    private final FavourCounts sparseFavoursOwed;
+    private final FavourCounts sparseFavoursGiven;
+
+    /**
+     * Stores the favours that every Agent in a simulation run owes to, and has given to, each other Agent. Initially
+     * no favours are owed or have been given between any Agents.
+     *
+     * @param populationSize Integer value representing the size of the agent population, agentIDs must fall between 1
+     *                       and this value.
+     */
+    FavourLedger(int populationSize) {
+        this.populationSize = populationSize;
+        dense = populationSize <= DENSE_POPULATION_LIMIT;
+
+        if (dense) {
+            denseFavoursOwed = new int[populationSize * populationSize];
+            denseFavoursGiven = new int[populationSize * populationSize];
+            sparseFavoursOwed = null;
+            sparseFavoursGiven = null;
+        } else {
+            denseFavoursOwed = null;
+            denseFavoursGiven = null;
+            sparseFavoursOwed = new FavourCounts(populationSize);
+            sparseFavoursGiven = new FavourCounts(populationSize);
+        }
+    }
+
+    /**
+     * Getter for the number of favours an Agent owes another Agent.
+     *
+     * @param agentID The agentID of the Agent who owes the favours.
+     * @param otherAgentID The agentID of the Agent who is owed the favours.
+     * @return int Returns the number of favours owed.
+     */
+    int getFavoursOwed(int agentID, int otherAgentID) {
+        if (dense) {
+            return denseFavoursOwed[denseIndex(agentID, otherAgentID)];
+        }
+        return sparseFavoursOwed.get(relation(agentID, otherAgentID));
+    }
+
+    /**
+     * Getter for the number of favours an Agent has given to another Agent.
+     *
+     * @param agentID The agentID of the Agent who gave the favours.
+     * @param otherAgentID The agentID of the Agent who received the favours.
+     * @return int Returns the number of favours given.
+     */
+    int getFavoursGiven(int agentID, int otherAgentID) {
+        if (dense) {
+            return denseFavoursGiven[denseIndex(agentID, otherAgentID)];
+        }
+        return sparseFavoursGiven.get(relation(agentID, otherAgentID));
+    }
+
+    /**
+     * Records that an Agent owes another Agent one more favour.
+     *
+     * @param agentID The agentID of the Agent who owes the favour.
+     * @param otherAgentID The agentID of the Agent who is owed the favour.
+     */
+    void addFavourOwed(int agentID, int otherAgentID) {
+        if (dense) {
+            denseFavoursOwed[denseIndex(agentID, otherAgentID)]++;
+        } else {
+            sparseFavoursOwed.increment(relation(agentID, otherAgentID));
+        }
+    }
+
+    /**
+     * Records that an Agent has given another Agent one more favour.
+     *
+     * @param agentID The agentID of the Agent who gave the favour.
+     * @param otherAgentID The agentID of the Agent who received the favour.
+     */
+    void addFavourGiven(int agentID, int otherAgentID) {
+        if (dense) {
+            denseFavoursGiven[denseIndex(agentID, otherAgentID)]++;
+        } else {
+            sparseFavoursGiven.increment(relation(agentID, otherAgentID));
+        }
+    }
+
+    /**
+     * Writes every relation that has had a favour recorded, used to checkpoint the simulation run. The favours owed
+     * are written first followed by the favours given, each as the number of relations and then each relation with its
+     * favour count.
+     *
+     * @param out The stream to write to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void write(DataOutputStream out) throws IOException {
+        if (dense) {
+            writeDense(out, denseFavoursOwed);
+            writeDense(out, denseFavoursGiven);
+        } else {
+            sparseFavoursOwed.write(out);
+            sparseFavoursGiven.write(out);
+        }
+    }
+
+    /**
+     * Restores the favours written by write into an empty ledger, used to resume the simulation run from a
+     * checkpoint.
+     *
+     * @param in The stream to read from.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void read(DataInputStream in) throws IOException {
+        for (int store = 0; store < 2; store++) {
+            int relations = in.readInt();
+            for (int i = 0; i < relations; i++) {
+                long relation = in.readLong();
+                int favours = in.readInt();
+                if (dense) {
+                    int[] favourCounts = store == 0 ? denseFavoursOwed : denseFavoursGiven;
+                    favourCounts[(int) relation] = favours;
+                } else {
+                    FavourCounts favourCounts = store == 0 ? sparseFavoursOwed : sparseFavoursGiven;
+                    favourCounts.add(relation, favours);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the relations of a dense array that have had a favour recorded.
+     *
+     * @param out The stream to write to.
+     * @param favourCounts The dense array to write.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private static void writeDense(DataOutputStream out, int[] favourCounts) throws IOException {
+        int relations = 0;
+        for (int favours : favourCounts) {
+            if (favours != 0) {
+                relations++;
+            }
+        }
+        out.writeInt(relations);
+        for (int i = 0; i < favourCounts.length; i++) {
+            if (favourCounts[i] != 0) {
+                out.writeLong(i);
+                out.writeInt(favourCounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Converts a pair of agentIDs into the position of their relation within the ledger.
+     *
+     * @param agentID The agentID of the Agent whose relation is being found.
+     * @param otherAgentID The agentID of the other Agent in the relation.
+     * @return long Returns the position of the relation.
+     */
+    private long relation(int agentID, int otherAgentID) {
+        return (long) (agentID - 1) * populationSize + (otherAgentID - 1);
+    }
+
+    /**
+     * Converts a pair of agentIDs into the position of their relation within the dense arrays.
+     *
+     * @param agentID The agentID of the Agent whose relation is being found.
+     * @param otherAgentID The agentID of the other Agent in the relation.
+     * @return int Returns the position of the relation.
+     */
+    private int denseIndex(int agentID, int otherAgentID) {
+        return (agentID - 1) * populationSize + (otherAgentID - 1);
+    }
+
+    private static class FavourCounts {
+        // Open addressing hash table of relation keys to favour counts, keys are stored offset by one so that zero
+        // marks an empty entry.
+        private long[] keys;
+        private int[] counts;
+        private int size;
+
+        /**
+         * Stores favour counts for the relations that have been used.
+         *
+         * @param populationSize Integer value used to size the initial table, roughly one relation per Agent.
+         */
+        FavourCounts(int populationSize) {
+            int capacity = Integer.highestOneBit(Math.max(populationSize, 8)) << 2;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            size = 0;
+        }
+
+        /**
+         * Getter for the favour count of a relation.
+         *
+         * @param relation The relation to look up.
+         * @return int Returns the favour count, 0 if no favours have been recorded.
+         */
+        int get(long relation) {
+            int index = find(keys, relation);
+            return keys[index] == 0 ? 0 : counts[index];
+        }
+
+        /**
+         * Increases the favour count of a relation by 1.
+         *
+         * @param relation The relation to update.
+         */
+        void increment(long relation) {
+            add(relation, 1);
+        }
+
+        /**
+         * Increases the favour count of a relation.
+         *
+         * @param relation The relation to update.
+         * @param favours The number of favours to add.
+         */
+        void add(long relation, int favours) {
+            int index = find(keys, relation);
+            if (keys[index] == 0) {
+                // Keep the table at most half full so that searches remain short.
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    index = find(keys, relation);
+                }
+                keys[index] = relation + 1;
+                size++;
+            }
+            counts[index] += favours;
+        }
+
+        /**
+         * Writes the number of relations stored followed by each relation with its favour count.
+         *
+         * @param out The stream to write to.
+         * @exception IOException On output error.
+         * @see IOException
+         */
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    out.writeLong(keys[i] - 1);
+                    out.writeInt(counts[i]);
+                }
+            }
+        }
+
+        /**
+         * Doubles the size of the table, moving each stored relation into its new position.
+         */
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldCounts.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = find(keys, oldKeys[i] - 1);
+                    keys[index] = oldKeys[i];
+                    counts[index] = oldCounts[i];
+                }
+            }
+        }
+
+        /**
+         * Finds the position of a relation in a table, or the empty position where it would be stored.
+         *
+         * @param table The keys of the table to search.
+         * @param relation The relation to find.
+         * @return int Returns the position of the relation.
+         */
+        private static int find(long[] table, long relation) {
+            long key = relation + 1;
+            int mask = table.length - 1;
+            // Mix the bits of the key so that neighbouring relations are spread across the table.
+            long hash = key * 0x9E3779B97F4A7C15L;
+            int index = (int) (hash ^ (hash >>> 32)) & mask;
+            while (table[index] != 0 && table[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+}
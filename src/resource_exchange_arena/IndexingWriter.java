@@ -0,0 +1,145 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+class IndexingWriter implements DataWriter {
+    private final DataWriter writer;
+    private final CsvWriter csvWriter;
+
+    // The byte offset of the simulation run in the csv file, and the mark of where the run began among the csv bytes.
+    private final long runOffset;
+    private final int startMark;
+
+    // The day, first row and first csv byte of each day written, counted from the start of the simulation run. Until
+    // the simulation run is complete the first csv byte is held as the mark of where the day began.
+    private final ArrayList<long[]> days = new ArrayList<>();
+
+    // The number of csv bytes added by the simulation run, known once the run is complete.
+    private long bytes;
+
+    // The number of rows ended, the column the next value belongs to and the day of the current row.
+    private long rows;
+    private int column;
+    private long day = -1;
+
+    /**
+     * Records where each day of a simulation run begins as its rows are added to a data file of the environment, so
+     * that the data files can be indexed by run and day without reading them back. Every data file begins each row
+     * with the simulation run followed by the day, and the rows of each day of a run follow one another. The data file
+     * is flushed first, so that when compressed the run begins a new gzip member at a known offset.
+     *
+     * @param writer The writer of the data file, which the simulation run is the next to be added to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    IndexingWriter(DataWriter writer) throws IOException {
+        this.writer = writer;
+        csvWriter = CsvWriter.of(writer);
+
+        writer.flush();
+        runOffset = csvWriter == null ? -1 : csvWriter.files()[0].length();
+        startMark = csvWriter == null ? -1 : csvWriter.mark();
+    }
+
+    /**
+     * Finds where each day of the simulation run began among the csv bytes, once every row of the run has been added.
+     * The csv bytes are only formatted by the writer thread of the csv file, so the csv file is flushed first.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void complete() throws IOException {
+        if (csvWriter == null) {
+            return;
+        }
+        int endMark = csvWriter.mark();
+        csvWriter.flush();
+        long start = csvWriter.getOffset(startMark);
+        for (long[] started : days) {
+            started[2] = csvWriter.getOffset((int) started[2]) - start;
+        }
+        bytes = csvWriter.getOffset(endMark) - start;
+    }
+
+    /**
+     * Getter for the byte offset of the simulation run in the csv file.
+     *
+     * @return long Returns the length of the csv file when the run began, or -1 when the data file is not written as
+     *              csv.
+     */
+    long getRunOffset() {
+        return runOffset;
+    }
+
+    /**
+     * Getter for the number of csv bytes added by the simulation run, before compression, once it is complete.
+     *
+     * @return long Returns the bytes added, or 0 when the data file is not written as csv.
+     */
+    long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Getter for the number of rows added by the simulation run.
+     *
+     * @return long Returns the rows added.
+     */
+    long getRows() {
+        return rows;
+    }
+
+    /**
+     * Getter for where each day begins.
+     *
+     * @return ArrayList Returns the day, the first row and the first csv byte of each day, counted from the start of
+     *                   the simulation run, in the order the days were written. The first csv byte is only known
+     *                   once the run is complete.
+     */
+    ArrayList<long[]> getDays() {
+        return days;
+    }
+
+    @Override
+    public void value(int value) throws IOException {
+        if (column == 1 && value != day) {
+            day = value;
+            days.add(new long[] {value, rows, csvWriter == null ? 0 : csvWriter.mark()});
+        }
+        writer.value(value);
+        column++;
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        writer.value(value);
+        column++;
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        writer.endRow();
+        rows++;
+        column = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Ends the rows of the simulation run. The data file is left open for the runs that follow, and is closed by the
+     * environment.
+     */
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public File[] files() {
+        return writer.files();
+    }
+}
@@ -0,0 +1,393 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+class OptimumAllocation {
+    // Residual graph stored as arrays of arcs, each arc is followed directly by its reverse arc.
+    private int[] arcHeads = new int[64];
+    private int[] arcNext = new int[64];
+    private int[] arcCapacities = new int[64];
+    private double[] arcCosts = new double[64];
+    private int arcs = 0;
+    private final int[] firstArc;
+
+    private final int nodes;
+    private final int source;
+    private final int sink;
+
+    // Arcs whose reduced cost is within this distance of 0 lie on a shortest path.
+    private static final double EPSILON = 1e-9;
+
+    // Working arrays for finding shortest paths.
+    private final double[] potentials;
+    private final double[] distances;
+    private final boolean[] visited;
+    private int[] heapNodes = new int[0];
+    private double[] heapDistances = new double[0];
+
+    // Working arrays for sending flow along the shortest paths.
+    private final int[] levels;
+    private final int[] currentArc;
+    private final int[] queue;
+    private double totalCost = 0;
+
+    /**
+     * Finds the highest average satisfaction that could be reached by redistributing the time-slots currently
+     * allocated to the Agents, using the full satisfaction model so that time-slots close to a request also count
+     * towards the optimum.
+     *
+     * The time-slots are passed from each time-slot to the Agents as a min-cost flow. Agents with the same requests
+     * value time-slots in the same way, so they are grouped into a single node with a matching capacity.
+     *
+     * @param agents Array List of all the agents that exist in the current simulation.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     * @return Double Returns the highest possible average satisfaction between 0 and 1 of all agents in the simulation.
+     */
+    static double averageSatisfaction(ArrayList<Agent> agents, int uniqueTimeSlots) {
+        // Group the Agents by their requests, each group keeps an example Agent and its number of members.
+        HashMap<List<Integer>, Integer> groupIndexes = new HashMap<>();
+        ArrayList<Agent> groupAgents = new ArrayList<>();
+        ArrayList<Integer> groupSizes = new ArrayList<>();
+        int[] supply = new int[uniqueTimeSlots + 1];
+        int totalSupply = 0;
+
+        for (Agent a : agents) {
+            TimeSlotStore requestedTimeSlots = a.publishRequestedTimeSlots();
+            List<Integer> key = new ArrayList<>();
+            key.add(a.numberOfTimeSlotsWanted());
+            for (int t = 0; t <= uniqueTimeSlots; t++) {
+                key.add(requestedTimeSlots.count(t));
+            }
+            Integer group = groupIndexes.get(key);
+            if (group == null) {
+                groupIndexes.put(key, groupAgents.size());
+                groupAgents.add(a);
+                groupSizes.add(1);
+            } else {
+                groupSizes.set(group, groupSizes.get(group) + 1);
+            }
+
+            TimeSlotStore allocatedTimeSlots = a.publishAllocatedTimeSlots();
+            for (int i = 0; i < allocatedTimeSlots.size(); i++) {
+                supply[allocatedTimeSlots.get(i)]++;
+                totalSupply++;
+            }
+        }
+        if (agents.isEmpty()) {
+            return 0.0;
+        }
+
+        OptimumAllocation flow = new OptimumAllocation(uniqueTimeSlots + groupAgents.size() + 4);
+        int unvalued = uniqueTimeSlots + 1;
+        int firstGroup = uniqueTimeSlots + 2;
+
+        for (int t = 0; t <= uniqueTimeSlots; t++) {
+            flow.addArc(flow.source, t, supply[t], 0);
+            // Time-slots can always be given to an Agent that gains nothing from them.
+            flow.addArc(t, unvalued, totalSupply, 0);
+        }
+        for (int g = 0; g < groupAgents.size(); g++) {
+            Agent a = groupAgents.get(g);
+            int members = groupSizes.get(g);
+            int wanted = a.numberOfTimeSlotsWanted();
+            TimeSlotStore requestedTimeSlots = a.publishRequestedTimeSlots();
+
+            for (int t = 0; t <= uniqueTimeSlots; t++) {
+                int requested = requestedTimeSlots.count(t);
+                if (requested > 0) {
+                    flow.addArc(t, firstGroup + g, requested * members, -1.0 / wanted);
+                }
+                double unrequestedValue = a.unrequestedTimeSlotValue(t);
+                if (unrequestedValue > 0) {
+                    flow.addArc(t, firstGroup + g, totalSupply, -unrequestedValue / wanted);
+                }
+            }
+            flow.addArc(unvalued, firstGroup + g, totalSupply, 0);
+            flow.addArc(firstGroup + g, flow.sink, wanted * members, 0);
+        }
+
+        double totalSatisfaction = -flow.minimumCost(totalSupply, firstGroup);
+        return totalSatisfaction / agents.size();
+    }
+
+    /**
+     * Creates an empty flow network, the last two nodes are used as the source and the sink.
+     *
+     * @param nodes Integer value representing the number of nodes in the network.
+     */
+    private OptimumAllocation(int nodes) {
+        this.nodes = nodes;
+        source = nodes - 2;
+        sink = nodes - 1;
+        firstArc = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            firstArc[i] = -1;
+        }
+        potentials = new double[nodes];
+        distances = new double[nodes];
+        visited = new boolean[nodes];
+        levels = new int[nodes];
+        currentArc = new int[nodes];
+        queue = new int[nodes];
+    }
+
+    /**
+     * Adds an arc and its reverse arc to the network.
+     *
+     * @param from The node the arc leaves.
+     * @param to The node the arc enters.
+     * @param capacity The most flow the arc can carry.
+     * @param cost The cost of each unit of flow along the arc.
+     */
+    private void addArc(int from, int to, int capacity, double cost) {
+        if (arcs + 2 > arcHeads.length) {
+            int length = arcHeads.length * 2;
+            arcHeads = Arrays.copyOf(arcHeads, length);
+            arcNext = Arrays.copyOf(arcNext, length);
+            arcCapacities = Arrays.copyOf(arcCapacities, length);
+            arcCosts = Arrays.copyOf(arcCosts, length);
+        }
+        arcHeads[arcs] = to;
+        arcCapacities[arcs] = capacity;
+        arcCosts[arcs] = cost;
+        arcNext[arcs] = firstArc[from];
+        firstArc[from] = arcs;
+        arcs++;
+
+        arcHeads[arcs] = from;
+        arcCapacities[arcs] = 0;
+        arcCosts[arcs] = -cost;
+        arcNext[arcs] = firstArc[to];
+        firstArc[to] = arcs;
+        arcs++;
+    }
+
+    /**
+     * Sends the given amount of flow from the source to the sink at the lowest total cost using successive shortest
+     * paths. Only the arcs into the Agent groups have a cost, so the starting potentials are found directly from the
+     * layout of the network. After that, Dijkstra's algorithm on the reduced costs finds the length of the shortest
+     * path, and as much flow as possible is sent along every path of that length before searching again.
+     *
+     * @param amount The amount of flow to send.
+     * @param firstGroup The first node representing a group of Agents, all later nodes except the source and sink
+     *                   are also groups.
+     * @return double Returns the total cost of the flow.
+     */
+    private double minimumCost(int amount, int firstGroup) {
+        // Time-slot nodes and the unvalued node have a potential of 0, a group's potential is its cheapest arc in and
+        // the sink's is the cheapest group.
+        double cheapestGroup = 0;
+        for (int g = firstGroup; g < source; g++) {
+            double cheapest = 0;
+            for (int arc = firstArc[g]; arc != -1; arc = arcNext[arc]) {
+                // The reverse arcs into the group hold the negated cost of the arcs into it.
+                if (arcHeads[arc] != sink) {
+                    cheapest = Math.min(cheapest, -arcCosts[arc]);
+                }
+            }
+            potentials[g] = cheapest;
+            cheapestGroup = Math.min(cheapestGroup, cheapest);
+        }
+        potentials[sink] = cheapestGroup;
+
+        int sent = 0;
+        while (sent < amount) {
+            if (!shortestPaths()) {
+                System.out.println("Error: Optimum Allocation Could Not Be Completed");
+                break;
+            }
+
+            while (sent < amount && levelShortestArcs()) {
+                for (int i = 0; i < nodes; i++) {
+                    currentArc[i] = firstArc[i];
+                }
+                int pushed = pushFlow(source, amount - sent);
+                while (pushed > 0) {
+                    sent += pushed;
+                    pushed = sent < amount ? pushFlow(source, amount - sent) : 0;
+                }
+            }
+        }
+        return totalCost;
+    }
+
+    /**
+     * Checks whether an arc with spare capacity lies on a shortest path.
+     *
+     * @param arc The arc to check.
+     * @param from The node the arc leaves.
+     * @return boolean Returns whether flow can be sent along the arc.
+     */
+    private boolean onShortestPath(int arc, int from) {
+        return arcCapacities[arc] > 0
+                && Math.abs(arcCosts[arc] + potentials[from] - potentials[arcHeads[arc]]) < EPSILON;
+    }
+
+    /**
+     * Labels each node with the fewest arcs needed to reach it from the source, only using arcs that lie on a
+     * shortest path, so that flow is always sent further from the source.
+     *
+     * @return boolean Returns whether the sink could be reached.
+     */
+    private boolean levelShortestArcs() {
+        for (int i = 0; i < nodes; i++) {
+            levels[i] = -1;
+        }
+        levels[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int node = queue[head];
+            head++;
+            for (int arc = firstArc[node]; arc != -1; arc = arcNext[arc]) {
+                int next = arcHeads[arc];
+                if (levels[next] == -1 && onShortestPath(arc, node)) {
+                    levels[next] = levels[node] + 1;
+                    queue[tail] = next;
+                    tail++;
+                }
+            }
+        }
+        return levels[sink] != -1;
+    }
+
+    /**
+     * Sends flow from a node towards the sink along a single path of labelled arcs that lie on a shortest path. Arcs
+     * that can no longer carry flow are skipped on later calls until the nodes are labelled again.
+     *
+     * @param node The node to send flow from.
+     * @param limit The most flow to send.
+     * @return int Returns the amount of flow sent, 0 if no path could be found.
+     */
+    private int pushFlow(int node, int limit) {
+        if (node == sink) {
+            return limit;
+        }
+        for (; currentArc[node] != -1; currentArc[node] = arcNext[currentArc[node]]) {
+            int arc = currentArc[node];
+            int next = arcHeads[arc];
+            if (levels[next] == levels[node] + 1 && onShortestPath(arc, node)) {
+                int pushed = pushFlow(next, Math.min(limit, arcCapacities[arc]));
+                if (pushed > 0) {
+                    arcCapacities[arc] -= pushed;
+                    arcCapacities[arc ^ 1] += pushed;
+                    totalCost += pushed * arcCosts[arc];
+                    return pushed;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the shortest path from the source to every node using the reduced costs, then updates the potentials so
+     * that the reduced costs remain non-negative.
+     *
+     * @return boolean Returns whether the sink could be reached.
+     */
+    private boolean shortestPaths() {
+        // Each arc can add at most one entry to the heap.
+        if (heapNodes.length < arcs + 1) {
+            heapNodes = new int[arcs + 1];
+            heapDistances = new double[arcs + 1];
+        }
+        for (int i = 0; i < nodes; i++) {
+            distances[i] = Double.POSITIVE_INFINITY;
+            visited[i] = false;
+        }
+        distances[source] = 0;
+        int heapSize = push(0, source, 0);
+
+        while (heapSize > 0) {
+            int node = heapNodes[0];
+            double distance = heapDistances[0];
+            heapSize = pop(heapSize);
+            if (visited[node] || distance > distances[node]) {
+                continue;
+            }
+            visited[node] = true;
+
+            for (int arc = firstArc[node]; arc != -1; arc = arcNext[arc]) {
+                int next = arcHeads[arc];
+                if (arcCapacities[arc] == 0 || visited[next]) {
+                    continue;
+                }
+                // Rounding errors can leave reduced costs very slightly below 0.
+                double reducedCost = Math.max(arcCosts[arc] + potentials[node] - potentials[next], 0);
+                if (distance + reducedCost < distances[next]) {
+                    distances[next] = distance + reducedCost;
+                    heapSize = push(heapSize, next, distances[next]);
+                }
+            }
+        }
+        if (!visited[sink]) {
+            return false;
+        }
+
+        // Nodes that could not be reached are moved by the furthest distance so that arcs leaving them remain
+        // non-negative.
+        double furthest = 0;
+        for (int i = 0; i < nodes; i++) {
+            if (visited[i]) {
+                furthest = Math.max(furthest, distances[i]);
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            potentials[i] += visited[i] ? distances[i] : furthest;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a node to the heap of nodes waiting to be visited, a node can be in the heap more than once when a shorter
+     * path to it is found.
+     *
+     * @param heapSize The number of entries in the heap.
+     * @param node The node to add.
+     * @param distance The distance to the node.
+     * @return int Returns the new number of entries in the heap.
+     */
+    private int push(int heapSize, int node, double distance) {
+        int i = heapSize;
+        while (i > 0 && heapDistances[(i - 1) / 2] > distance) {
+            heapNodes[i] = heapNodes[(i - 1) / 2];
+            heapDistances[i] = heapDistances[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heapNodes[i] = node;
+        heapDistances[i] = distance;
+        return heapSize + 1;
+    }
+
+    /**
+     * Removes the nearest node from the heap.
+     *
+     * @param heapSize The number of entries in the heap.
+     * @return int Returns the new number of entries in the heap.
+     */
+    private int pop(int heapSize) {
+        heapSize--;
+        int node = heapNodes[heapSize];
+        double distance = heapDistances[heapSize];
+        int i = 0;
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapDistances[child + 1] < heapDistances[child]) {
+                child++;
+            }
+            if (heapDistances[child] >= distance) {
+                break;
+            }
+            heapNodes[i] = heapNodes[child];
+            heapDistances[i] = heapDistances[child];
+            i = child;
+        }
+        heapNodes[i] = node;
+        heapDistances[i] = distance;
+        return heapSize;
+    }
+}
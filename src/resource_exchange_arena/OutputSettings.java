@@ -0,0 +1,313 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class OutputSettings {
+    // Whether the per agent and each round data files are written at all.
+    final boolean agentData;
+    final boolean exchangeData;
+
+    // Whether the summary of each day and exchange round across all simulation runs is written.
+    final boolean summary;
+
+    // Rows are only written on every given day, and every given exchange round, 0 writing only detailed rows.
+    private final int agentDataDays;
+    private final int exchangeDataDays;
+    private final int exchangeDataRounds;
+
+    // Simulation runs that record every row, and the number of days after a takeover that record every row.
+    private final int[] detailRuns;
+    private final int detailTakeoverDays;
+
+    // The formats the data files are written in, csv and columns of fixed width values that numpy can load directly.
+    private final boolean csv;
+    private final boolean columnar;
+
+    // The gzip compression level of the csv files, -1 when they are not compressed, and the size of their buffers.
+    private final int compressionLevel;
+    private final int bufferSize;
+
+    // The number of bytes of each data file a simulation run holds in memory while it is carried out and waiting to be
+    // added to the output.
+    private final long runBufferSize;
+
+    /**
+     * Determines how much of the per agent and each round data is written. Both files are much larger than the daily
+     * data, so each can be turned off, or sampled on every given day and exchange round. Every row can still be
+     * recorded for chosen simulation runs and for the days after a strategy takes over. Values that would not be
+     * written are not calculated. The daily data is always written in full, as it is used to visualise the results.
+     * A summary averaging each day and exchange round across the simulation runs, far smaller than the data it
+     * summarises, can be written alongside. Every data file can be written as csv, as a folder of .npy column files,
+     * or both. The csv files can also be gzip compressed as they are written.
+     *
+     * @param agentData Boolean value that determines whether the per agent data is written.
+     * @param agentDataDays Integer value representing the interval in days between days with per agent data, or 0 to
+     *                      write only detailed days.
+     * @param exchangeData Boolean value that determines whether the each round data is written.
+     * @param exchangeDataDays Integer value representing the interval in days between days with each round data, or 0
+     *                         to write only detailed days.
+     * @param exchangeDataRounds Integer value representing the interval in exchange rounds between rounds with each
+     *                           round data on the days that are sampled.
+     * @param detailRuns Integer array containing the simulation runs that write every row.
+     * @param detailTakeoverDays Integer value representing the number of days after a strategy takes over that write
+     *                           every row.
+     * @param summary Boolean value that determines whether the daily and round summaries are written.
+     * @param csv Boolean value that determines whether the data files are written as csv.
+     * @param columnar Boolean value that determines whether the data files are written as .npy column files.
+     * @param compressionLevel Integer value between 0 and 9 representing the gzip compression level of the csv
+     *                         files, or -1 when they are not compressed.
+     * @param bufferSize Integer value representing the size in bytes of the buffers used to write the data files.
+     * @param runBufferSize Long value representing the number of bytes of each data file a simulation run holds in
+     *                      memory while the runs before it are added to the output, beyond which its rows are written
+     *                      to a temporary file.
+     */
+    OutputSettings(
+            boolean agentData,
+            int agentDataDays,
+            boolean exchangeData,
+            int exchangeDataDays,
+            int exchangeDataRounds,
+            int[] detailRuns,
+            int detailTakeoverDays,
+            boolean summary,
+            boolean csv,
+            boolean columnar,
+            int compressionLevel,
+            int bufferSize,
+            long runBufferSize
+    ) {
+        this.agentData = agentData;
+        this.agentDataDays = agentDataDays;
+        this.exchangeData = exchangeData;
+        this.exchangeDataDays = exchangeDataDays;
+        this.exchangeDataRounds = Math.max(exchangeDataRounds, 1);
+        this.detailRuns = detailRuns;
+        this.detailTakeoverDays = detailTakeoverDays;
+        this.summary = summary;
+        this.csv = csv;
+        this.columnar = columnar;
+
+        if (compressionLevel < -1 || compressionLevel > 9) {
+            System.out.println("Error: Invalid Compression Level " + compressionLevel + ", Using 6");
+            compressionLevel = 6;
+        }
+        this.compressionLevel = compressionLevel;
+
+        if (bufferSize < 1024) {
+            System.out.println("Error: Invalid Buffer Size " + bufferSize + ", Using 1024");
+            bufferSize = 1024;
+        }
+        this.bufferSize = bufferSize;
+
+        if (runBufferSize < 0) {
+            System.out.println("Error: Invalid Run Buffer Size " + runBufferSize + ", Using 0");
+            runBufferSize = 0;
+        }
+        this.runBufferSize = runBufferSize;
+    }
+
+    /**
+     * Getter for the csv file of a data file.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param name String representing the name of the data file.
+     * @return File Returns the csv file, whose name ends with ".gz" when the data files are compressed.
+     */
+    File csvFile(String dataOutputFolder, String name) {
+        return new File(dataOutputFolder, compressionLevel < 0 ? name + ".csv" : name + ".csv.gz");
+    }
+
+    /**
+     * Getter for the folder holding the column files of a data file.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param name String representing the name of the data file.
+     * @return File Returns the folder of column files.
+     */
+    File columnFolder(String dataOutputFolder, String name) {
+        return new File(dataOutputFolder, name + "_columns");
+    }
+
+    /**
+     * Getter for the file given to the python visualiser to read a data file.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param name String representing the name of the data file.
+     * @return File Returns the csv file when it is written, otherwise the manifest of the column files.
+     */
+    File readableFile(String dataOutputFolder, String name) {
+        if (csv) {
+            return csvFile(dataOutputFolder, name);
+        }
+        return ColumnarWriter.manifestFile(columnFolder(dataOutputFolder, name));
+    }
+
+    /**
+     * Opens a writer for a data file in each format that is written. The csv files start with a header row.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param name String representing the name of the data file.
+     * @param columns The name and numpy type of each column of the data file.
+     * @return DataWriter Returns the writer of the data file.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    DataWriter open(String dataOutputFolder, String name, String[][] columns) throws IOException {
+        ArrayList<DataWriter> writers = new ArrayList<>();
+        if (csv) {
+            CsvWriter csvWriter = new CsvWriter(csvFile(dataOutputFolder, name), false, compressionLevel, bufferSize);
+            for (int i = 0; i < columns.length; i++) {
+                csvWriter.append(i == 0 ? "" : ",").append(columns[i][0]);
+            }
+            csvWriter.append("\n");
+            writers.add(csvWriter);
+        }
+        if (columnar) {
+            writers.add(new ColumnarWriter(columnFolder(dataOutputFolder, name), name, columns, bufferSize));
+        }
+        if (writers.size() == 1) {
+            return writers.get(0);
+        }
+        return new CombinedWriter(writers.toArray(new DataWriter[0]));
+    }
+
+    /**
+     * Opens a writer for the rows a simulation run writes to a data file, held until the run can be added to the
+     * output.
+     *
+     * @param name String representing the name of the data file.
+     * @param run Integer value identifying the simulation run.
+     * @param partFile The file the rows are kept in along with the checkpoint of the run, or null when checkpoints
+     *                 are not used.
+     * @return PartWriter Returns the writer of the rows of the simulation run.
+     */
+    PartWriter openPart(String name, int run, File partFile) {
+        return new PartWriter(name, run, partFile, bufferSize, runBufferSize);
+    }
+
+    /**
+     * Opens the index of the data files of an environment, which is always written as uncompressed csv.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @return ResultsIndex Returns the index, ready for the output of each simulation run to be added.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    ResultsIndex openIndex(String dataOutputFolder) throws IOException {
+        return new ResultsIndex(dataOutputFolder, bufferSize);
+    }
+
+    /**
+     * Getter for the files of a data file in each format that is written.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param name String representing the name of the data file.
+     * @param columns The name and numpy type of each column of the data file.
+     * @return ArrayList Returns every file written for the data file.
+     */
+    ArrayList<File> files(String dataOutputFolder, String name, String[][] columns) {
+        ArrayList<File> files = new ArrayList<>();
+        if (csv) {
+            files.add(csvFile(dataOutputFolder, name));
+        }
+        if (columnar) {
+            File columnFolder = columnFolder(dataOutputFolder, name);
+            files.addAll(Arrays.asList(ColumnarWriter.columnFiles(columnFolder, columns)));
+            files.add(ColumnarWriter.manifestFile(columnFolder));
+        }
+        return files;
+    }
+
+    /**
+     * Getter for whether every row is written on a day of a simulation run.
+     *
+     * @param run Integer value identifying the current simulation run.
+     * @param takeover Boolean value representing whether a strategy has taken over.
+     * @param extention Integer value representing the number of days simulated after the takeover.
+     * @return boolean Returns whether the day is recorded in full.
+     */
+    boolean isDetailed(int run, boolean takeover, int extention) {
+        if (takeover && detailTakeoverDays > 0 && extention <= detailTakeoverDays) {
+            return true;
+        }
+        for (int detailRun : detailRuns) {
+            if (detailRun == run) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getter for whether the per agent data is written on a day.
+     *
+     * @param day Integer value representing the current day being simulated.
+     * @param detailed Boolean value representing whether the day is recorded in full.
+     * @return boolean Returns whether a row is written for each agent.
+     */
+    boolean recordsAgentData(int day, boolean detailed) {
+        return agentData && (detailed || (agentDataDays > 0 && day % agentDataDays == 0));
+    }
+
+    /**
+     * Getter for the exchange rounds that write each round data on a day.
+     *
+     * @param day Integer value representing the current day being simulated.
+     * @param detailed Boolean value representing whether the day is recorded in full.
+     * @return int Returns the interval between rounds with each round data, or 0 when no rounds write data.
+     */
+    int exchangeDataRounds(int day, boolean detailed) {
+        if (!exchangeData) {
+            return 0;
+        }
+        if (detailed) {
+            return 1;
+        }
+        if (exchangeDataDays > 0 && day % exchangeDataDays == 0) {
+            return exchangeDataRounds;
+        }
+        return 0;
+    }
+
+    /**
+     * Getter for a description of the settings, recorded with the simulation data when any data is left out.
+     *
+     * @return String Returns one line for each reduced or compressed data file, or an empty String when every row is
+     *                written uncompressed as csv along with the summary.
+     */
+    String describe() {
+        StringBuilder description = new StringBuilder();
+        String detail = "";
+        if (detailRuns.length > 0) {
+            detail += ", every row for runs " + Arrays.toString(detailRuns);
+        }
+        if (detailTakeoverDays > 0) {
+            detail += ", every row for " + detailTakeoverDays + " days after takeover";
+        }
+
+        if (!agentData) {
+            description.append("Agent data: off\n");
+        } else if (agentDataDays != 1) {
+            description.append("Agent data: every ").append(agentDataDays).append(" days").append(detail).append("\n");
+        }
+        if (!exchangeData) {
+            description.append("Exchange data: off\n");
+        } else if (exchangeDataDays != 1 || exchangeDataRounds != 1) {
+            description.append("Exchange data: every ").append(exchangeDataDays).append(" days, every ")
+                    .append(exchangeDataRounds).append(" rounds").append(detail).append("\n");
+        }
+        if (!summary) {
+            description.append("Summary: off\n");
+        }
+        if (!csv || columnar) {
+            description.append("Format: ").append(csv ? "csv and columnar" : "columnar").append("\n");
+        }
+        if (csv && compressionLevel >= 0) {
+            description.append("Compression: gzip level ").append(compressionLevel).append("\n");
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,182 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.TreeMap;
+
+class ParameterSweep {
+    // Prefix given to a parameter in the config file to sweep over a list or range of values for it.
+    static final String SWEEP_PREFIX = "sweep.";
+
+    private final Properties baseProperties;
+
+    // The values of each swept parameter, ordered by parameter name so that points are numbered the same every time.
+    private final TreeMap<String, ArrayList<String>> sweptValues = new TreeMap<>();
+
+    /**
+     * Expands the swept parameters in the config file into a grid of points, each of which is a complete set of
+     * parameters. A parameter is swept by giving "sweep." followed by its name, e.g. "sweep.agent.beta", with either
+     * a list of values separated by ";", e.g. "1:1;2:1", or a range given as "start..end" or "start..end..step",
+     * e.g. "0.5..2..0.5". Lists and ranges can be mixed, e.g. "10;20..40..10". Every combination of the swept values
+     * is a point of the sweep, while parameters that are not swept keep their usual value.
+     *
+     * @param baseProperties The parameters given by the user in the config.properties file.
+     */
+    ParameterSweep(Properties baseProperties) {
+        this.baseProperties = baseProperties;
+
+        for (String key : baseProperties.stringPropertyNames()) {
+            if (key.startsWith(SWEEP_PREFIX)) {
+                String parameter = key.substring(SWEEP_PREFIX.length());
+                ArrayList<String> values = parseValues(parameter, baseProperties.getProperty(key));
+                if (!values.isEmpty()) {
+                    sweptValues.put(parameter, values);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the value of a swept parameter into the individual values it represents.
+     *
+     * @param parameter The name of the swept parameter, used when reporting errors.
+     * @param sweep The list and ranges of values given for the parameter.
+     * @return ArrayList Returns every value the parameter takes, in the order given.
+     */
+    static ArrayList<String> parseValues(String parameter, String sweep) {
+        ArrayList<String> values = new ArrayList<>();
+        for (String item : sweep.split(";")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            String[] range = item.split("\\.\\.");
+            if (range.length == 1) {
+                values.add(item);
+                continue;
+            }
+
+            BigDecimal start;
+            BigDecimal end;
+            BigDecimal step;
+            try {
+                start = new BigDecimal(range[0].trim());
+                end = new BigDecimal(range[1].trim());
+                step = range.length > 2 ? new BigDecimal(range[2].trim()) : BigDecimal.ONE;
+            } catch (NumberFormatException e) {
+                System.out.println("Error: Invalid Sweep Range " + item + " For " + parameter);
+                continue;
+            }
+            if (range.length > 3 || step.signum() <= 0) {
+                System.out.println("Error: Invalid Sweep Range " + item + " For " + parameter);
+                continue;
+            }
+
+            // BigDecimal keeps ranges such as 0.1..0.3..0.1 exact, so the end of the range is always included.
+            for (BigDecimal value = start; value.compareTo(end) <= 0; value = value.add(step)) {
+                values.add(value.stripTrailingZeros().toPlainString());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Getter for the number of points in the sweep.
+     *
+     * @return int Returns the number of points, which is 1 when no parameters are swept.
+     */
+    int points() {
+        int points = 1;
+        for (ArrayList<String> values : sweptValues.values()) {
+            points *= values.size();
+        }
+        return points;
+    }
+
+    /**
+     * Getter for the value of each swept parameter at a point of the sweep. The last parameter, by name, changes
+     * fastest between consecutive points.
+     *
+     * @param point Integer value identifying the point, between 1 and the number of points.
+     * @return TreeMap Returns the value of each swept parameter, by parameter name.
+     */
+    TreeMap<String, String> getSweptValues(int point) {
+        TreeMap<String, String> values = new TreeMap<>();
+        int remaining = point - 1;
+        for (String parameter : sweptValues.descendingKeySet()) {
+            ArrayList<String> options = sweptValues.get(parameter);
+            values.put(parameter, options.get(remaining % options.size()));
+            remaining /= options.size();
+        }
+        return values;
+    }
+
+    /**
+     * Getter for the complete set of parameters at a point of the sweep.
+     *
+     * @param point Integer value identifying the point, between 1 and the number of points.
+     * @return Properties Returns the parameters from the config file with the swept parameters replaced.
+     */
+    Properties getPoint(int point) {
+        Properties properties = new Properties();
+        properties.putAll(baseProperties);
+        properties.putAll(getSweptValues(point));
+        return properties;
+    }
+
+    /**
+     * Getter for the folder that stores the output of a point of the sweep.
+     *
+     * @param folderName String representing the output destination folder of the whole sweep.
+     * @param point Integer value identifying the point.
+     * @return String Returns the output destination folder of the point.
+     */
+    static String pointFolder(String folderName, int point) {
+        return folderName + "/point_" + point;
+    }
+
+    /**
+     * Writes an index of every point of the sweep to the output destination folder of the whole sweep, giving the
+     * folder of each point and the values of the swept parameters used.
+     *
+     * @param folderName String representing the output destination folder of the whole sweep.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void writeIndex(String folderName) throws IOException {
+        Files.createDirectories(Path.of(folderName));
+
+        try (FileWriter indexWriter = new FileWriter(new File(folderName, "sweepIndex.csv"))) {
+            indexWriter.append("Point");
+            indexWriter.append(",");
+            indexWriter.append("Folder");
+            for (String parameter : sweptValues.keySet()) {
+                indexWriter.append(",");
+                indexWriter.append(parameter);
+            }
+            indexWriter.append("\n");
+
+            for (int point = 1; point <= points(); point++) {
+                indexWriter.append(String.valueOf(point));
+                indexWriter.append(",");
+                indexWriter.append(pointFolder(folderName, point));
+                for (String value : getSweptValues(point).values()) {
+                    indexWriter.append(",");
+                    // Values such as curves contain commas, so they are quoted to keep them in a single column.
+                    if (value.contains(",") || value.contains("\"")) {
+                        indexWriter.append("\"").append(value.replace("\"", "\"\"")).append("\"");
+                    } else {
+                        indexWriter.append(value);
+                    }
+                }
+                indexWriter.append("\n");
+            }
+        }
+    }
+}
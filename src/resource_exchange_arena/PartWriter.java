@@ -0,0 +1,346 @@
+package resource_exchange_arena;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+class PartWriter implements DataWriter {
+    // Each value held begins with one of these tags, an integer being followed by 4 bytes and a double by 8.
+    private static final int INTEGER = 0;
+    private static final int DOUBLE = 1;
+    private static final int END_ROW = 2;
+
+    private final String name;
+    private final int run;
+    private final int blockSize;
+    private final long memoryLimit;
+
+    // Whether the rows are kept in the part file of the checkpoint, rather than only written to a temporary file once
+    // too many are held in memory.
+    private final boolean kept;
+    private File file;
+    private OutputStream spill;
+
+    // Full blocks of values held in memory, in the order they were written, and the block being filled, which is only
+    // allocated once a value is held.
+    private final ArrayList<byte[]> blocks = new ArrayList<>();
+    private byte[] block;
+    private int position;
+
+    // The writer the rows are passed on to once the simulation run is the next to be added to the output. Once
+    // released the rows held so far are passed on, either by the run at the end of its next row or straight away when
+    // the run is complete, after which every value is passed on as it is written.
+    private DataWriter target;
+    private volatile boolean released;
+    private boolean direct;
+    private boolean closed;
+
+    // The value being replayed, its tag, the bytes read so far and the number still to read, as a value can be split
+    // between two blocks.
+    private int replayedTag = -1;
+    private long replayedBits;
+    private int replayedBytes;
+
+    /**
+     * Holds the rows a simulation run writes to a data file until the run is the next to be added to the environments
+     * output, so that runs carried out at the same time never share a file. The values are held as they were given,
+     * in blocks in memory, and only written to a temporary file once more are held than the limit allows, or once the
+     * run is complete, so that only the runs being carried out hold rows in memory. The run that is next to be added
+     * writes its rows straight to the data file, so most rows are only ever written once.
+     * When checkpoints are used every row is also kept in the part file of the run, so that the rows written before
+     * the checkpoint survive an interruption.
+     *
+     * @param name String representing the name of the data file, used to name the temporary file.
+     * @param run Integer value identifying the simulation run.
+     * @param partFile The file the rows are kept in along with the checkpoint, or null when checkpoints are not used.
+     *                 Rows already in the file are kept and written before any others.
+     * @param blockSize Integer value representing the size in bytes of each block of values.
+     * @param memoryLimit Long value representing the number of bytes that can be held in memory.
+     */
+    PartWriter(String name, int run, File partFile, int blockSize, long memoryLimit) {
+        this.name = name;
+        this.run = run;
+        this.blockSize = blockSize;
+        this.memoryLimit = memoryLimit;
+        kept = partFile != null;
+        file = partFile;
+    }
+
+    @Override
+    public void value(int value) throws IOException {
+        if (direct) {
+            target.value(value);
+            return;
+        }
+        put(INTEGER);
+        putInt(value);
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        if (direct) {
+            target.value(value);
+            return;
+        }
+        put(DOUBLE);
+        long bits = Double.doubleToRawLongBits(value);
+        putInt((int) (bits >>> 32));
+        putInt((int) bits);
+    }
+
+    /**
+     * Ends the current row, passing on every row held so far when the writer has just been released.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void endRow() throws IOException {
+        if (direct) {
+            target.endRow();
+            return;
+        }
+        put(END_ROW);
+        if (released && !kept) {
+            synchronized (this) {
+                passOn();
+            }
+        }
+    }
+
+    /**
+     * Adds an integer to the values held, most significant byte first.
+     *
+     * @param value The integer to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void putInt(int value) throws IOException {
+        put(value >>> 24);
+        put(value >>> 16);
+        put(value >>> 8);
+        put(value);
+    }
+
+    /**
+     * Adds a single byte to the values held, starting a new block when the current one is full.
+     *
+     * @param b The byte to add.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void put(int b) throws IOException {
+        if (block == null) {
+            block = new byte[blockSize];
+        }
+        block[position++] = (byte) b;
+        if (position == block.length) {
+            blocks.add(block);
+            block = new byte[blockSize];
+            position = 0;
+            if ((long) blocks.size() * blockSize > memoryLimit) {
+                spill();
+            }
+        }
+    }
+
+    /**
+     * Writes the full blocks held in memory to the end of the file, creating a temporary file the first time when the
+     * rows are not kept with the checkpoint.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void spill() throws IOException {
+        if (spill == null) {
+            if (file == null) {
+                file = File.createTempFile(name + ".run" + run + ".", ".part");
+                file.deleteOnExit();
+            }
+            spill = new BufferedOutputStream(new FileOutputStream(file, true), blockSize);
+        }
+        for (byte[] full : blocks) {
+            spill.write(full);
+        }
+        blocks.clear();
+    }
+
+    /**
+     * Writes every value held to the part file when the rows are kept with the checkpoint, so that the length of the
+     * part file can be saved along with it. Otherwise the values stay where they are.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        if (direct) {
+            target.flush();
+            return;
+        }
+        if (kept) {
+            spillAll();
+            spill.flush();
+        }
+    }
+
+    /**
+     * Writes every value held in memory to the end of the file, including those of the block being filled.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void spillAll() throws IOException {
+        spill();
+        if (block != null) {
+            spill.write(block, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Ends the rows of the simulation run, passing them on straight away when the writer has already been released.
+     * Otherwise the rows held in memory are written to the file until the run is added, so that runs that finish
+     * ahead of their turn hold no memory. The data file the rows are passed on to is left open for the runs that
+     * follow.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (!released) {
+            if (position > 0 || !blocks.isEmpty()) {
+                spillAll();
+            }
+            block = null;
+        }
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+        if (released) {
+            passOn();
+        }
+    }
+
+    /**
+     * Passes the rows on to the data file once the simulation run is the next to be added to the output. When the run
+     * is still being carried out it passes its rows on at the end of its next row and writes the rest straight to the
+     * data file, otherwise they are passed on before this returns. Rows kept with the checkpoint must only be passed
+     * on once the run is complete, as they are kept until the whole environment is.
+     *
+     * @param target The writer of the data file, which the simulation run has to itself from now on.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    synchronized void release(DataWriter target) throws IOException {
+        this.target = target;
+        released = true;
+        if (closed) {
+            passOn();
+        }
+    }
+
+    /**
+     * Writes every value held to the data file, those in the file first, and from then on writes each value straight
+     * to the data file.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void passOn() throws IOException {
+        if (direct) {
+            return;
+        }
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+
+        if (file != null && file.exists()) {
+            try (FileInputStream in = new FileInputStream(file)) {
+                byte[] read = new byte[blockSize];
+                for (int length = in.read(read); length >= 0; length = in.read(read)) {
+                    replay(read, length);
+                }
+            }
+        }
+        for (byte[] full : blocks) {
+            replay(full, full.length);
+        }
+        if (block != null) {
+            replay(block, position);
+        }
+
+        blocks.clear();
+        block = null;
+        position = 0;
+        if (!kept) {
+            remove();
+        }
+        direct = true;
+    }
+
+    /**
+     * Writes the values of a block to the data file. A value can be split between two blocks, in which case it is
+     * finished by the next block replayed.
+     *
+     * @param values The block of values.
+     * @param length Integer value representing the number of bytes of the block that hold values.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void replay(byte[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            int b = values[i] & 0xFF;
+            if (replayedTag < 0) {
+                if (b == END_ROW) {
+                    target.endRow();
+                } else {
+                    replayedTag = b;
+                    replayedBits = 0;
+                    replayedBytes = b == INTEGER ? 4 : 8;
+                }
+                continue;
+            }
+            replayedBits = (replayedBits << 8) | b;
+            if (--replayedBytes == 0) {
+                if (replayedTag == INTEGER) {
+                    target.value((int) replayedBits);
+                } else {
+                    target.value(Double.longBitsToDouble(replayedBits));
+                }
+                replayedTag = -1;
+            }
+        }
+    }
+
+    /**
+     * Getter for the file written.
+     *
+     * @return File[] Returns the part file or temporary file holding the rows, or no files when every row is held in
+     *                memory or has been passed on.
+     */
+    @Override
+    public File[] files() {
+        if (file == null || !file.exists()) {
+            return new File[0];
+        }
+        return new File[] {file};
+    }
+
+    /**
+     * Removes the file holding the rows, once they have been passed on or are no longer needed.
+     */
+    void remove() {
+        if (file != null && file.exists() && !file.delete()) {
+            System.out.println("Error: Could Not Remove " + file.getName());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package resource_exchange_arena;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+class QuantileSketch {
+    // Satisfaction lies between 0 and 1, which is split into equal bins, every quantile is estimated to within half a
+    // bin of the exact value.
+    static final int BINS = 1000;
+
+    private final long[] counts = new long[BINS];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Estimates the quantiles of a distribution of satisfactions by counting the values that fall in each of a fixed
+     * number of bins. Adding a value takes constant time and the memory used does not grow with the number of values.
+     * Sketches are combined by adding their counts, so the combined sketch is the same whatever order they are
+     * combined in, and the same as a single sketch given every value.
+     */
+    QuantileSketch() {}
+
+    /**
+     * Getter for the bin a value is counted in.
+     *
+     * @param value The value to find the bin of.
+     * @return int Returns the bin of the value, values outside of 0 and 1 are counted in the first or last bin.
+     */
+    private static int bin(double value) {
+        return Math.max(0, Math.min(BINS - 1, (int) (value * BINS)));
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value The value to add.
+     */
+    void add(double value) {
+        counts[bin(value)]++;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Removes every value from the sketch so that it can be reused.
+     */
+    void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Getter for the number of values added.
+     *
+     * @return long Returns the number of values added.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter for the smallest value added.
+     *
+     * @return double Returns the smallest value, or 0 when no values have been added.
+     */
+    double getMin() {
+        return count == 0 ? 0.0 : min;
+    }
+
+    /**
+     * Getter for the largest value added.
+     *
+     * @return double Returns the largest value, or 0 when no values have been added.
+     */
+    double getMax() {
+        return count == 0 ? 0.0 : max;
+    }
+
+    /**
+     * Estimates a quantile of the values added, interpolating between the values either side of its position in the
+     * same way as numpy.
+     *
+     * @param quantile Double value between 0 and 1 representing the quantile, 0.5 giving the median.
+     * @return double Returns the estimated quantile, or 0 when no values have been added.
+     */
+    double getQuantile(double quantile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        double position = quantile * (count - 1);
+        long lower = (long) Math.floor(position);
+        double lowerValue = valueAt(lower);
+        if (lower == position) {
+            return lowerValue;
+        }
+        return lowerValue + (valueAt(lower + 1) - lowerValue) * (position - lower);
+    }
+
+    /**
+     * Estimates the value at a position in the sorted values added, as the middle of the bin that holds it.
+     *
+     * @param index Long value representing the position of the value, counted from 0.
+     * @return double Returns the estimated value, the first and last values being exact.
+     */
+    private double valueAt(long index) {
+        if (index <= 0) {
+            return min;
+        }
+        if (index >= count - 1) {
+            return max;
+        }
+        long seen = 0;
+        int bin = 0;
+        while (seen + counts[bin] <= index) {
+            seen += counts[bin];
+            bin++;
+        }
+        double middle = (bin + 0.5) / BINS;
+        return Math.max(min, Math.min(max, middle));
+    }
+
+    /**
+     * Writes the values added, only the bins holding values are written so that small sketches are written compactly.
+     *
+     * @param out The stream to write to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void write(DataOutputStream out) throws IOException {
+        int used = 0;
+        for (long binCount : counts) {
+            if (binCount != 0) {
+                used++;
+            }
+        }
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(used);
+        for (int i = 0; i < BINS; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds the values written by write to the sketch, used both to combine sketches and to restore a sketch.
+     *
+     * @param in The stream to read from.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void read(DataInputStream in) throws IOException {
+        min = Math.min(min, in.readDouble());
+        max = Math.max(max, in.readDouble());
+        int used = in.readInt();
+        for (int i = 0; i < used; i++) {
+            int bin = in.readShort();
+            long binCount = in.readLong();
+            counts[bin] += binCount;
+            count += binCount;
+        }
+    }
+}
@@ -6,22 +6,19 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Random;
+import java.util.ArrayList;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ResourceExchangeArena {
-    // Public seed used for repeatable randomness.
-    public static long seed;
-
     // Constants representing the available agent types for the simulation.
     public static final int SELFISH = 1;
     public static final int SOCIAL = 2;
     public static final int[] ALL_AGENT_TYPES = {SELFISH, SOCIAL};
 
-    // Create a single Random object for generating random numerical data for the simulation, a single object exists to
-    // allow for result replication given a specific user seed.
-    static Random random = new Random();
-
     /**
      * This is the main method which runs the entire ResourceExchangeArena simulation.
      *
@@ -39,14 +36,110 @@ public class ResourceExchangeArena {
             e.printStackTrace();
         }
 
+        // The master seed from which every simulation run derives its own random numbers.
+        long seed;
         long userSeed = Long.parseLong(properties.getProperty("seed"));
         if (userSeed == -1) {
             seed = System.currentTimeMillis();
         } else {
             seed = userSeed;
         }
+        // Every sweep point uses the same master seed, unless the seed itself is swept.
+        properties.setProperty("seed", String.valueOf(seed));
+
+        // A single simulation run of each environment can be replayed on its own, giving the same results it gave as
+        // part of the full set. Replays are stored separately so that they do not replace the full set.
+        final int REPLAY_RUN = Integer.parseInt(optionalProperty(properties, "simulation.replayRun", "0"));
+
+        String folderName = properties.getProperty("results.folder") + seed;
+        if (REPLAY_RUN > 0) {
+            folderName += "_run" + REPLAY_RUN;
+        }
+        final String FOLDER_NAME = folderName;
+
+        int THREADS = Integer.parseInt(optionalProperty(properties, "simulation.threads", "1"));
+        if (THREADS < 1) {
+            THREADS = Runtime.getRuntime().availableProcessors();
+        }
+        final int PARALLEL_ENVIRONMENTS = Integer.parseInt(optionalProperty(properties, "simulation.parallelEnvironments", "0"));
+        final int VISUALISERS = Integer.parseInt(optionalProperty(properties, "python.visualisers", "1"));
+        final long VISUALISATION_TIMEOUT = Long.parseLong(optionalProperty(properties, "python.visualisationTimeout", "600"));
+
+        // Any parameter in the config file can instead be given a list or range of values to sweep over.
+        ParameterSweep sweep = new ParameterSweep(properties);
+
+        // Simulation runs from every environment version and sweep point are all submitted up front to one work
+        // stealing pool, while a separate pool adds the output of each version's runs to its data files and writes its
+        // summary as the runs complete, so that merging the output of one version does not hold up the runs of another.
+        // Unless limited that pool merges as many versions at once as there are simulation threads, since each version
+        // being merged holds its own thread and open data files, and a fixed pool only starts a thread for each version
+        // submitted, so no more threads are used than there are versions. The data of each version is visualised in
+        // the background by a bounded pool of python processes, which is only waited for once every simulation is
+        // complete.
+        ExecutorService runExecutor = Executors.newWorkStealingPool(THREADS);
+        ExecutorService environmentExecutor = Executors.newFixedThreadPool(
+                PARALLEL_ENVIRONMENTS < 1 ? THREADS : PARALLEL_ENVIRONMENTS);
+        VisualisationPool visualisationPool = new VisualisationPool(VISUALISERS, VISUALISATION_TIMEOUT);
+        ArrayList<Future<?>> environments = new ArrayList<>();
+        try {
+            if (sweep.points() == 1) {
+                environments.addAll(runConfiguration(properties, FOLDER_NAME, REPLAY_RUN, runExecutor, environmentExecutor, visualisationPool));
+            } else {
+                // Each point of the sweep is stored in its own folder, listed in an index of every point.
+                sweep.writeIndex(FOLDER_NAME);
+                for (int point = 1; point <= sweep.points(); point++) {
+                    environments.addAll(runConfiguration(
+                            sweep.getPoint(point),
+                            ParameterSweep.pointFolder(FOLDER_NAME, point),
+                            REPLAY_RUN,
+                            runExecutor,
+                            environmentExecutor,
+                            visualisationPool
+                    ));
+                }
+            }
+
+            // Wait for every environment version in the order they were started.
+            for (int i = 0; i < environments.size(); i++) {
+                try {
+                    environments.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IOException("Environment version " + (i + 1) + " failed", e);
+                }
+                if (environments.size() > 1) {
+                    System.out.println("********** " + (i + 1) + " / " + environments.size() + " ENVIRONMENT VERSIONS COMPLETE **********");
+                }
+            }
+        } finally {
+            environmentExecutor.shutdownNow();
+            runExecutor.shutdownNow();
+            visualisationPool.join();
+        }
+    }
 
-        final String FOLDER_NAME = properties.getProperty("results.folder") + seed;
+    /**
+     * Starts every environment version of a single set of parameters, adjusting the parameters and repeating the
+     * simulation when comparisons are requested.
+     *
+     * @param properties The parameters given by the user in the config.properties file, or those of a sweep point.
+     * @param folderName String representing the output destination folder, used to organise output data.
+     * @param replayRun Integer value identifying a single simulation run to replay, or 0 to carry out every run.
+     * @param runExecutor Carries out the simulation runs of every environment version.
+     * @param environmentExecutor Adds the output of the simulation runs of each environment version.
+     * @param visualisationPool Carries out the visualisations of every environment version in the background.
+     * @return ArrayList Returns each environment version started, in order.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    private static ArrayList<Future<?>> runConfiguration(
+        Properties properties,
+        String folderName,
+        int replayRun,
+        ExecutorService runExecutor,
+        ExecutorService environmentExecutor,
+        VisualisationPool visualisationPool
+        ) throws IOException {
+        long seed = Long.parseLong(properties.getProperty("seed"));
         final String PYTHON_EXE = properties.getProperty("python.executable");
         final String PYTHON_PATH = properties.getProperty("python.scripts");
         final int POPULATION_SIZE = Integer.parseInt(properties.getProperty("population.size"));
@@ -72,64 +165,91 @@ public class ResourceExchangeArena {
         final int PERCENTAGE_OF_AGENTS_TO_EVOLVE = Integer.parseInt(properties.getProperty("agents.evolvePercentage"));
         final int[] AGENT_TYPES_ARRAY = RatioToIntegerArray(properties.getProperty("agent.typeRatio"));
         final double[] SATISFACTION_CURVE = StringToDoubleArray(properties.getProperty("agent.satisfactionCurve"));
-            
+        final boolean EXACT_OPTIMUM = Boolean.parseBoolean(optionalProperty(properties, "simulation.exactOptimum", "false"));
+        final int CHECKPOINT_DAYS = Integer.parseInt(optionalProperty(properties, "simulation.checkpointDays", "0"));
+
+        // The per agent and each round data can be turned off or sampled, as they are far larger than the daily data,
+        // and every data file can be written as csv, as columns that numpy can load directly, or both.
+        String detailRuns = optionalProperty(properties, "output.detailRuns", "");
+        String format = optionalProperty(properties, "output.format", "csv");
+        if (!format.equalsIgnoreCase("csv") && !format.equalsIgnoreCase("columnar") && !format.equalsIgnoreCase("both")) {
+            System.out.println("Error: Invalid Output Format " + format + ", Using csv");
+            format = "csv";
+        }
+        boolean compression = Boolean.parseBoolean(optionalProperty(properties, "output.compression", "false"));
+        final OutputSettings OUTPUT_SETTINGS = new OutputSettings(
+                Boolean.parseBoolean(optionalProperty(properties, "output.agentData", "true")),
+                Integer.parseInt(optionalProperty(properties, "output.agentDataDays", "1")),
+                Boolean.parseBoolean(optionalProperty(properties, "output.exchangeData", "true")),
+                Integer.parseInt(optionalProperty(properties, "output.exchangeDataDays", "1")),
+                Integer.parseInt(optionalProperty(properties, "output.exchangeDataRounds", "1")),
+                detailRuns.isEmpty() ? new int[0] : StringToIntArray(detailRuns),
+                Integer.parseInt(optionalProperty(properties, "output.detailTakeoverDays", "0")),
+                Boolean.parseBoolean(optionalProperty(properties, "output.summary", "true")),
+                !format.equalsIgnoreCase("columnar"),
+                !format.equalsIgnoreCase("csv"),
+                compression ? Integer.parseInt(optionalProperty(properties, "output.compressionLevel", "6")) : -1,
+                Integer.parseInt(optionalProperty(properties, "output.bufferSize", "262144")),
+                Long.parseLong(optionalProperty(properties, "output.runBufferSize", "67108864"))
+        );
+
+        // The curves are bucketed once, as every environment version uses the same bucketed values.
+        final BucketedCurves CURVES = new BucketedCurves(DEMAND_CURVES, AVAILABILITY_CURVE, UNIQUE_TIME_SLOTS);
+
+        ArrayList<Future<?>> environments = new ArrayList<>();
+
         // Automatically adjust parameters and repeat the simulation when comparisons are requested.
         switch (COMPARISON_LEVEL) {
             case 1:
                 // Test user parameters with and without social capital for comparison.
                 USE_SOCIAL_CAPITAL = false;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 1 / 2 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 1, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
 
                 USE_SOCIAL_CAPITAL = true;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 2 / 2 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 2, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
                 break;
             case 2:
                 // As above but also test single agent type populations for reference.
                 USE_SOCIAL_CAPITAL = false;
                 SINGLE_AGENT_TYPE = true;
                 SELECTED_SINGLE_AGENT_TYPE = SELFISH;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 1 / 5 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 1, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
 
                 USE_SOCIAL_CAPITAL = false;
                 SINGLE_AGENT_TYPE = true;
                 SELECTED_SINGLE_AGENT_TYPE = SOCIAL;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 2 / 5 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 2, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
 
                 USE_SOCIAL_CAPITAL = true;
                 SINGLE_AGENT_TYPE = true;
                 SELECTED_SINGLE_AGENT_TYPE = SOCIAL;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 3 / 5 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 3, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
 
                 USE_SOCIAL_CAPITAL = false;
                 SINGLE_AGENT_TYPE = false;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 4 / 5 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 4, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
 
                 USE_SOCIAL_CAPITAL = true;
                 SINGLE_AGENT_TYPE = false;
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
-                System.out.println("********** 5 / 5 ENVIRONMENT VERSIONS COMPLETE **********");
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 5, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
                 break;
             default:
                 // Run only the set of parameters defined by the user.
-                runSimulationSet(seed, FOLDER_NAME, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, DEMAND_CURVES, AVAILABILITY_CURVE, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE);
+                environments.add(runSimulationSet(seed, folderName, PYTHON_EXE, PYTHON_PATH, POPULATION_SIZE, SLOTS_PER_AGENT, UNIQUE_TIME_SLOTS, ADDITIONAL_DAYS, SIMULATION_RUNS, SINGLE_AGENT_TYPE, SELECTED_SINGLE_AGENT_TYPE, USE_SOCIAL_CAPITAL, β, CURVES, PERCENTAGE_OF_AGENTS_TO_EVOLVE, AGENT_TYPES_ARRAY, SATISFACTION_CURVE, EXACT_OPTIMUM, 1, replayRun, CHECKPOINT_DAYS, OUTPUT_SETTINGS, runExecutor, environmentExecutor, visualisationPool));
         }
+
+        return environments;
     }
     
     /**
      * Runs a set of simulations with the parameters given by the user in the config.properties file.
      *
+     * @param seed Long value from which each simulation run derives its own random numbers.
      * @param folderName String representing the output destination folder, used to organise output
      *                   data.
      * @param environmentTag String detailing specifics about the simulation environment.
-     * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used
-     *                     the agents are split equally between the curves.
-     * @param availabilityCurve Integer array of energy availability used by the simulation.
+     * @param bucketedCurves The demand and availability curves bucketed into time-slots, shared by every
+     *                       environment version.
      * @param socialCapital Boolean value that determines whether or not social agents will utilise
      *                      social capital.
      * @param simulationRuns Integer value representing the number of simulations to be ran and
@@ -151,14 +271,26 @@ public class ResourceExchangeArena {
      * @param pythonExe String representing the system path to python environment executable.
      * @param pythonPath String representing the system path to the python data visualiser.
      * @param β Double value that increases the the chance that agents will change their strategy.
-     * @param demandCurves
-     * @param availabilityCurve
      * @param evolutionPercentage integer value that sets the percentage of agents that have a chance to evolve each day.
      * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
+     * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+     *                     near to requests using the satisfaction curve.
+     * @param environment Integer value identifying the environment version within the set of simulations.
+     * @param replayRun Integer value identifying a single simulation run to replay, or 0 to carry out every run.
+     * @param checkpointDays Integer value representing the number of days between each checkpoint of a simulation
+     *                       run, or 0 when checkpoints are not used.
+     * @param outputSettings Determines how much of the per agent and each round data is written, and the format of
+     *                       the data files.
+     * @param runExecutor Carries out the simulation runs of every environment version, which are submitted before
+     *                    this returns.
+     * @param environmentExecutor Adds the output of the simulation runs of each environment version.
+     * @param visualisationPool Carries out the visualisations of every environment version in the background.
+     * @return Future Returns the environment version, which is complete once its data has been written and its
+     *                visualisation submitted.
      * @exception IOException On input error.
      * @see IOException
      */
-    private static void runSimulationSet(
+    private static Future<?> runSimulationSet(
         long seed, 
         String folderName, 
         String pythonExe, 
@@ -172,15 +304,19 @@ public class ResourceExchangeArena {
         int selectedSingleAgentType,
         boolean useSocialCapital,
         double β,
-        double[][] demandCurves,
-        int[] availabilityCurve,
+        BucketedCurves bucketedCurves,
         int evolutionPercentage,
         int[] agentTypeArray,
-        double[] satisfactionCurve
+        double[] satisfactionCurve,
+        boolean exactOptimum,
+        int environment,
+        int replayRun,
+        int checkpointDays,
+        OutputSettings outputSettings,
+        ExecutorService runExecutor,
+        ExecutorService environmentExecutor,
+        VisualisationPool visualisationPool
         ) throws IOException {
-        // Set the simulations initial random seed.
-        random.setSeed(seed);
-
         // Create a directory to store the data output by all simulations being run.
         String dataOutputFolder = folderName + "/useSC_" + useSocialCapital + "_AType_";
         if (!singleAgentType) {
@@ -201,9 +337,8 @@ public class ResourceExchangeArena {
          *
          * @param folderName String representing the output destination folder, used to organise output
          *                   data.
-         * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used
-         *                     the agents are split equally between the curves.
-         * @param availabilityCurve Integer array of energy availability used by the simulation.
+         * @param bucketedCurves The demand and availability curves bucketed into time-slots, shared by every
+         *                       environment version.
          * @param socialCapital Boolean value that determines whether or not social agents will utilise
          *                      social capital.
          * @param simulationRuns Integer value representing the number of simulations to be ran and
@@ -228,13 +363,24 @@ public class ResourceExchangeArena {
          * @param pythonPath String representing the system path to the python data visualiser.
          * @param β Double value that increases the the chance that agents will change their strategy.
          * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
+         * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+         *                     near to requests using the satisfaction curve.
+         * @param masterSeed Long value from which each simulation run derives its own random numbers.
+         * @param environment Integer value identifying the environment version within the set of simulations.
+         * @param replayRun Integer value identifying a single simulation run to replay, or 0 to carry out every run.
+         * @param checkpointDays Integer value representing the number of days between each checkpoint of a
+         *                       simulation run, or 0 when checkpoints are not used.
+         * @param outputSettings Determines how much of the per agent and each round data is written, and the format
+         *                       of the data files.
+         * @param runExecutor Carries out the simulation runs, shared by every environment version so that the number
+         *                    of runs carried out at the same time is limited across all of them.
+         * @param visualisationPool Carries out the visualisations of every environment version in the background.
          * @exception IOException On input error.
          * @see IOException
          */
-        new ArenaEnvironment(
+        ArenaEnvironment arenaEnvironment = new ArenaEnvironment(
                 dataOutputFolder,
-                demandCurves,
-                availabilityCurve,
+                bucketedCurves,
                 useSocialCapital,
                 simulationRuns,
                 additionalDays,
@@ -248,10 +394,41 @@ public class ResourceExchangeArena {
                 pythonExe,
                 pythonPath,
                 β,
-                satisfactionCurve
+                satisfactionCurve,
+                exactOptimum,
+                seed,
+                environment,
+                replayRun,
+                checkpointDays,
+                outputSettings,
+                runExecutor,
+                visualisationPool
         );
+
+        // Only adding the output of the runs waits for a place in the pool of environment versions.
+        return environmentExecutor.submit(() -> {
+            arenaEnvironment.complete();
+            return null;
+        });
     }
     
+    /**
+     * Getter for an optional parameter of the config file. The example config file lists every parameter with an
+     * empty value, so a parameter that is given without a value is treated as not being given.
+     *
+     * @param properties The parameters given by the user in the config.properties file, or those of a sweep point.
+     * @param key String representing the name of the parameter.
+     * @param defaultValue String representing the value used when the parameter is not given.
+     * @return String Returns the value of the parameter without surrounding whitespace, or the default value.
+     */
+    static String optionalProperty(Properties properties, String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
     // Used for formatting availability curve preferences from the config.properties file.
     public static int[] StringToIntArray(String input) {
         // Split the input string by comma
@@ -0,0 +1,72 @@
+package resource_exchange_arena;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+class ResultsIndex implements Closeable {
+    // The name of the index file written alongside the data files of each environment.
+    static final String FILE_NAME = "dataIndex.csv";
+
+    static final String HEADER = "File,Run,Day,Row,Rows,Run Offset,Day Offset,Bytes";
+
+    private final CsvWriter indexWriter;
+
+    // The number of rows added to each data file so far.
+    private final HashMap<String, Long> fileRows = new HashMap<>();
+
+    /**
+     * Indexes the data files of an environment as the output of each simulation run is added to them. The index holds
+     * a row for every day of every run of each data file, giving the first row of the day in the data file along with
+     * the number of rows, and for csv data files the byte offset at which the run begins and the offset and length of
+     * the day within the run. When the csv files are compressed each run begins a new gzip member, so reading can
+     * start at the offset of the run, the offset of the day then counting the bytes once decompressed. A single run,
+     * or a single day across every run, can then be read without reading the rest of the data file.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param bufferSize Integer value representing the size in bytes of the buffer used to write the index.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    ResultsIndex(String dataOutputFolder, int bufferSize) throws IOException {
+        indexWriter = new CsvWriter(new File(dataOutputFolder, FILE_NAME), false, -1, bufferSize);
+        indexWriter.append(HEADER).append("\n");
+    }
+
+    /**
+     * Adds the days of a simulation run to the index, once the run has been added to the end of a data file.
+     *
+     * @param name String representing the name of the data file.
+     * @param run Integer value identifying the simulation run.
+     * @param part The writer that added the rows of the simulation run to the data file.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void add(String name, int run, IndexingWriter part) throws IOException {
+        long runOffset = part.getRunOffset();
+        long firstRow = fileRows.getOrDefault(name, 0L);
+        ArrayList<long[]> days = part.getDays();
+        for (int i = 0; i < days.size(); i++) {
+            long[] start = days.get(i);
+            long[] end = i + 1 < days.size() ? days.get(i + 1) : new long[] {0, part.getRows(), part.getBytes()};
+            indexWriter.append(name).append(",").append(run).append(",").append(start[0]).append(",")
+                    .append(firstRow + start[1]).append(",").append(end[1] - start[1]).append(",")
+                    .append(runOffset).append(",").append(runOffset < 0 ? -1 : start[2]).append(",")
+                    .append(runOffset < 0 ? -1 : end[2] - start[2]).append("\n");
+        }
+        fileRows.put(name, firstRow + part.getRows());
+    }
+
+    /**
+     * Writes the rest of the index and closes the file.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    @Override
+    public void close() throws IOException {
+        indexWriter.close();
+    }
+}
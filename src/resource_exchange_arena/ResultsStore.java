@@ -0,0 +1,206 @@
+package resource_exchange_arena;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+
+class ResultsStore {
+    // The position of each value in the rows of the index.
+    private static final int RUN = 0;
+    private static final int DAY = 1;
+    private static final int ROW = 2;
+    private static final int ROWS = 3;
+    private static final int RUN_OFFSET = 4;
+    private static final int DAY_OFFSET = 5;
+    private static final int BYTES = 6;
+
+    private final String dataOutputFolder;
+
+    // The rows of the index of each data file, in the order the days appear in the data file.
+    private final HashMap<String, ArrayList<long[]>> index = new HashMap<>();
+
+    /**
+     * Reads the data files of an environment through the index written alongside them, so that the rows of a single
+     * simulation run, or of a single day across every run, are read without reading the rest of the data file. The
+     * csv files are read when they were written, compressed or not, otherwise the column files.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    ResultsStore(String dataOutputFolder) throws IOException {
+        this.dataOutputFolder = dataOutputFolder;
+        try (BufferedReader reader = new BufferedReader(
+                new FileReader(new File(dataOutputFolder, ResultsIndex.FILE_NAME)))) {
+            String line = reader.readLine();
+            if (!ResultsIndex.HEADER.equals(line)) {
+                throw new IOException("Unknown index " + ResultsIndex.FILE_NAME);
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                long[] entry = new long[values.length - 1];
+                for (int i = 1; i < values.length; i++) {
+                    entry[i - 1] = Long.parseLong(values[i]);
+                }
+                index.computeIfAbsent(values[0], name -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Reads every row of a single simulation run.
+     *
+     * @param name String representing the name of the data file.
+     * @param run Integer value identifying the simulation run.
+     * @return ArrayList Returns the values of each row, in the order they were written.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    ArrayList<double[]> readRun(String name, int run) throws IOException {
+        return read(name, run, 1, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Reads the rows of a single day from every simulation run that reached it.
+     *
+     * @param name String representing the name of the data file.
+     * @param day Integer value representing the day.
+     * @return ArrayList Returns the values of each row, in run order.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    ArrayList<double[]> readDay(String name, int day) throws IOException {
+        return read(name, 0, day, day, 0);
+    }
+
+    /**
+     * Reads the rows of a range of days, from a single simulation run or from every run. The rows of the Agents of a
+     * single type can be chosen in the data files with an agent type column, the rows of each day being read and
+     * then filtered as the Agents of every type are written together.
+     *
+     * @param name String representing the name of the data file.
+     * @param run Integer value identifying the simulation run, or 0 for every run.
+     * @param firstDay Integer value representing the first day to read.
+     * @param lastDay Integer value representing the last day to read.
+     * @param agentType Integer value representing the agent type whose rows are read, or 0 for every type.
+     * @return ArrayList Returns the values of each row, in the order they were written.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    ArrayList<double[]> read(String name, int run, int firstDay, int lastDay, int agentType) throws IOException {
+        String[][] columns = DataColumns.columns(name);
+        ArrayList<long[]> entries = index.get(name);
+        ArrayList<double[]> rows = new ArrayList<>();
+        if (columns == null || entries == null) {
+            return rows;
+        }
+
+        // The chosen days of each run follow one another in the data file, so each run is read in a single range.
+        long[] first = null;
+        long[] last = null;
+        for (long[] entry : entries) {
+            boolean chosen = (run == 0 || entry[RUN] == run) && entry[DAY] >= firstDay && entry[DAY] <= lastDay;
+            if (first != null && (!chosen || entry[RUN] != first[RUN])) {
+                readRange(name, columns, first, last, rows);
+                first = null;
+            }
+            if (chosen) {
+                if (first == null) {
+                    first = entry;
+                }
+                last = entry;
+            }
+        }
+        if (first != null) {
+            readRange(name, columns, first, last, rows);
+        }
+
+        int typeColumn = -1;
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i][0].equals("Agent Type")) {
+                typeColumn = i;
+            }
+        }
+        if (agentType != 0 && typeColumn >= 0) {
+            final int column = typeColumn;
+            rows.removeIf(values -> values[column] != agentType);
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the rows of consecutive days of a single simulation run.
+     *
+     * @param name String representing the name of the data file.
+     * @param columns The name and numpy type of each column of the data file.
+     * @param first The index of the first day to read.
+     * @param last The index of the last day to read.
+     * @param rows Used to store the values of each row read.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    private void readRange(String name, String[][] columns, long[] first, long[] last, ArrayList<double[]> rows)
+            throws IOException {
+        File csvFile = new File(dataOutputFolder, name + ".csv");
+        File compressedFile = new File(dataOutputFolder, name + ".csv.gz");
+        if (first[RUN_OFFSET] >= 0 && (csvFile.exists() || compressedFile.exists())) {
+            long dayOffset = first[DAY_OFFSET];
+            byte[] bytes = new byte[(int) (last[DAY_OFFSET] + last[BYTES] - dayOffset)];
+            if (csvFile.exists()) {
+                try (RandomAccessFile in = new RandomAccessFile(csvFile, "r")) {
+                    in.seek(first[RUN_OFFSET] + dayOffset);
+                    in.readFully(bytes);
+                }
+            } else {
+                // Each run begins a new gzip member, so decompressing can start at the run.
+                try (FileInputStream in = new FileInputStream(compressedFile)) {
+                    in.getChannel().position(first[RUN_OFFSET]);
+                    GZIPInputStream unzipped = new GZIPInputStream(in);
+                    unzipped.skipNBytes(dayOffset);
+                    if (unzipped.readNBytes(bytes, 0, bytes.length) < bytes.length) {
+                        throw new IOException(compressedFile.getName() + " does not match its index");
+                    }
+                }
+            }
+            for (String line : new String(bytes, StandardCharsets.US_ASCII).split("\n")) {
+                String[] values = line.split(",");
+                double[] row = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    row[i] = Double.parseDouble(values[i]);
+                }
+                rows.add(row);
+            }
+            return;
+        }
+
+        // The column files are fixed width, so the rows of the days are found from their position.
+        long firstRow = first[ROW];
+        int count = (int) (last[ROW] + last[ROWS] - firstRow);
+        double[][] values = new double[count][columns.length];
+        File[] columnFiles = ColumnarWriter.columnFiles(new File(dataOutputFolder, name + "_columns"), columns);
+        for (int i = 0; i < columns.length; i++) {
+            int size = ColumnarWriter.valueSize(columns[i][1]);
+            byte[] bytes = new byte[count * size];
+            try (RandomAccessFile in = new RandomAccessFile(columnFiles[i], "r")) {
+                in.seek(ColumnarWriter.NPY_HEADER_SIZE + firstRow * size);
+                in.readFully(bytes);
+            }
+            ByteBuffer column = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            for (int row = 0; row < count; row++) {
+                values[row][i] = size == 4 ? column.getInt() : column.getDouble();
+            }
+        }
+        for (double[] row : values) {
+            rows.add(row);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package resource_exchange_arena;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+class RunCheckpoint {
+    // Written at the start of every checkpoint file, changed whenever the layout of the file changes.
+    private static final int FORMAT_VERSION = 4;
+
+    private final File file;
+    private final File[] partFiles;
+    private final int checkpointDays;
+    private final long fingerprint;
+
+    // The state of the simulation run read from an existing checkpoint file.
+    private boolean resuming;
+    private int day;
+    private boolean takeover;
+    private int extention;
+    private boolean complete;
+    private long randomState;
+    private int[] agentIDs;
+    private int[] agentTypes;
+    private int[] socialCapital;
+    private byte[] favours;
+    private final ArrayList<ArrayList<Double>> keyDaysData = new ArrayList<>();
+    private final ArrayList<Integer> maxExchanges = new ArrayList<>();
+    private RunSummary runSummary;
+    private long[] partLengths;
+
+    /**
+     * Saves the full state of a simulation run to a binary file at the end of every given number of days, so that the
+     * run can be resumed if it is interrupted. When a checkpoint file already exists for the run, and was saved with
+     * the same parameters, the run is resumed from it. The resumed run gives exactly the same output as a run that was
+     * never interrupted.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param run Integer value identifying the simulation run.
+     * @param checkpointDays Integer value representing the number of days between each checkpoint.
+     * @param fingerprint Long value identifying the parameters of the environment, a checkpoint saved with different
+     *                    parameters is not resumed.
+     */
+    RunCheckpoint(String dataOutputFolder, int run, int checkpointDays, long fingerprint) {
+        file = new File(dataOutputFolder, "checkpoint.run" + run);
+        partFiles = SimulationRunOutput.partFiles(dataOutputFolder, run);
+        this.checkpointDays = checkpointDays;
+        this.fingerprint = fingerprint;
+
+        if (file.exists()) {
+            try {
+                resuming = load();
+            } catch (IOException e) {
+                resuming = false;
+            }
+            if (resuming) {
+                System.out.println("Resuming run " + run + " from day " + day + ".");
+            } else {
+                System.out.println("Error: Checkpoint For Run " + run + " Could Not Be Resumed, Starting Again");
+                keyDaysData.clear();
+                maxExchanges.clear();
+                runSummary = null;
+            }
+        }
+    }
+
+    /**
+     * Reads the checkpoint file.
+     *
+     * @return boolean Returns whether the checkpoint was saved with the same parameters and its output is intact.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    private boolean load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || in.readLong() != fingerprint) {
+                return false;
+            }
+            day = in.readInt();
+            takeover = in.readBoolean();
+            extention = in.readInt();
+            complete = in.readBoolean();
+            randomState = in.readLong();
+
+            int populationSize = in.readInt();
+            agentIDs = new int[populationSize];
+            agentTypes = new int[populationSize];
+            socialCapital = new int[populationSize];
+            for (int i = 0; i < populationSize; i++) {
+                agentIDs[i] = in.readInt();
+                agentTypes[i] = in.readInt();
+                socialCapital[i] = in.readInt();
+            }
+
+            favours = new byte[in.readInt()];
+            in.readFully(favours);
+
+            int keyDays = in.readInt();
+            for (int i = 0; i < keyDays; i++) {
+                ArrayList<Double> data = new ArrayList<>();
+                int values = in.readInt();
+                for (int j = 0; j < values; j++) {
+                    data.add(in.readDouble());
+                }
+                keyDaysData.add(data);
+            }
+            int days = in.readInt();
+            for (int i = 0; i < days; i++) {
+                maxExchanges.add(in.readInt());
+            }
+            if (in.readBoolean()) {
+                runSummary = new RunSummary();
+                runSummary.read(in);
+            }
+            // The output written up to the checkpoint must still exist for the run to carry on from it.
+            partLengths = new long[partFiles.length];
+            for (int i = 0; i < partFiles.length; i++) {
+                partLengths[i] = in.readLong();
+                if (partFiles[i].length() < partLengths[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for whether the simulation run is carrying on from a checkpoint.
+     *
+     * @return boolean Returns whether the run is being resumed.
+     */
+    boolean isResuming() {
+        return resuming;
+    }
+
+    /**
+     * Getter for whether the simulation run had already finished when it was checkpointed.
+     *
+     * @return boolean Returns whether the run is being resumed and has nothing left to simulate.
+     */
+    boolean isComplete() {
+        return resuming && complete;
+    }
+
+    /**
+     * Getter for whether a checkpoint should be saved at the end of a day.
+     *
+     * @param day Integer value representing the day that has just been simulated.
+     * @return boolean Returns whether a checkpoint is due.
+     */
+    boolean isDue(int day) {
+        return day % checkpointDays == 0;
+    }
+
+    /**
+     * Getter for the day the simulation run carries on from.
+     *
+     * @return int Returns the first day that has not yet been simulated.
+     */
+    int getDay() {
+        return day;
+    }
+
+    /**
+     * Getter for whether a strategy had taken over when the run was checkpointed.
+     *
+     * @return boolean Returns whether a strategy had taken over.
+     */
+    boolean getTakeover() {
+        return takeover;
+    }
+
+    /**
+     * Getter for the number of days simulated after a strategy took over when the run was checkpointed.
+     *
+     * @return int Returns the number of days simulated after the takeover.
+     */
+    int getExtention() {
+        return extention;
+    }
+
+    /**
+     * Getter for the key days data recorded before the checkpoint.
+     *
+     * @return ArrayList Returns the key days data recorded by the simulation run.
+     */
+    ArrayList<ArrayList<Double>> getKeyDaysData() {
+        return keyDaysData;
+    }
+
+    /**
+     * Getter for the maximum exchanges recorded before the checkpoint.
+     *
+     * @return ArrayList Returns the maximum exchange rounds recorded by the simulation run.
+     */
+    ArrayList<Integer> getMaxExchanges() {
+        return maxExchanges;
+    }
+
+    /**
+     * Getter for the values recorded for the summary before the checkpoint.
+     *
+     * @return RunSummary Returns the values recorded by the simulation run, or null when the summary is not written.
+     */
+    RunSummary getRunSummary() {
+        return runSummary;
+    }
+
+    /**
+     * Getter for the length of each part file when the checkpoint was saved.
+     *
+     * @return long[] Returns the length of each part file given by SimulationRunOutput.partFiles.
+     */
+    long[] getPartLengths() {
+        return partLengths;
+    }
+
+    /**
+     * Returns the Agents, the ledger of favours and the random number generator to the state they were in when the
+     * checkpoint was saved. The Agents must have been created in the same way as when the run began.
+     *
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
+     * @param agents Array List of all the agents that exist in the current simulation.
+     * @param agentRegistry Index of all the agents in the current simulation by their agentID.
+     * @param favourLedger The ledger of favours shared by all the agents, or null when social capital is not used.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void restore(
+            SimulationContext context,
+            ArrayList<Agent> agents,
+            AgentRegistry agentRegistry,
+            FavourLedger favourLedger
+    ) throws IOException {
+        context.setRandomState(randomState);
+
+        // The order of the list of Agents affects later shuffles, so it is restored along with each Agent.
+        agents.clear();
+        for (int i = 0; i < agentIDs.length; i++) {
+            Agent a = agentRegistry.get(agentIDs[i]);
+            a.setType(agentTypes[i]);
+            a.setUnspentSocialCapital(socialCapital[i]);
+            agents.add(a);
+        }
+
+        if (favourLedger != null) {
+            favourLedger.read(new DataInputStream(new ByteArrayInputStream(favours)));
+        }
+    }
+
+    /**
+     * Saves the state of the simulation run at the end of a day. The checkpoint is written to a temporary file first
+     * so that an interruption while saving leaves the previous checkpoint in place.
+     *
+     * @param day Integer value representing the first day that has not yet been simulated.
+     * @param takeover Boolean value representing whether a strategy has taken over.
+     * @param extention Integer value representing the number of days simulated after the takeover.
+     * @param complete Boolean value representing whether the run has finished.
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
+     * @param agents Array List of all the agents that exist in the current simulation.
+     * @param favourLedger The ledger of favours shared by all the agents, or null when social capital is not used.
+     * @param keyDaysData Stores the state of the simulation when a population takes over and when the simulation ends.
+     * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
+     * @param runSummary Records the values of each day that are averaged across simulation runs, or null when the
+     *                   summary is not written.
+     * @param writers The writers of the part files, null for part files that are not written.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void save(
+            int day,
+            boolean takeover,
+            int extention,
+            boolean complete,
+            SimulationContext context,
+            ArrayList<Agent> agents,
+            FavourLedger favourLedger,
+            ArrayList<ArrayList<Double>> keyDaysData,
+            ArrayList<Integer> maxExchanges,
+            RunSummary runSummary,
+            DataWriter... writers
+    ) throws IOException {
+        // Everything written so far must reach the part files before their lengths are recorded.
+        for (DataWriter writer : writers) {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        ByteArrayOutputStream favourBytes = new ByteArrayOutputStream();
+        if (favourLedger != null) {
+            try (DataOutputStream favourOut = new DataOutputStream(favourBytes)) {
+                favourLedger.write(favourOut);
+            }
+        }
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(day);
+            out.writeBoolean(takeover);
+            out.writeInt(extention);
+            out.writeBoolean(complete);
+            out.writeLong(context.getRandomState());
+
+            out.writeInt(agents.size());
+            for (Agent a : agents) {
+                out.writeInt(a.agentID);
+                out.writeInt(a.getAgentType());
+                out.writeInt(a.getUnspentSocialCapital());
+            }
+
+            out.writeInt(favourBytes.size());
+            favourBytes.writeTo(out);
+
+            out.writeInt(keyDaysData.size());
+            for (ArrayList<Double> data : keyDaysData) {
+                out.writeInt(data.size());
+                for (double value : data) {
+                    out.writeDouble(value);
+                }
+            }
+            out.writeInt(maxExchanges.size());
+            for (int exchanges : maxExchanges) {
+                out.writeInt(exchanges);
+            }
+            out.writeBoolean(runSummary != null);
+            if (runSummary != null) {
+                runSummary.write(out);
+            }
+            for (File partFile : partFiles) {
+                out.writeLong(partFile.length());
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Removes the checkpoint file once it is no longer needed.
+     */
+    void delete() {
+        if (file.exists() && !file.delete()) {
+            System.out.println("Error: Could Not Remove " + file.getName());
+        }
+    }
+}
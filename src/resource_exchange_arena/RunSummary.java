@@ -0,0 +1,261 @@
+package resource_exchange_arena;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+class RunSummary {
+    // The agent types that are summarised, in the order their columns are written.
+    static final int[] AGENT_TYPES = {ResourceExchangeArena.SOCIAL, ResourceExchangeArena.SELFISH};
+
+    // The share of the population and the average satisfaction of each agent type at the end of each day, the
+    // satisfaction is NaN when no Agents of the type exist.
+    private final ArrayList<double[]> days = new ArrayList<>();
+
+    // The average satisfaction of each agent type at the end of each exchange round of each day.
+    private final ArrayList<ArrayList<double[]>> rounds = new ArrayList<>();
+
+    // The satisfaction of every Agent of each type at the end of each day, as QuantileSketches written compactly.
+    private final ArrayList<byte[][]> distributions = new ArrayList<>();
+
+    // Reused to sketch the satisfaction of the Agents of each type on the current day.
+    private final QuantileSketch[] daySketches = new QuantileSketch[AGENT_TYPES.length];
+
+    // The number of Agents of each type on the current day, the types do not change until the day ends.
+    private final int[] population = new int[AGENT_TYPES.length];
+
+    /**
+     * Records the values of a single simulation run that are averaged across runs by the DailySummary of the
+     * environment. The values are kept until the run is added to the summary, so that runs carried out at the same
+     * time are still added in run order and the summary is the same however the runs are scheduled.
+     */
+    RunSummary() {
+        for (int i = 0; i < AGENT_TYPES.length; i++) {
+            daySketches[i] = new QuantileSketch();
+        }
+    }
+
+    /**
+     * Getter for the position of an agent type in AGENT_TYPES.
+     *
+     * @param agentType The agent type to find.
+     * @return int Returns the position of the agent type, or -1 when the type is not summarised.
+     */
+    static int typeIndex(int agentType) {
+        for (int i = 0; i < AGENT_TYPES.length; i++) {
+            if (AGENT_TYPES[i] == agentType) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts recording a new day, counting the Agents of each type.
+     *
+     * @param agents Array List of all the agents that exist in the current simulation.
+     */
+    void startDay(ArrayList<Agent> agents) {
+        Arrays.fill(population, 0);
+        for (Agent a : agents) {
+            int type = typeIndex(a.getAgentType());
+            if (type >= 0) {
+                population[type]++;
+            }
+        }
+
+        double[] dayValues = new double[AGENT_TYPES.length * 2];
+        for (int i = 0; i < AGENT_TYPES.length; i++) {
+            dayValues[i] = agents.isEmpty() ? 0.0 : (double) population[i] / agents.size();
+            dayValues[AGENT_TYPES.length + i] = Double.NaN;
+        }
+        days.add(dayValues);
+        rounds.add(new ArrayList<>());
+        for (QuantileSketch sketch : daySketches) {
+            sketch.clear();
+        }
+    }
+
+    /**
+     * Records the average satisfaction of an agent type at the end of an exchange round of the current day.
+     *
+     * @param exchange Integer value representing the exchange round, counted from 0.
+     * @param agentType The agent type the satisfaction belongs to.
+     * @param satisfaction Double value representing the average satisfaction of the Agents of the type.
+     */
+    void recordRound(int exchange, int agentType, double satisfaction) {
+        ArrayList<double[]> dayRounds = rounds.get(rounds.size() - 1);
+        while (dayRounds.size() <= exchange) {
+            double[] roundValues = new double[AGENT_TYPES.length];
+            Arrays.fill(roundValues, Double.NaN);
+            dayRounds.add(roundValues);
+        }
+        int type = typeIndex(agentType);
+        if (type >= 0 && population[type] > 0) {
+            dayRounds.get(exchange)[type] = satisfaction;
+        }
+    }
+
+    /**
+     * Records the average satisfaction of an agent type at the end of the current day.
+     *
+     * @param agentType The agent type the satisfaction belongs to.
+     * @param satisfaction Double value representing the average satisfaction of the Agents of the type.
+     */
+    void recordDay(int agentType, double satisfaction) {
+        int type = typeIndex(agentType);
+        if (type >= 0 && population[type] > 0) {
+            days.get(days.size() - 1)[AGENT_TYPES.length + type] = satisfaction;
+        }
+    }
+
+    /**
+     * Records the satisfaction of an Agent at the end of the current day.
+     *
+     * @param agentType The type of the Agent.
+     * @param satisfaction Double value representing the satisfaction of the Agent.
+     */
+    void recordAgent(int agentType, double satisfaction) {
+        int type = typeIndex(agentType);
+        if (type >= 0) {
+            daySketches[type].add(satisfaction);
+        }
+    }
+
+    /**
+     * Finishes recording the current day, keeping the satisfactions of the Agents of each type.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void endDay() throws IOException {
+        byte[][] dayDistributions = new byte[AGENT_TYPES.length][];
+        for (int i = 0; i < AGENT_TYPES.length; i++) {
+            ByteArrayOutputStream sketchBytes = new ByteArrayOutputStream();
+            try (DataOutputStream sketchOut = new DataOutputStream(sketchBytes)) {
+                daySketches[i].write(sketchOut);
+            }
+            dayDistributions[i] = sketchBytes.toByteArray();
+        }
+        distributions.add(dayDistributions);
+    }
+
+    /**
+     * Getter for the number of days recorded.
+     *
+     * @return int Returns the number of days recorded, the first being day 1.
+     */
+    int getDays() {
+        return days.size();
+    }
+
+    /**
+     * Getter for the share of the population of an agent type at the end of a day.
+     *
+     * @param day Integer value representing the day, counted from 1.
+     * @param type Integer value representing the position of the agent type in AGENT_TYPES.
+     * @return double Returns the share of the population between 0 and 1.
+     */
+    double getShare(int day, int type) {
+        return days.get(day - 1)[type];
+    }
+
+    /**
+     * Getter for the average satisfaction of an agent type at the end of a day.
+     *
+     * @param day Integer value representing the day, counted from 1.
+     * @param type Integer value representing the position of the agent type in AGENT_TYPES.
+     * @return double Returns the average satisfaction, or NaN when no Agents of the type existed.
+     */
+    double getSatisfaction(int day, int type) {
+        return days.get(day - 1)[AGENT_TYPES.length + type];
+    }
+
+    /**
+     * Getter for the average satisfaction of each agent type at the end of each exchange round of a day.
+     *
+     * @param day Integer value representing the day, counted from 1.
+     * @return ArrayList Returns the average satisfaction of each agent type for each round, NaN when no Agents of the
+     *                   type existed.
+     */
+    ArrayList<double[]> getRounds(int day) {
+        return rounds.get(day - 1);
+    }
+
+    /**
+     * Getter for the satisfaction of every Agent of an agent type at the end of a day.
+     *
+     * @param day Integer value representing the day, counted from 1.
+     * @param type Integer value representing the position of the agent type in AGENT_TYPES.
+     * @return byte[] Returns the QuantileSketch of the satisfactions, as written by QuantileSketch.write.
+     */
+    byte[] getDistribution(int day, int type) {
+        return distributions.get(day - 1)[type];
+    }
+
+    /**
+     * Writes every value recorded, used to checkpoint the simulation run.
+     *
+     * @param out The stream to write to.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(days.size());
+        for (int day = 0; day < days.size(); day++) {
+            for (double value : days.get(day)) {
+                out.writeDouble(value);
+            }
+            out.writeInt(rounds.get(day).size());
+            for (double[] roundValues : rounds.get(day)) {
+                for (double value : roundValues) {
+                    out.writeDouble(value);
+                }
+            }
+            for (byte[] distribution : distributions.get(day)) {
+                out.writeInt(distribution.length);
+                out.write(distribution);
+            }
+        }
+    }
+
+    /**
+     * Restores the values written by write into an empty summary, used to resume the simulation run from a
+     * checkpoint.
+     *
+     * @param in The stream to read from.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void read(DataInputStream in) throws IOException {
+        int dayCount = in.readInt();
+        for (int day = 0; day < dayCount; day++) {
+            double[] dayValues = new double[AGENT_TYPES.length * 2];
+            for (int i = 0; i < dayValues.length; i++) {
+                dayValues[i] = in.readDouble();
+            }
+            days.add(dayValues);
+
+            ArrayList<double[]> dayRounds = new ArrayList<>();
+            int roundCount = in.readInt();
+            for (int round = 0; round < roundCount; round++) {
+                double[] roundValues = new double[AGENT_TYPES.length];
+                for (int i = 0; i < roundValues.length; i++) {
+                    roundValues[i] = in.readDouble();
+                }
+                dayRounds.add(roundValues);
+            }
+            rounds.add(dayRounds);
+
+            byte[][] dayDistributions = new byte[AGENT_TYPES.length][];
+            for (int i = 0; i < AGENT_TYPES.length; i++) {
+                dayDistributions[i] = new byte[in.readInt()];
+                in.readFully(dayDistributions[i]);
+            }
+            distributions.add(dayDistributions);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package resource_exchange_arena;
+
+class RunningStatistics {
+    // The number of values added, their mean and the sum of the squared differences from the mean.
+    private int count;
+    private double mean;
+    private double m2;
+
+    /**
+     * Adds a value, updating the mean and variance using Welford's method so that no values need to be kept and the
+     * variance stays accurate when the values are close together.
+     *
+     * @param value The value to add.
+     */
+    void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Getter for the number of values added.
+     *
+     * @return int Returns the number of values added.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Getter for the mean of the values added.
+     *
+     * @return double Returns the mean, or 0 when no values have been added.
+     */
+    double getMean() {
+        return mean;
+    }
+
+    /**
+     * Getter for the sample standard deviation of the values added.
+     *
+     * @return double Returns the standard deviation, or 0 when fewer than two values have been added.
+     */
+    double getStandardDeviation() {
+        if (count < 2) {
+            return 0.0;
+        }
+        return Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * Getter for the half width of the 95% confidence interval of the mean, using the normal approximation.
+     *
+     * @return double Returns the distance either side of the mean covered by the confidence interval, or 0 when fewer
+     *                than two values have been added.
+     */
+    double getConfidenceInterval() {
+        if (count < 2) {
+            return 0.0;
+        }
+        return 1.96 * getStandardDeviation() / Math.sqrt(count);
+    }
+}
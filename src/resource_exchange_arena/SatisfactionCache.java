@@ -0,0 +1,238 @@
+package resource_exchange_arena;
+
+class SatisfactionCache {
+    private final TimeSlotStore requestedTimeSlots;
+    private final TimeSlotStore allocatedTimeSlots;
+    private final double[] satisfactionCurve;
+    private final int numberOfTimeSlotsWanted;
+    private final int uniqueTimeSlots;
+
+    // Potential satisfaction each time-slot could give based on its proximity to the requested time-slots, indexed by
+    // time-slot. Index 0 is never requested and so always gives no satisfaction.
+    private final double[] timeSlotSatisfactions;
+
+    // The number of allocated time-slots that match a request, and the number of unrequested allocated time-slots
+    // that sit at each point of the satisfaction curve.
+    private int matchedTimeSlots;
+    private final int[] curvePointCounts;
+    private final int[] workingCurvePointCounts;
+    private double satisfaction;
+
+    /**
+     * Keeps an Agents current satisfaction up to date as its allocation changes, so that the effect of a single
+     * exchange can be found without recalculating the satisfaction of the whole allocation.
+     *
+     * @param requestedTimeSlots The time-slots requested by the Agent.
+     * @param allocatedTimeSlots The time-slots allocated to the Agent, changes should be made through this cache.
+     * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the
+     *                          agents preferences.
+     * @param numberOfTimeSlotsWanted Integer value representing the number of time-slots the Agent requires.
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     */
+    SatisfactionCache(
+            TimeSlotStore requestedTimeSlots,
+            TimeSlotStore allocatedTimeSlots,
+            double[] satisfactionCurve,
+            int numberOfTimeSlotsWanted,
+            int uniqueTimeSlots
+    ) {
+        this.requestedTimeSlots = requestedTimeSlots;
+        this.allocatedTimeSlots = allocatedTimeSlots;
+        this.satisfactionCurve = satisfactionCurve;
+        this.numberOfTimeSlotsWanted = numberOfTimeSlotsWanted;
+        this.uniqueTimeSlots = uniqueTimeSlots;
+
+        timeSlotSatisfactions = new double[uniqueTimeSlots + 1];
+        curvePointCounts = new int[satisfactionCurve.length];
+        workingCurvePointCounts = new int[satisfactionCurve.length];
+    }
+
+    /**
+     * Getter for the Agents satisfaction with its current allocation.
+     *
+     * @return double Returns the cached satisfaction, between 1 and 0.
+     */
+    double getSatisfaction() {
+        return satisfaction;
+    }
+
+    /**
+     * Recalculates the potential satisfaction of each time-slot after the Agent has made new requests, followed by the
+     * satisfaction of the current allocation.
+     */
+    void requestsChanged() {
+        for (int i = 0; i < timeSlotSatisfactions.length; i++) {
+            timeSlotSatisfactions[i] = 0.0;
+        }
+        for (int r = 0; r < requestedTimeSlots.size(); r++) {
+            int s = requestedTimeSlots.get(r);
+            timeSlotSatisfactions[s] = satisfactionCurve[0];
+
+            // Apply the adjustment values to neighboring elements, wrapping around the day.
+            for (int i = 1; i < satisfactionCurve.length; i++) {
+                int leftIndex = s - i;
+                int rightIndex = s + i;
+
+                if (leftIndex < 1) {leftIndex += uniqueTimeSlots;}
+                if (rightIndex > uniqueTimeSlots) {rightIndex -= uniqueTimeSlots;}
+
+                timeSlotSatisfactions[leftIndex] = Math.max(timeSlotSatisfactions[leftIndex], satisfactionCurve[i]);
+                timeSlotSatisfactions[rightIndex] = Math.max(timeSlotSatisfactions[rightIndex], satisfactionCurve[i]);
+            }
+        }
+        allocationChanged();
+    }
+
+    /**
+     * Recalculates the cached satisfaction after the Agents allocation has been replaced.
+     */
+    void allocationChanged() {
+        matchedTimeSlots = countCurvePoints(allocatedTimeSlots, curvePointCounts);
+        satisfaction = sumSatisfaction(matchedTimeSlots, curvePointCounts);
+    }
+
+    /**
+     * Calculates the satisfaction the Agent would have with any given set of time-slots.
+     *
+     * @param timeSlots The set of time-slots to consider.
+     * @return double Returns the satisfaction with the time-slots given, between 1 and 0.
+     */
+    double evaluate(TimeSlotStore timeSlots) {
+        int matched = countCurvePoints(timeSlots, workingCurvePointCounts);
+        return sumSatisfaction(matched, workingCurvePointCounts);
+    }
+
+    /**
+     * Getter for the satisfaction added by each copy of a time-slot that is allocated without matching a request,
+     * before it is divided by the number of time-slots wanted. Any copies of a requested time-slot beyond the number
+     * requested also count as unrequested.
+     *
+     * @param timeSlot The time-slot to consider.
+     * @return double Returns the satisfaction added by each unrequested copy of the time-slot.
+     */
+    double unrequestedValue(int timeSlot) {
+        double value = 0;
+        for (int i = 1; i < satisfactionCurve.length; i++) {
+            if (timeSlotSatisfactions[timeSlot] == satisfactionCurve[i]) {
+                value += satisfactionCurve[i];
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Calculates the satisfaction the Agent would have if one of its allocated time-slots was exchanged for another,
+     * without making the exchange.
+     *
+     * @param removedTimeSlot An allocated time-slot that would be given away.
+     * @param addedTimeSlot The time-slot that would be received.
+     * @return double Returns the satisfaction after the potential exchange, between 1 and 0.
+     */
+    double evaluateSwap(int removedTimeSlot, int addedTimeSlot) {
+        if (removedTimeSlot == addedTimeSlot) {
+            return satisfaction;
+        }
+        System.arraycopy(curvePointCounts, 0, workingCurvePointCounts, 0, curvePointCounts.length);
+        int matched = matchedTimeSlots
+                + adjustTimeSlot(removedTimeSlot, -1, workingCurvePointCounts)
+                + adjustTimeSlot(addedTimeSlot, 1, workingCurvePointCounts);
+        return sumSatisfaction(matched, workingCurvePointCounts);
+    }
+
+    /**
+     * Exchanges one of the Agents allocated time-slots for another and updates the cached satisfaction in place.
+     *
+     * @param removedTimeSlot An allocated time-slot that is given away.
+     * @param addedTimeSlot The time-slot that is received.
+     */
+    void swap(int removedTimeSlot, int addedTimeSlot) {
+        if (!allocatedTimeSlots.contains(removedTimeSlot)) {
+            return;
+        }
+        if (removedTimeSlot != addedTimeSlot) {
+            matchedTimeSlots += adjustTimeSlot(removedTimeSlot, -1, curvePointCounts);
+            matchedTimeSlots += adjustTimeSlot(addedTimeSlot, 1, curvePointCounts);
+            satisfaction = sumSatisfaction(matchedTimeSlots, curvePointCounts);
+        }
+        allocatedTimeSlots.swap(removedTimeSlot, addedTimeSlot);
+    }
+
+    /**
+     * Moves the contribution of a single time-slot between curve points as if one copy of it was added to or removed
+     * from the allocation. Adjustments to different time-slots are independent of each other, so a removal and an
+     * addition can be applied one after the other.
+     *
+     * @param timeSlot The time-slot being added or removed.
+     * @param change 1 when a copy is added, -1 when a copy is removed.
+     * @param counts The curve point counts to adjust.
+     * @return int Returns the change to the number of allocated time-slots that match a request.
+     */
+    private int adjustTimeSlot(int timeSlot, int change, int[] counts) {
+        int held = allocatedTimeSlots.count(timeSlot);
+        int wanted = requestedTimeSlots.count(timeSlot);
+
+        int matchedBefore = Math.min(held, wanted);
+        int matchedAfter = Math.min(held + change, wanted);
+        int unrequestedChange = ((held + change) - matchedAfter) - (held - matchedBefore);
+
+        if (unrequestedChange != 0) {
+            for (int i = 1; i < satisfactionCurve.length; i++) {
+                if (timeSlotSatisfactions[timeSlot] == satisfactionCurve[i]) {
+                    counts[i] += unrequestedChange;
+                }
+            }
+        }
+        return matchedAfter - matchedBefore;
+    }
+
+    /**
+     * Counts the time-slots that match the Agents requests, and the unrequested time-slots that sit at each point of
+     * the satisfaction curve.
+     *
+     * @param timeSlots The set of time-slots to consider.
+     * @param counts Filled with the number of unrequested time-slots at each point of the satisfaction curve.
+     * @return int Returns the number of time-slots that match a request.
+     */
+    private int countCurvePoints(TimeSlotStore timeSlots, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        int matched = 0;
+        for (int timeSlot = 0; timeSlot <= uniqueTimeSlots; timeSlot++) {
+            int held = timeSlots.count(timeSlot);
+            if (held == 0) {
+                continue;
+            }
+            int matchedHere = Math.min(held, requestedTimeSlots.count(timeSlot));
+            matched += matchedHere;
+
+            int unrequested = held - matchedHere;
+            if (unrequested > 0) {
+                for (int i = 1; i < satisfactionCurve.length; i++) {
+                    if (timeSlotSatisfactions[timeSlot] == satisfactionCurve[i]) {
+                        counts[i] += unrequested;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Totals the satisfaction given by matched time-slots and unrequested time-slots on the satisfaction curve. The
+     * values are always added in the same order so that equal allocations always give identical satisfaction values.
+     *
+     * @param matched The number of time-slots that match a request.
+     * @param counts The number of unrequested time-slots at each point of the satisfaction curve.
+     * @return double Returns the satisfaction, between 1 and 0.
+     */
+    private double sumSatisfaction(int matched, int[] counts) {
+        double total = matched;
+        for (int i = 1; i < satisfactionCurve.length; i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                total += satisfactionCurve[i];
+            }
+        }
+        return total / numberOfTimeSlotsWanted;
+    }
+}
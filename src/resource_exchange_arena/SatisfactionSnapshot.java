@@ -0,0 +1,123 @@
+package resource_exchange_arena;
+
+import java.util.ArrayList;
+
+class SatisfactionSnapshot {
+    // The satisfaction of every Agent in the order of the list of agents, and indexed by agentID.
+    private final double[] satisfactions;
+    private final double[] satisfactionsByID;
+
+    // The satisfactions of the Agents of each type in the order of the list of agents, indexed by agent type.
+    private final double[][] typeSatisfactions;
+    private final int[] typeSizes;
+
+    /**
+     * Takes the satisfaction of every Agent once, so that every statistic of the population, and of each agent type,
+     * is calculated from the same values without asking each Agent again. The statistics are the same as calculating
+     * them from the Agents directly, as the values are added up in the same order.
+     *
+     * @param agents Array List of all the agents that exist in the current simulation.
+     */
+    SatisfactionSnapshot(ArrayList<Agent> agents) {
+        int highestType = 0;
+        int highestID = 0;
+        for (Agent a : agents) {
+            highestType = Math.max(highestType, a.getAgentType());
+            highestID = Math.max(highestID, a.agentID);
+        }
+
+        satisfactions = new double[agents.size()];
+        satisfactionsByID = new double[highestID + 1];
+        typeSatisfactions = new double[highestType + 1][];
+        typeSizes = new int[highestType + 1];
+        for (int i = 0; i < agents.size(); i++) {
+            Agent a = agents.get(i);
+            double satisfaction = a.calculateSatisfaction(null);
+            satisfactions[i] = satisfaction;
+            satisfactionsByID[a.agentID] = satisfaction;
+            typeSizes[a.getAgentType()]++;
+        }
+
+        for (int type = 0; type <= highestType; type++) {
+            typeSatisfactions[type] = new double[typeSizes[type]];
+            typeSizes[type] = 0;
+        }
+        for (int i = 0; i < agents.size(); i++) {
+            int type = agents.get(i).getAgentType();
+            typeSatisfactions[type][typeSizes[type]++] = satisfactions[i];
+        }
+    }
+
+    /**
+     * Getter for the satisfaction of an Agent.
+     *
+     * @param agentID Integer value identifying the Agent.
+     * @return double Returns the satisfaction of the Agent when the snapshot was taken.
+     */
+    double getSatisfaction(int agentID) {
+        return satisfactionsByID[agentID];
+    }
+
+    /**
+     * Getter for the number of Agents of an agent type.
+     *
+     * @param agentType The agent type to count.
+     * @return int Returns the number of Agents of the type.
+     */
+    int size(int agentType) {
+        return agentType < typeSizes.length ? typeSizes[agentType] : 0;
+    }
+
+    /**
+     * Calculates the average satisfaction of all Agents.
+     *
+     * @return Double Returns the average satisfaction between 0 and 1 of all agents in the simulation.
+     */
+    double averageSatisfaction() {
+        return CalculateSatisfaction.averageSatisfaction(satisfactions, satisfactions.length);
+    }
+
+    /**
+     * Calculates the average satisfaction of the Agents of an agent type.
+     *
+     * @param agentType The type for which to calculate the average satisfaction.
+     * @return Double Returns the average satisfaction between 0 and 1 of all agents of the given type.
+     */
+    double averageSatisfaction(int agentType) {
+        if (size(agentType) == 0) {
+            return 0.0;
+        }
+        return CalculateSatisfaction.averageSatisfaction(typeSatisfactions[agentType], typeSizes[agentType]);
+    }
+
+    /**
+     * Calculates the standard deviation of the satisfactions of the Agents of an agent type.
+     *
+     * @param agentType The type for which to calculate the standard deviation.
+     * @return Double Returns the standard deviation of the satisfactions of all agents of the given type.
+     */
+    double satisfactionStandardDeviation(int agentType) {
+        if (size(agentType) == 0) {
+            return 0.0;
+        }
+        return CalculateSatisfaction.satisfactionStandardDeviation(
+                typeSatisfactions[agentType], typeSizes[agentType], averageSatisfaction(agentType));
+    }
+
+    /**
+     * Calculates the quartile ranges, min, max, median and 95th percentile of the satisfactions of the Agents of an
+     * agent type.
+     *
+     * @param agentType The agent type for which to calculate the various values.
+     * @return Double[] Returns the quartile ranges, min, max, median and 95th percentile satisfaction values for
+     *         agents of the given type.
+     */
+    double[] statisticalValues(int agentType) {
+        if (size(agentType) == 0) {
+            return new double[6];
+        }
+        // The values are reordered to find the statistics, so a copy is used to keep the order the averages use.
+        double[] values = typeSatisfactions[agentType].clone();
+        return CalculateSatisfaction.statisticalValues(values, values.length);
+    }
+}
@@ -0,0 +1,315 @@
+package resource_exchange_arena;
+
+import java.util.List;
+
+class SimulationContext {
+    // Odd constant used by SplitMix64 to step between seeds, also used here to separate environments and runs.
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // The error of Stirling's approximation of log(k!) for k below 10.
+    private static final double[] STIRLING_CORRECTIONS = {
+            0.08106146679532726, 0.04134069595540929, 0.02767792568499834, 0.02079067210376509,
+            0.01664469118982119, 0.01387612882307075, 0.01189670994589177, 0.01041126526197209,
+            0.009255462182712733, 0.008330563433362871
+    };
+
+    final long masterSeed;
+    final int environment;
+    final int run;
+
+    // Position of the generator used for all randomness within the simulation run. The generator is the same
+    // SplitMix64 generator as SplittableRandom, drawing the same numbers, but its state can be saved and restored.
+    private long state;
+
+    /**
+     * Holds the random number generator used by a single simulation run. The generator is seeded only from the master
+     * seed, the environment and the run, so a run gives the same results whether all runs are carried out, they are
+     * carried out at the same time, or it is replayed on its own.
+     *
+     * @param masterSeed Long value given by the user to replicate a previous set of simulations.
+     * @param environment Integer value identifying the environment version within the set of simulations.
+     * @param run Integer value identifying the simulation run within the environment.
+     */
+    SimulationContext(long masterSeed, int environment, int run) {
+        this.masterSeed = masterSeed;
+        this.environment = environment;
+        this.run = run;
+        state = deriveSeed(masterSeed, environment, run);
+    }
+
+    /**
+     * Derives the seed of a single simulation run, mixing in each part in turn so that nearby master seeds,
+     * environments and runs give unrelated streams.
+     *
+     * @param masterSeed Long value given by the user to replicate a previous set of simulations.
+     * @param environment Integer value identifying the environment version within the set of simulations.
+     * @param run Integer value identifying the simulation run within the environment.
+     * @return long Returns the seed for the simulation run.
+     */
+    static long deriveSeed(long masterSeed, int environment, int run) {
+        long seed = mix(masterSeed + GOLDEN_GAMMA);
+        seed = mix(seed + environment * GOLDEN_GAMMA);
+        return mix(seed + run * GOLDEN_GAMMA);
+    }
+
+    /**
+     * The SplitMix64 finaliser, spreads every bit of the input across the output.
+     *
+     * @param z The value to mix.
+     * @return long Returns the mixed value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The finaliser used by SplittableRandom to produce 32 bit values.
+     *
+     * @param z The value to mix.
+     * @return int Returns the upper 32 bits of the mixed value.
+     */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Getter for the position of the generator, used to checkpoint the simulation run.
+     *
+     * @return long Returns the state of the generator.
+     */
+    long getRandomState() {
+        return state;
+    }
+
+    /**
+     * Moves the generator to a saved position, used to resume the simulation run from a checkpoint.
+     *
+     * @param state The state of the generator given by getRandomState.
+     */
+    void setRandomState(long state) {
+        this.state = state;
+    }
+
+    /**
+     * Draws 32 random bits.
+     *
+     * @return int Returns a random integer.
+     */
+    private int nextInt() {
+        state += GOLDEN_GAMMA;
+        return mix32(state);
+    }
+
+    /**
+     * Draws a random integer.
+     *
+     * @param bound The upper bound, must be positive.
+     * @return int Returns an integer between 0 (inclusive) and bound (exclusive).
+     */
+    int nextInt(int bound) {
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            // Powers of two simply take the lowest bits.
+            return r & m;
+        }
+        // Otherwise values from the incomplete final block of the range are rejected so that every result is equally
+        // likely.
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+        }
+        return r;
+    }
+
+    /**
+     * Draws a random double.
+     *
+     * @return double Returns a double between 0 (inclusive) and 1 (exclusive).
+     */
+    double nextDouble() {
+        state += GOLDEN_GAMMA;
+        return (mix(state) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Draws the number of successes in a number of independent trials, each succeeding with the same probability.
+     * Small means are found by walking the probabilities of each number of successes in turn, larger ones using
+     * Hörmann's BTRD rejection method, so the time taken does not grow with the number of trials.
+     *
+     * @param trials Integer value representing the number of trials, must not be negative.
+     * @param probability Double value representing the chance of each trial succeeding, between 0 and 1.
+     * @return int Returns a number of successes between 0 and trials (inclusive).
+     */
+    int nextBinomial(int trials, double probability) {
+        if (trials == 0 || probability <= 0) {
+            return 0;
+        }
+        if (probability >= 1) {
+            return trials;
+        }
+        // Both methods expect the chance of success to be at most a half, otherwise failures are counted instead.
+        if (probability > 0.5) {
+            return trials - nextBinomial(trials, 1 - probability);
+        }
+        if (trials * probability < 10) {
+            return binomialInversion(trials, probability);
+        }
+        return binomialRejection(trials, probability);
+    }
+
+    /**
+     * Draws a binomial number of successes by inversion, for a mean of less than 10.
+     *
+     * @param trials Integer value representing the number of trials.
+     * @param probability Double value representing the chance of each trial succeeding, at most a half.
+     * @return int Returns the number of successes.
+     */
+    private int binomialInversion(int trials, double probability) {
+        double q = 1 - probability;
+        double s = probability / q;
+        double a = (trials + 1) * s;
+        while (true) {
+            double r = Math.pow(q, trials);
+            double u = nextDouble();
+            int successes = 0;
+            while (u > r) {
+                u -= r;
+                successes++;
+                if (successes > trials) {
+                    break;
+                }
+                r *= a / successes - s;
+            }
+            // Rounding errors can very rarely leave the selector beyond every outcome, in which case it is drawn again.
+            if (successes <= trials) {
+                return successes;
+            }
+        }
+    }
+
+    /**
+     * Draws a binomial number of successes with the BTRD method of Hörmann, "The generation of binomial random
+     * variates", 1993, for a mean of at least 10.
+     *
+     * @param trials Integer value representing the number of trials.
+     * @param probability Double value representing the chance of each trial succeeding, at most a half.
+     * @return int Returns the number of successes.
+     */
+    private int binomialRejection(int trials, double probability) {
+        int m = (int) ((trials + 1) * probability);
+        double r = probability / (1 - probability);
+        double nr = (trials + 1) * r;
+        double npq = trials * probability * (1 - probability);
+        double sqrtNpq = Math.sqrt(npq);
+        double b = 1.15 + 2.53 * sqrtNpq;
+        double a = -0.0873 + 0.0248 * b + 0.01 * probability;
+        double c = trials * probability + 0.5;
+        double alpha = (2.83 + 5.1 / b) * sqrtNpq;
+        double vr = 0.92 - 4.2 / b;
+        double urvr = 0.86 * vr;
+
+        while (true) {
+            double v = nextDouble();
+            double u;
+            if (v <= urvr) {
+                // Most draws fall inside a triangle beneath the distribution and are accepted straight away.
+                u = v / vr - 0.43;
+                return (int) Math.floor((2 * a / (0.5 - Math.abs(u)) + b) * u + c);
+            }
+            if (v >= vr) {
+                u = nextDouble() - 0.5;
+            } else {
+                u = v / vr - 0.93;
+                u = Math.signum(u) * 0.5 - u;
+                v = nextDouble() * vr;
+            }
+
+            double us = 0.5 - Math.abs(u);
+            int k = (int) Math.floor((2 * a / us + b) * u + c);
+            if (k < 0 || k > trials) {
+                continue;
+            }
+            v = v * alpha / (a / (us * us) + b);
+            int km = Math.abs(k - m);
+            if (km <= 15) {
+                // Close to the mode the ratio of the probabilities of k and m is worked out exactly.
+                double f = 1;
+                if (m < k) {
+                    for (int i = m + 1; i <= k; i++) {
+                        f *= nr / i - r;
+                    }
+                } else if (m > k) {
+                    for (int i = k + 1; i <= m; i++) {
+                        v *= nr / i - r;
+                    }
+                }
+                if (v <= f) {
+                    return k;
+                }
+                continue;
+            }
+
+            // Further out the draw is first compared with bounds of the log of the ratio, and only worked out in full
+            // when it falls between them.
+            v = Math.log(v);
+            double rho = (km / npq) * (((km / 3.0 + 0.625) * km + 1.0 / 6.0) / npq + 0.5);
+            double t = -km * (double) km / (2 * npq);
+            if (v < t - rho) {
+                return k;
+            }
+            if (v > t + rho) {
+                continue;
+            }
+            double nm = trials - m + 1;
+            double h = (m + 0.5) * Math.log((m + 1) / (r * nm)) + stirlingCorrection(m) + stirlingCorrection(trials - m);
+            double nk = trials - k + 1;
+            if (v <= h + (trials + 1) * Math.log(nm / nk) + (k + 0.5) * Math.log(nk * r / (k + 1))
+                    - stirlingCorrection(k) - stirlingCorrection(trials - k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Getter for the error of Stirling's approximation of the log of a factorial.
+     *
+     * @param k Integer value whose factorial is approximated.
+     * @return double Returns log(k!) less Stirling's approximation of it.
+     */
+    private static double stirlingCorrection(int k) {
+        if (k < STIRLING_CORRECTIONS.length) {
+            return STIRLING_CORRECTIONS[k];
+        }
+        double next = k + 1.0;
+        double squared = next * next;
+        return (1.0 / 12 - (1.0 / 360 - 1.0 / 1260 / squared) / squared) / next;
+    }
+
+    /**
+     * Shuffles a list in place, with every ordering equally likely.
+     *
+     * @param list The list to shuffle.
+     */
+    <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(j, list.set(i, list.get(j)));
+        }
+    }
+
+    /**
+     * Shuffles an array in place, drawing the same random numbers as shuffling a list of the same length.
+     *
+     * @param values The array to shuffle.
+     */
+    void shuffle(int[] values) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
@@ -1,20 +1,19 @@
 package resource_exchange_arena;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 
 class SimulationRun {
+    // The number of successful exchanges made over every day the run simulated, since it began or was resumed.
+    long successfulExchanges;
+
     /**
      * Each Simulation run with the same parameters runs as an isolated instance although data is recorded in a single
      * location.
      *
-     * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents
-     *                    are split equally between the curves.
-     * @param totalDemandValues Double values represeneting the sum of all values in their associated demand curves.
-     * @param availabilityCurve Integer array representing the amount of energy available at each time-slot.
-     * @param totalAvailability Integer value representing the total energy available throughout the day.
+     * @param demandSamplers Samplers for the demand curves used by the agents, when multiple curves are used the
+     *                       agents are split equally between the curves.
+     * @param availabilitySampler Sampler for the amount of energy available at each time-slot.
      * @param days Integer value representing the number of days to be simulated.
      * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
      * @param populationSize Integer value representing the size of the initial agent population.
@@ -35,16 +34,23 @@ class SimulationRun {
      * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
      * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day.
      * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+     * @param runSummary Records the values of each day that are averaged across simulation runs, or null when the
+     *                   summary is not written.
+     * @param run Integer value identifying the current simulation run.
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
      * @param β Double value that increases the the chance that agents will change their strategy.
      * @param satisfactionCurve Double array that determines the satisfaction fall off for slots received close to the agents preferences.
+     * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+     *                     near to requests using the satisfaction curve.
+     * @param checkpoint Saves the state of the run every so often and resumes the run from a saved state, or null when
+     *                   checkpoints are not used.
+     * @param outputSettings Determines which days and exchange rounds write per agent and each round data.
      * @exception IOException On input error.
      * @see IOException
      */
     SimulationRun(
-        double[][] demandCurves,
-        double[] totalDemandValues,
-        int [] availabilityCurve,
-        int totalAvailability,
+        AliasSampler[] demandSamplers,
+        AliasSampler availabilitySampler,
         int days,
         ArrayList<Integer> maxExchanges,
         int populationSize,
@@ -57,12 +63,17 @@ class SimulationRun {
         int selectedSingleAgentType,
         boolean socialCapital,
         ArrayList<ArrayList<Double>> keyDaysData,
-        FileWriter dailyDataWriter,
-        FileWriter perAgentDataCSVWriter,
-        FileWriter eachRoundDataCSVWriter,
+        DataWriter dailyDataWriter,
+        DataWriter perAgentDataCSVWriter,
+        DataWriter eachRoundDataCSVWriter,
+        RunSummary runSummary,
         int run,
+        SimulationContext context,
         double β,
-        double[] satisfactionCurve
+        double[] satisfactionCurve,
+        boolean exactOptimum,
+        RunCheckpoint checkpoint,
+        OutputSettings outputSettings
     ) throws IOException {
 
         // List of all the Agents that are part of the current simulation.
@@ -92,7 +103,10 @@ class SimulationRun {
                         satisfactionCurve
                 );
         }
-        Collections.shuffle(agents, ResourceExchangeArena.random);
+        context.shuffle(agents);
+
+        // Agents are looked up by their agentID throughout the run, regardless of the order of the list of agents.
+        AgentRegistry agentRegistry = new AgentRegistry(agents);
 
         // Set all agents to a single type, used for establishing baseline performance.
         if (singleAgentType && selectedSingleAgentType != 0) {
@@ -100,30 +114,48 @@ class SimulationRun {
                 a.setType(selectedSingleAgentType);
             }
         }   
-        
-        // Increment the simulations seed each run.
-        ResourceExchangeArena.seed++;
-        ResourceExchangeArena.random.setSeed(ResourceExchangeArena.seed);
 
-        // Initialise each Agents relations with each other Agent.
+
+        // Initialise each Agents relations with each other Agent, the favours are stored in a single ledger for the run.
+        FavourLedger favourLedger = socialCapital ? new FavourLedger(populationSize) : null;
         for (Agent a : agents) {
-            a.initializeFavoursStore(agents);
+            a.initializeFavoursStore(favourLedger);
         }
 
+        // The pool of available time-slots is refilled each day.
+        AvailabilityPool availabilityPool = new AvailabilityPool(uniqueTimeSlots, populationSize * slotsPerAgent);
+
         boolean complete = false;
         boolean takeover = false;
         int extention = 0;
         int day = 1;
+
+        // Carry on from where the run was checkpointed, the Agents are created as normal first so that they exist to be
+        // restored.
+        if (checkpoint != null && checkpoint.isResuming()) {
+            checkpoint.restore(context, agents, agentRegistry, favourLedger);
+            day = checkpoint.getDay();
+            takeover = checkpoint.getTakeover();
+            extention = checkpoint.getExtention();
+        }
+
         while (!complete) {
+            // Data that is not recorded today is neither calculated nor written.
+            boolean detailed = outputSettings.isDetailed(run, takeover, extention);
+            DataWriter agentDataWriter = null;
+            if (outputSettings.recordsAgentData(day, detailed)) {
+                agentDataWriter = perAgentDataCSVWriter;
+            }
+            int exchangeDataRounds = outputSettings.exchangeDataRounds(day, detailed);
+
             /*
             * Each Simulation run with the same parameters runs as an isolated instance although data is recorded in a
             * single location.
             *
-            * @param demandCurves Double arrays of demand used by the agents, when multiple curves are used the agents
-            *                    are split equally between the curves.
-            * @param totalDemandValues Double values represeneting the sum of all values in their associated demand curves.
-            * @param availabilityCurve Integer array representing the amount of energy available at each time-slot.
-            * @param totalAvailability Integer value representing the total energy available throughout the day.
+            * @param demandSamplers Samplers for the demand curves used by the agents, when multiple curves are used
+            *                       the agents are split equally between the curves.
+            * @param availabilitySampler Sampler for the amount of energy available at each time-slot.
+            * @param availabilityPool Reused to hold the time-slots available to be allocated each day.
             * @param day Integer value representing the current day being simulated.
             * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
             * @param populationSize Integer value representing the size of the initial agent population.
@@ -135,19 +167,27 @@ class SimulationRun {
             * @param uniqueAgentTypes Integer ArrayList containing each unique agent type that exists when the
             *                         simulation begins.
             * @param agents Array List of all the agents that exist in the current simulation.
+            * @param agentRegistry Index of all the agents in the current simulation by their agentID.
             * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
-            * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day.
+            * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day,
+            *                              or null when the day is not recorded.
             * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round.
+            * @param exchangeDataRounds Integer value representing the interval between exchange rounds that are
+            *                           recorded, or 0 when no rounds are recorded.
+            * @param runSummary Records the values of the day that are averaged across simulation runs, or null when
+            *                   the summary is not written.
             * @param run Integer value identifying the current simulation run.
+            * @param context The SimulationContext used for all random decisions within the current simulation run.
             * @param β Double value that increases the the chance that agents will change their strategy.
+            * @param exactOptimum Boolean value that determines whether the optimum allocation also counts time-slots
+            *                     near to requests using the satisfaction curve.
             * @exception IOException On input error.
             * @see IOException
             */
             Day current = new Day(
-                demandCurves,
-                totalDemandValues,
-                availabilityCurve,
-                totalAvailability,
+                demandSamplers,
+                availabilitySampler,
+                availabilityPool,
                 day,
                 maxExchanges,
                 populationSize,
@@ -156,12 +196,18 @@ class SimulationRun {
                 numberOfAgentsToEvolve,
                 uniqueAgentTypes,
                 agents,
+                agentRegistry,
                 dailyDataWriter,
-                perAgentDataCSVWriter,
+                agentDataWriter,
                 eachRoundDataCSVWriter,
+                exchangeDataRounds,
+                runSummary,
                 run,
-                β
+                context,
+                β,
+                exactOptimum
             );
+            successfulExchanges += current.successfulExchanges;
 
             if (((current.selPop == 0 || current.socPop == 0) || numberOfAgentsToEvolve == 0) && !takeover) {
                 takeover = true;
@@ -225,6 +271,25 @@ class SimulationRun {
             if (takeover) {
                 extention++;
             }
+
+            // The state of the run is saved at the end of every given number of days, and when the run is complete.
+            if (checkpoint != null && (complete || checkpoint.isDue(day - 1))) {
+                checkpoint.save(
+                        day,
+                        takeover,
+                        extention,
+                        complete,
+                        context,
+                        agents,
+                        favourLedger,
+                        keyDaysData,
+                        maxExchanges,
+                        runSummary,
+                        dailyDataWriter,
+                        perAgentDataCSVWriter,
+                        eachRoundDataCSVWriter
+                );
+            }
         }
     }
 }
@@ -0,0 +1,235 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+class SimulationRunOutput {
+    private final int run;
+    private final File[] parts;
+    private final boolean checkpointed;
+    private RunCheckpoint checkpoint;
+
+    // The writers of the simulation run hold its rows until the run is the next to be added to the environments output.
+    final PartWriter allDailyDataCSVWriter;
+    final PartWriter perAgentDataCSVWriter;
+    final PartWriter eachRoundDataCSVWriter;
+
+    // Record where each day of the run begins in the data files, so they can be indexed by run and day.
+    private IndexingWriter allDailyDataIndex;
+    private IndexingWriter perAgentDataIndex;
+    private IndexingWriter eachRoundDataIndex;
+
+    final ArrayList<ArrayList<Double>> keyDaysData = new ArrayList<>();
+    final ArrayList<Integer> maxExchanges = new ArrayList<>();
+    RunSummary runSummary;
+
+    /**
+     * Holds everything a single simulation run outputs until it can be added to the environments output, so that runs
+     * carried out at the same time never share a file. The run that is next to be added writes its rows straight to
+     * the environments data files, the others hold their rows in memory until their turn, see PartWriter. When
+     * checkpoints are used the rows of every run are also kept in part files alongside the environments data files.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param run Integer value identifying the simulation run.
+     * @param checkpointed Boolean value that determines whether the simulation run is checkpointed, in which case
+     *                     restore must be called before the run begins.
+     * @param outputSettings Determines whether the per agent and each round data are written, when either is not
+     *                       its writer is null, and whether the values averaged by the summary are recorded.
+     */
+    SimulationRunOutput(String dataOutputFolder, int run, boolean checkpointed, OutputSettings outputSettings) {
+        this.run = run;
+        this.checkpointed = checkpointed;
+        parts = partFiles(dataOutputFolder, run);
+
+        allDailyDataCSVWriter = outputSettings.openPart(DataColumns.DAILY_DATA, run, checkpointed ? parts[0] : null);
+        perAgentDataCSVWriter = !outputSettings.agentData ? null
+                : outputSettings.openPart(DataColumns.AGENT_DATA, run, checkpointed ? parts[1] : null);
+        eachRoundDataCSVWriter = !outputSettings.exchangeData ? null
+                : outputSettings.openPart(DataColumns.EXCHANGE_DATA, run, checkpointed ? parts[2] : null);
+        runSummary = outputSettings.summary ? new RunSummary() : null;
+    }
+
+    /**
+     * Getter for the part files of a simulation run, in which its rows are kept when checkpoints are used.
+     *
+     * @param dataOutputFolder String representing the folder containing the environments data files.
+     * @param run Integer value identifying the simulation run.
+     * @return File[] Returns the daily, per agent and each round part files, in that order, including those of data
+     *                files that are not written.
+     */
+    static File[] partFiles(String dataOutputFolder, int run) {
+        return new File[] {
+                new File(dataOutputFolder, DataColumns.DAILY_DATA + ".run" + run),
+                new File(dataOutputFolder, DataColumns.AGENT_DATA + ".run" + run),
+                new File(dataOutputFolder, DataColumns.EXCHANGE_DATA + ".run" + run)
+        };
+    }
+
+    /**
+     * Carries on from the output recorded up to the checkpoint of the simulation run, called by the run before it
+     * begins. Anything written to the part files after the checkpoint was saved is removed, as the run carries on from
+     * the checkpoint, and a run that is not being resumed starts with empty part files.
+     *
+     * @param checkpoint The checkpoint of the simulation run.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void restore(RunCheckpoint checkpoint) throws IOException {
+        this.checkpoint = checkpoint;
+        if (!checkpoint.isResuming()) {
+            for (File part : parts) {
+                Files.deleteIfExists(part.toPath());
+            }
+            return;
+        }
+
+        long[] partLengths = checkpoint.getPartLengths();
+        for (int i = 0; i < parts.length; i++) {
+            if (!parts[i].exists()) {
+                continue;
+            }
+            try (RandomAccessFile part = new RandomAccessFile(parts[i], "rw")) {
+                part.setLength(partLengths[i]);
+            }
+        }
+        keyDaysData.addAll(checkpoint.getKeyDaysData());
+        maxExchanges.addAll(checkpoint.getMaxExchanges());
+
+        // The values recorded for the summary before the checkpoint carry on being added to.
+        if (runSummary != null && checkpoint.getRunSummary() != null) {
+            runSummary = checkpoint.getRunSummary();
+        }
+    }
+
+    /**
+     * Ends the rows of the simulation run once it is complete.
+     *
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void close() throws IOException {
+        allDailyDataCSVWriter.close();
+        if (perAgentDataCSVWriter != null) {
+            perAgentDataCSVWriter.close();
+        }
+        if (eachRoundDataCSVWriter != null) {
+            eachRoundDataCSVWriter.close();
+        }
+    }
+
+    /**
+     * Makes the simulation run the next to be added to the environments output, once every run before it has been
+     * added. From then on the run writes its rows straight to the data files of the environment, after the rows it
+     * has held so far. Rows kept with a checkpoint are only added by mergeInto, once the run is complete.
+     *
+     * @param allDailyDataCSVWriter Used to store data ragarding the state of the system at the end of each day.
+     * @param perAgentDataCSVWriter Used to store data ragarding the state of the agent at the end of each day, or null
+     *                              when it is not written.
+     * @param eachRoundDataCSVWriter Used to store data ragarding the state of the system at the end of each round, or
+     *                               null when it is not written.
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    void stream(
+            DataWriter allDailyDataCSVWriter,
+            DataWriter perAgentDataCSVWriter,
+            DataWriter eachRoundDataCSVWriter
+    ) throws IOException {
+        allDailyDataIndex = new IndexingWriter(allDailyDataCSVWriter);
+        if (perAgentDataCSVWriter != null) {
+            perAgentDataIndex = new IndexingWriter(perAgentDataCSVWriter);
+        }
+        if (eachRoundDataCSVWriter != null) {
+            eachRoundDataIndex = new IndexingWriter(eachRoundDataCSVWriter);
+        }
+        if (!checkpointed) {
+            release();
+        }
+    }
+
+    /**
+     * Passes the rows of the simulation run on to the data files of the environment.
+     *
+     * @exception IOException On output error.
+     * @see IOException
+     */
+    private void release() throws IOException {
+        allDailyDataCSVWriter.release(allDailyDataIndex);
+        if (perAgentDataCSVWriter != null) {
+            perAgentDataCSVWriter.release(perAgentDataIndex);
+        }
+        if (eachRoundDataCSVWriter != null) {
+            eachRoundDataCSVWriter.release(eachRoundDataIndex);
+        }
+    }
+
+    /**
+     * Completes adding the output of the simulation run to the environments output, once stream has been called and
+     * the run is complete. Runs must be added in order for the output to match running them one after another.
+     * Without checkpoints the files of the run are removed straight away, otherwise the part files are kept with the
+     * checkpoint until remove is called so that the environment can be resumed.
+     *
+     * @param keyDaysData Stores the state of the simulation when a population takes over and when the simulation ends.
+     * @param maxExchanges Stores the highest number of exchange rounds reached each simulation.
+     * @param dailySummary Averages the values of each day across simulation runs, or null when the summary is not
+     *                     written.
+     * @param resultsIndex Indexes the data files of the environment by run and day.
+     * @exception IOException On input error.
+     * @see IOException
+     */
+    void mergeInto(
+            ArrayList<ArrayList<Double>> keyDaysData,
+            ArrayList<Integer> maxExchanges,
+            DailySummary dailySummary,
+            ResultsIndex resultsIndex
+    ) throws IOException {
+        if (checkpointed) {
+            release();
+        }
+
+        allDailyDataIndex.complete();
+        if (perAgentDataIndex != null) {
+            perAgentDataIndex.complete();
+        }
+        if (eachRoundDataIndex != null) {
+            eachRoundDataIndex.complete();
+        }
+        resultsIndex.add(DataColumns.DAILY_DATA, run, allDailyDataIndex);
+        if (perAgentDataIndex != null) {
+            resultsIndex.add(DataColumns.AGENT_DATA, run, perAgentDataIndex);
+        }
+        if (eachRoundDataIndex != null) {
+            resultsIndex.add(DataColumns.EXCHANGE_DATA, run, eachRoundDataIndex);
+        }
+
+        keyDaysData.addAll(this.keyDaysData);
+        maxExchanges.addAll(this.maxExchanges);
+        if (dailySummary != null) {
+            dailySummary.add(runSummary);
+        }
+
+        if (!checkpointed) {
+            remove();
+        }
+    }
+
+    /**
+     * Removes the files of the simulation run, and the checkpoint when there is one, once the environment no longer
+     * needs them.
+     */
+    void remove() {
+        allDailyDataCSVWriter.remove();
+        if (perAgentDataCSVWriter != null) {
+            perAgentDataCSVWriter.remove();
+        }
+        if (eachRoundDataCSVWriter != null) {
+            eachRoundDataCSVWriter.remove();
+        }
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+}
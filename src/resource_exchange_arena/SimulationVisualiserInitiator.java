@@ -1,13 +1,14 @@
 package resource_exchange_arena;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 class SimulationVisualiserInitiator {
     /**
-     * Begins python code that visualises the gathered data from the current environment being simulated.
+     * Submits python code that visualises the gathered data from the current environment being simulated. The
+     * visualisation runs in the background while the simulation carries on, writing its output to a log file in the
+     * environment folder.
      *
      * @param pythonExe String representing the system path to python environment executable.
      * @param pythonPath String representing the system path to the python data visualiser.
@@ -15,8 +16,7 @@ class SimulationVisualiserInitiator {
      * @param dataFile Stores all the data that can be analysed for each day.
      * @param typicalSocial The most average performing social run.
      * @param typicalSelfish The most average performing selfish run.
-     * @exception IOException On input error.
-     * @see IOException
+     * @param visualisationPool Carries out the visualisations of every environment version in the background.
      */
     SimulationVisualiserInitiator(
             String pythonExe,
@@ -24,9 +24,10 @@ class SimulationVisualiserInitiator {
             String folderName,
             File dataFile,
             double typicalSocial,
-            double typicalSelfish
-    ) throws IOException {
-        System.out.println("Starting typical run visualisation...");
+            double typicalSelfish,
+            VisualisationPool visualisationPool
+    ) {
+        System.out.println("Queueing typical run visualisation...");
 
         // Pass average satisfaction levels data to python to be visualised.
         List<String> satisfactionPythonArgs = new ArrayList<>();
@@ -40,18 +41,7 @@ class SimulationVisualiserInitiator {
         satisfactionPythonArgs.add(Double.toString(typicalSocial));
         satisfactionPythonArgs.add(Double.toString(typicalSelfish));
 
-        ProcessBuilder satisfactionBuilder = new ProcessBuilder(satisfactionPythonArgs);
-
-        // IO from the Python is shared with the same terminal as the Java code.
-        satisfactionBuilder.inheritIO();
-        satisfactionBuilder.redirectErrorStream(true);
-
-        Process satisfactionProcess = satisfactionBuilder.start();
-        try {
-            satisfactionProcess.waitFor();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        System.out.println("Visualisation complete.");
+        // Output from the Python is kept with the data it visualises, so that parallel visualisations do not mix.
+        visualisationPool.submit(folderName, satisfactionPythonArgs, new File(folderName, "typicalRun.log"));
     }
 }
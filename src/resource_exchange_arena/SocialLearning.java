@@ -11,21 +11,31 @@ class SocialLearning {
      * proportional to the difference between their individual satisfactions.
      *
      * @param agents Array List of all the agents that exist in the current simulation.
+     * @param agentRegistry Index of all the agents in the current simulation by their agentID.
      * @param slotsPerAgent Integer value representing the number of time-slots each agent requires.
      * @param numberOfAgentsToEvolve Integer value representing the number of Agents who's strategy may change at the
      *                               end of each day.
      * @param β Double value that increases the the chance that agents will change their strategy.
+     * @param context The SimulationContext used for all random decisions within the current simulation run.
+     * @param satisfactionSnapshot The satisfaction of each Agent at the end of the day.
      */
-    SocialLearning(ArrayList<Agent> agents, int slotsPerAgent, int numberOfAgentsToEvolve, double β) {
-        // Copy agents to store previous results, this needs to be a deep copy and so a new cloned agent is made.
+    SocialLearning(
+            ArrayList<Agent> agents,
+            AgentRegistry agentRegistry,
+            int slotsPerAgent,
+            int numberOfAgentsToEvolve,
+            double β,
+            SimulationContext context,
+            SatisfactionSnapshot satisfactionSnapshot
+    ) {
+        // Store each agents previous results, indexed by agentID - 1.
         int totalAgents = agents.size();
-        double[][] previousPerformances = new double[totalAgents][3];
-        for(Agent a: agents) {
-            double type = (double) a.getAgentType();
-            double sat = a.calculateSatisfaction(null);
+        double[][] previousPerformances = new double[totalAgents][2];
+        for (int agentID = 1; agentID <= agentRegistry.highestID(); agentID++) {
+            Agent a = agentRegistry.get(agentID);
 
-            previousPerformances[a.agentID-1][0] = type;
-            previousPerformances[a.agentID-1][1] = sat;
+            previousPerformances[agentID - 1][0] = (double) a.getAgentType();
+            previousPerformances[agentID - 1][1] = satisfactionSnapshot.getSatisfaction(agentID);
         }
 
         // Copy agents to store all agents that haven't yet been selected for social learning.
@@ -38,19 +48,19 @@ class SocialLearning {
         }
         for (int i = 0; i < learningSize; i++) {
             // Assign the selected agent another agents performance to 'retrospectively' observe.
-            int observedPerformance = ResourceExchangeArena.random.nextInt(totalAgents);
+            int observedPerformance = context.nextInt(totalAgents);
 
             // Select an agent to learn.
-            Agent learningAgent = unselectedAgents.get(ResourceExchangeArena.random.nextInt(unselectedAgents.size()));
+            Agent learningAgent = unselectedAgents.get(context.nextInt(unselectedAgents.size()));
 
             // Ensure the agent altering its strategy doesnt copy itself.
             while (learningAgent.agentID == observedPerformance) {
-                observedPerformance = ResourceExchangeArena.random.nextInt(totalAgents);
+                observedPerformance = context.nextInt(totalAgents);
             }
 
             // Copy the observed agents strategy if it is better than its own, with likelihood dependent on the
             // difference between the agents satisfaction and the observed satisfaction.
-            double learningAgentSatisfaction = learningAgent.calculateSatisfaction(null);
+            double learningAgentSatisfaction = satisfactionSnapshot.getSatisfaction(learningAgent.agentID);
             double observedAgentSatisfaction = previousPerformances[observedPerformance][1];
             if (Math.round(learningAgentSatisfaction * slotsPerAgent) < Math.round(observedAgentSatisfaction * slotsPerAgent)) {
                 double difference = observedAgentSatisfaction - learningAgentSatisfaction;
@@ -58,7 +68,7 @@ class SocialLearning {
                     double learningChance = 1 / (1 + (Math.exp(-β * difference)));
                     double normalisedLearningChance = (learningChance * 2) - 1;
 
-                    double threshold = ResourceExchangeArena.random.nextDouble();
+                    double threshold = context.nextDouble();
 
                     if (normalisedLearningChance > threshold) {
                         int newType = (int) Math.round(previousPerformances[observedPerformance][0]);
@@ -0,0 +1,161 @@
+package resource_exchange_arena;
+
+class TimeSlotStore {
+    // Number of times each time-slot is held, indexed by time-slot. Index 0 is kept as the availability wheel in Day is
+    // able to produce a time-slot of 0.
+    private final int[] slotCounts;
+
+    // The held time-slots in the order they were added, required so that adverts and offers remain reproducible.
+    private final int[] timeSlots;
+    private int size;
+
+    // Working copy of another stores counts used when calculating differences between stores.
+    private final int[] remainingCounts;
+
+    /**
+     * Stores a collection of time-slots using primitive counts for each unique time-slot so that duplicate time-slots
+     * are supported and membership can be checked without searching.
+     *
+     * @param uniqueTimeSlots Integer value representing the number of unique time-slots available in the simulation.
+     * @param capacity Integer value representing the maximum number of time-slots that can be held at once.
+     */
+    TimeSlotStore(int uniqueTimeSlots, int capacity) {
+        slotCounts = new int[uniqueTimeSlots + 1];
+        timeSlots = new int[capacity];
+        remainingCounts = new int[uniqueTimeSlots + 1];
+        size = 0;
+    }
+
+    /**
+     * Getter for the number of time-slots currently held.
+     *
+     * @return int Returns the number of time-slots held, including duplicates.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Getter for whether any time-slots are currently held.
+     *
+     * @return boolean Returns whether the store is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Getter for a held time-slot by its position in the store.
+     *
+     * @param index The position of the time-slot, time-slots are kept in the order they were added.
+     * @return int Returns the time-slot at the given position.
+     */
+    int get(int index) {
+        return timeSlots[index];
+    }
+
+    /**
+     * Checks whether a time-slot is currently held.
+     *
+     * @param timeSlot The time-slot to check for.
+     * @return boolean Returns whether at least one copy of the time-slot is held.
+     */
+    boolean contains(int timeSlot) {
+        return slotCounts[timeSlot] > 0;
+    }
+
+    /**
+     * Getter for the number of copies of a time-slot that are currently held.
+     *
+     * @param timeSlot The time-slot to count.
+     * @return int Returns the number of copies of the time-slot held.
+     */
+    int count(int timeSlot) {
+        return slotCounts[timeSlot];
+    }
+
+    /**
+     * Removes all time-slots from the store.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            slotCounts[timeSlots[i]] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Adds a time-slot to the end of the store.
+     *
+     * @param timeSlot The time-slot to add.
+     */
+    void add(int timeSlot) {
+        timeSlots[size] = timeSlot;
+        size++;
+        slotCounts[timeSlot]++;
+    }
+
+    /**
+     * Removes the first copy of a time-slot from the store, the remaining time-slots keep their order.
+     *
+     * @param timeSlot The time-slot to remove.
+     * @return boolean Returns whether the time-slot was held and so removed.
+     */
+    boolean remove(int timeSlot) {
+        if (slotCounts[timeSlot] == 0) {
+            return false;
+        }
+        int index = 0;
+        while (timeSlots[index] != timeSlot) {
+            index++;
+        }
+        System.arraycopy(timeSlots, index + 1, timeSlots, index, size - index - 1);
+        size--;
+        slotCounts[timeSlot]--;
+        return true;
+    }
+
+    /**
+     * Exchanges one held time-slot for another, the new time-slot is placed at the end of the store.
+     *
+     * @param removedTimeSlot The time-slot being given away.
+     * @param addedTimeSlot The time-slot being received.
+     */
+    void swap(int removedTimeSlot, int addedTimeSlot) {
+        if (remove(removedTimeSlot)) {
+            add(addedTimeSlot);
+        }
+    }
+
+    /**
+     * Replaces the contents of this store with the contents of another store.
+     *
+     * @param other The store to copy.
+     */
+    void copyFrom(TimeSlotStore other) {
+        clear();
+        for (int i = 0; i < other.size; i++) {
+            add(other.timeSlots[i]);
+        }
+    }
+
+    /**
+     * Replaces the contents of this store with the time-slots from the first store that are not present in the second
+     * store. Where a time-slot appears in both, each copy in the second store cancels out one copy in the first.
+     *
+     * @param potentialTimeSlots the time-slots that may be kept if not present in the second store.
+     * @param timeSlotsToAvoid the time-slots that shouldn't be kept.
+     */
+    void difference(TimeSlotStore potentialTimeSlots, TimeSlotStore timeSlotsToAvoid) {
+        clear();
+        System.arraycopy(timeSlotsToAvoid.slotCounts, 0, remainingCounts, 0, remainingCounts.length);
+        for (int i = 0; i < potentialTimeSlots.size; i++) {
+            int timeSlot = potentialTimeSlots.timeSlots[i];
+            if (remainingCounts[timeSlot] > 0) {
+                remainingCounts[timeSlot]--;
+            } else {
+                add(timeSlot);
+            }
+        }
+    }
+}
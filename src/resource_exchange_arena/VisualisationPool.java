@@ -0,0 +1,167 @@
+package resource_exchange_arena;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class VisualisationPool {
+    // Carries out the visualisation jobs, each job waiting on a single python process.
+    private final ExecutorService jobExecutor;
+
+    // The number of seconds to wait for the jobs when the simulation is complete, 0 waiting as long as they take.
+    private final long timeoutSeconds;
+
+    // Every job submitted, in the order they were submitted, so that they can be reported once they are joined.
+    private final ArrayList<Job> jobs = new ArrayList<>();
+
+    /**
+     * A single visualisation carried out by a python process, writing everything the process prints to a log file.
+     */
+    private static class Job {
+        final String description;
+        final List<String> command;
+        final File logFile;
+
+        // Set by the job as it runs, read once the jobs have been joined.
+        volatile Process process;
+        volatile boolean finished;
+        volatile int exitCode;
+        volatile IOException error;
+
+        Job(String description, List<String> command, File logFile) {
+            this.description = description;
+            this.command = command;
+            this.logFile = logFile;
+        }
+    }
+
+    /**
+     * Carries out the python visualisations in the background, so that the next environment version or sweep point
+     * is simulated while the data of the last one is visualised. Only a given number of python processes run at the
+     * same time, the rest waiting for one to finish. The visualisations are joined once, when every simulation is
+     * complete, and any that failed or did not finish in time are reported.
+     *
+     * @param processes Integer value representing the number of python processes that can run at the same time.
+     * @param timeoutSeconds Long value representing the number of seconds to wait for the visualisations once every
+     *                       simulation is complete, or 0 to wait until they finish.
+     */
+    VisualisationPool(int processes, long timeoutSeconds) {
+        jobExecutor = Executors.newFixedThreadPool(Math.max(processes, 1), runnable -> {
+            Thread thread = new Thread(runnable, "visualisation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutSeconds = Math.max(timeoutSeconds, 0);
+    }
+
+    /**
+     * Submits a visualisation to be carried out once a python process is free.
+     *
+     * @param description String describing the visualisation, used when it is reported.
+     * @param command The python executable, the script and its arguments.
+     * @param logFile The file the output of the python process is written to, replacing any previous log.
+     */
+    void submit(String description, List<String> command, File logFile) {
+        Job job = new Job(description, command, logFile);
+        synchronized (jobs) {
+            jobs.add(job);
+        }
+        jobExecutor.execute(() -> run(job));
+    }
+
+    /**
+     * Starts the python process of a job and waits for it to finish.
+     *
+     * @param job The visualisation to carry out.
+     */
+    private static void run(Job job) {
+        ProcessBuilder builder = new ProcessBuilder(job.command);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(job.logFile);
+        try {
+            job.process = builder.start();
+            job.exitCode = job.process.waitFor();
+            job.finished = true;
+        } catch (IOException e) {
+            job.error = e;
+        } catch (InterruptedException e) {
+            // The job was cancelled when the pool was joined. The pool may have been joined while the process was
+            // starting, before the join could see it, so the process is destroyed here. Once started, waitFor throws
+            // straight away when the job has already been interrupted.
+            destroy(job.process);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops a python process along with any processes it started.
+     *
+     * @param process The process to stop, or null when it was never started.
+     */
+    private static void destroy(Process process) {
+        if (process != null) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Waits for every visualisation to finish, up to the timeout, then reports each one that failed. Visualisations
+     * still running when the timeout is reached are stopped.
+     */
+    void join() {
+        jobExecutor.shutdown();
+        boolean finished = false;
+        try {
+            if (timeoutSeconds == 0) {
+                while (!finished) {
+                    finished = jobExecutor.awaitTermination(1, TimeUnit.HOURS);
+                }
+            } else {
+                finished = jobExecutor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!finished) {
+            // Each cancelled job destroys its own process, which is waited for so that none is left running.
+            jobExecutor.shutdownNow();
+            try {
+                jobExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        ArrayList<Job> submitted;
+        synchronized (jobs) {
+            submitted = new ArrayList<>(jobs);
+        }
+        int failures = 0;
+        for (Job job : submitted) {
+            if (job.finished && job.exitCode == 0) {
+                continue;
+            }
+            failures++;
+            if (job.error != null) {
+                System.out.println("Error: Visualisation of " + job.description + " could not start, "
+                        + job.error.getMessage());
+            } else if (job.finished) {
+                System.out.println("Error: Visualisation of " + job.description + " failed with exit code "
+                        + job.exitCode + ", see " + job.logFile);
+            } else {
+                destroy(job.process);
+                System.out.println("Error: Visualisation of " + job.description + " did not finish within "
+                        + timeoutSeconds + " seconds, see " + job.logFile);
+            }
+        }
+        if (!submitted.isEmpty()) {
+            System.out.println("Visualisation complete: " + (submitted.size() - failures) + " / " + submitted.size()
+                    + " succeeded.");
+        }
+    }
+}